@@ -0,0 +1,102 @@
+package org.wildfly.extras.creaper.commands.foundation.offline.xml;
+
+import com.google.common.io.Files;
+import com.google.common.io.Resources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.extras.creaper.commands.logging.LogLevel;
+import org.wildfly.extras.creaper.commands.logging.Logging;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.ManagementClient;
+import org.wildfly.extras.creaper.core.offline.OfflineCommand;
+import org.wildfly.extras.creaper.core.offline.OfflineManagementClient;
+import org.wildfly.extras.creaper.core.offline.OfflineOptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GroovyXmlTransform#apply(org.wildfly.extras.creaper.core.offline.OfflineCommandContext) Applying}
+ * a typical offline command ({@code AddLogger}) to a representative {@code standalone.xml} (~25 kB)
+ * and {@code domain.xml} (~100 kB, 4 profiles), one command at a time and 10 commands in a single {@code apply}.
+ * With {@code inMemorySession}, all commands in a single {@code apply} share one parsed configuration
+ * (see {@link OfflineOptions.OptionalOfflineOptions#inMemorySession()}).
+ * The configuration file is restored before each invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroovyXmlTransformBenchmark {
+    @Param({"standalone.xml", "domain.xml"})
+    public String configuration;
+
+    @Param({"false", "true"})
+    public boolean inMemorySession;
+
+    private byte[] originalContent;
+    private File configurationFile;
+    private OfflineManagementClient client;
+
+    private OfflineCommand addLogger;
+    private List<OfflineCommand> addLoggers;
+
+    @Setup
+    public void setUp() throws IOException {
+        originalContent = Resources.toByteArray(GroovyXmlTransformBenchmark.class.getResource(configuration));
+        configurationFile = File.createTempFile("creaper-benchmark-", "-" + configuration);
+        Files.write(originalContent, configurationFile);
+
+        OfflineOptions.OptionalOfflineOptions options = configuration.startsWith("domain")
+                ? OfflineOptions.domain().forProfile("full").build().configurationFile(configurationFile)
+                : OfflineOptions.standalone().configurationFile(configurationFile);
+        if (inMemorySession) {
+            options.inMemorySession();
+        }
+        client = ManagementClient.offline(options.build());
+
+        addLogger = Logging.logger().add("org.example").level(LogLevel.DEBUG).build();
+        addLoggers = new ArrayList<OfflineCommand>();
+        for (int i = 0; i < 10; i++) {
+            addLoggers.add(Logging.logger().add("org.example.category" + i).level(LogLevel.DEBUG).build());
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void restoreConfiguration() throws IOException {
+        Files.write(originalContent, configurationFile);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (!configurationFile.delete()) {
+            throw new IOException("Couldn't delete " + configurationFile);
+        }
+    }
+
+    @Benchmark
+    public void applySingleCommand() throws CommandFailedException {
+        client.apply(addLogger);
+    }
+
+    @Benchmark
+    public void applyTenCommands() throws CommandFailedException {
+        client.apply(addLoggers);
+    }
+}
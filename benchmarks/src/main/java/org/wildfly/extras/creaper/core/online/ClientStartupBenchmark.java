@@ -0,0 +1,72 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first operation: creating an {@link OnlineManagementClient} against a {@link FakeModelControllerClient},
+ * executing a single operation and closing the client. {@code firstClientInJvm} measures the very first client
+ * in a fresh JVM, which includes loading all the classes the client needs; {@code connectAndExecute} measures
+ * a client created in a warmed up JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+// the CLI that OnlineManagementClient may initialize needs reflective access to JDK internals on Java 9+
+@Fork(value = 1, jvmArgsAppend = {
+        "--add-opens=java.base/java.lang=ALL-UNNAMED",
+        "--add-opens=java.base/java.security=ALL-UNNAMED"})
+public class ClientStartupBenchmark {
+    private FakeModelControllerClient fakeClient;
+    private ModelNode operation;
+
+    @Setup
+    public void setUp() {
+        fakeClient = new FakeModelControllerClient(false);
+
+        operation = new ModelNode();
+        operation.get(Constants.OP).set(Constants.READ_ATTRIBUTE_OPERATION);
+        operation.get(Constants.OP_ADDR).add(Constants.SUBSYSTEM, "undertow");
+        operation.get(Constants.NAME).set("default-server");
+    }
+
+    private ModelNodeResult connectAndExecuteOnce() throws IOException {
+        OnlineManagementClient client = new OnlineManagementClientImpl(OnlineOptions.standalone().wrap(fakeClient));
+        try {
+            return client.execute(operation);
+        } finally {
+            client.close();
+        }
+    }
+
+    @Benchmark
+    public ModelNodeResult connectAndExecute() throws IOException {
+        return connectAndExecuteOnce();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(value = 10, jvmArgsAppend = {
+            "--add-opens=java.base/java.lang=ALL-UNNAMED",
+            "--add-opens=java.base/java.security=ALL-UNNAMED"})
+    public ModelNodeResult firstClientInJvm() throws IOException {
+        return connectAndExecuteOnce();
+    }
+}
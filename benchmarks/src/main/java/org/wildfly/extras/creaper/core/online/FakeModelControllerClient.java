@@ -0,0 +1,178 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.jboss.threads.AsyncFutureTask;
+import org.wildfly.extras.creaper.core.ManagementVersionPart;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+/**
+ * An in-process {@link ModelControllerClient} that answers every operation with a canned response, so that
+ * the client side of the online paths can be measured without a server and without network noise. Just enough
+ * of the management model is faked for {@link OnlineManagementClient} to be able to connect (root attributes,
+ * including management version, and root children types). The response is a fresh copy every time, just like
+ * when it's deserialized. Asynchronous operations are executed synchronously and return an already completed future.
+ */
+public final class FakeModelControllerClient implements ModelControllerClient {
+    private final ModelNode root;
+    private final ModelNode rootResource;
+    private final ModelNode rootChildrenTypes;
+    private final ModelNode attribute;
+    private final ModelNode success;
+
+    public FakeModelControllerClient(boolean domain) {
+        ModelNode root = new ModelNode();
+        root.get(ManagementVersionPart.MAJOR.attributeName()).set(4);
+        root.get(ManagementVersionPart.MINOR.attributeName()).set(0);
+        root.get(ManagementVersionPart.MICRO.attributeName()).set(0);
+        root.get("launch-type").set(domain ? "DOMAIN" : "STANDALONE");
+        root.get("name").set("localhost");
+        root.get("release-codename").set("Kenny");
+        this.root = root;
+        rootResource = successWith(root);
+
+        ModelNode childrenTypes = new ModelNode();
+        childrenTypes.add(Constants.CORE_SERVICE);
+        childrenTypes.add("deployment");
+        childrenTypes.add("interface");
+        childrenTypes.add("path");
+        childrenTypes.add(domain ? Constants.PROFILE : Constants.SUBSYSTEM);
+        if (domain) {
+            childrenTypes.add(Constants.HOST);
+            childrenTypes.add(Constants.SERVER_GROUP);
+        }
+        rootChildrenTypes = successWith(childrenTypes);
+
+        attribute = successWith(new ModelNode("value"));
+        success = new ModelNode();
+        success.get(Constants.OUTCOME).set(Constants.SUCCESS);
+    }
+
+    private static ModelNode successWith(ModelNode result) {
+        ModelNode response = new ModelNode();
+        response.get(Constants.OUTCOME).set(Constants.SUCCESS);
+        response.get(Constants.RESULT).set(result);
+        return response;
+    }
+
+    private ModelNode respond(ModelNode operation) {
+        String name = operation.get(Constants.OP).asString();
+        boolean onRoot = operation.get(Constants.OP_ADDR).asInt() == 0;
+
+        if (Constants.READ_RESOURCE_OPERATION.equals(name) && onRoot) {
+            return rootResource.clone();
+        } else if (Constants.READ_CHILDREN_TYPES.equals(name) && onRoot) {
+            return rootChildrenTypes.clone();
+        } else if (Constants.READ_ATTRIBUTE_OPERATION.equals(name) && onRoot) {
+            return successWith(root.get(operation.get(Constants.NAME).asString()));
+        } else if (Constants.READ_ATTRIBUTE_OPERATION.equals(name)) {
+            return attribute.clone();
+        } else if (Constants.COMPOSITE.equals(name)) {
+            ModelNode response = success.clone();
+            int step = 1;
+            for (ModelNode stepOperation : operation.get(Constants.STEPS).asList()) {
+                response.get(Constants.RESULT, "step-" + step).set(respond(stepOperation));
+                step++;
+            }
+            return response;
+        }
+        return success.clone();
+    }
+
+    @Override
+    public ModelNode execute(ModelNode operation) throws IOException {
+        return respond(operation);
+    }
+
+    @Override
+    public ModelNode execute(Operation operation) throws IOException {
+        return respond(operation.getOperation());
+    }
+
+    @Override
+    public ModelNode execute(ModelNode operation, OperationMessageHandler messageHandler) throws IOException {
+        return respond(operation);
+    }
+
+    @Override
+    public ModelNode execute(Operation operation, OperationMessageHandler messageHandler) throws IOException {
+        return respond(operation.getOperation());
+    }
+
+    @Override
+    public OperationResponse executeOperation(Operation operation, OperationMessageHandler messageHandler)
+            throws IOException {
+        return OperationResponse.Factory.createSimple(respond(operation.getOperation()));
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> executeAsync(ModelNode operation, OperationMessageHandler messageHandler) {
+        CompletedFuture<ModelNode> future = new CompletedFuture<ModelNode>();
+        try {
+            future.complete(execute(operation, messageHandler));
+        } catch (Throwable e) {
+            future.fail(e);
+        }
+        return future;
+    }
+
+    @Override
+    public AsyncFuture<ModelNode> executeAsync(Operation operation, OperationMessageHandler messageHandler) {
+        CompletedFuture<ModelNode> future = new CompletedFuture<ModelNode>();
+        try {
+            future.complete(execute(operation, messageHandler));
+        } catch (Throwable e) {
+            future.fail(e);
+        }
+        return future;
+    }
+
+    @Override
+    public AsyncFuture<OperationResponse> executeOperationAsync(Operation operation,
+                                                               OperationMessageHandler messageHandler) {
+        CompletedFuture<OperationResponse> future = new CompletedFuture<OperationResponse>();
+        try {
+            future.complete(executeOperation(operation, messageHandler));
+        } catch (Throwable e) {
+            future.fail(e);
+        }
+        return future;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /** A future that is completed before it's returned. Listeners are notified directly from the calling thread. */
+    private static final class CompletedFuture<T> extends AsyncFutureTask<T> {
+        private static final Executor DIRECT_EXECUTOR = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+
+        CompletedFuture() {
+            super(DIRECT_EXECUTOR);
+        }
+
+        void complete(T result) {
+            setResult(result);
+        }
+
+        void fail(Throwable cause) {
+            setFailed(cause);
+        }
+
+        @Override
+        public void asyncCancel(boolean interruptionDesired) {
+            // already completed, nothing to cancel
+        }
+    }
+}
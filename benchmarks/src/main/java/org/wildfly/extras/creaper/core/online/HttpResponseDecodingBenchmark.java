@@ -0,0 +1,70 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of a large {@code read-resource(recursive=true, include-runtime=true)} response as received by
+ * {@link HttpModelControllerClient}. Compares the former approach (read the entity into a {@code String}, then parse)
+ * with decoding straight from the entity stream, both for JSON and the {@code application/dmr-encoded} format.
+ * Run with {@code -prof gc} to see the difference in allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HttpResponseDecodingBenchmark {
+    /** 100 deployments is about 4.5 MB of JSON. */
+    @Param({"10", "100"})
+    public int deployments;
+
+    private byte[] json;
+    private byte[] dmrEncoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        ModelNode response = LargeResults.standaloneReadResource(deployments);
+        json = response.toJSONString(true).getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream base64 = new ByteArrayOutputStream();
+        response.writeBase64(base64);
+        dmrEncoded = base64.toByteArray();
+    }
+
+    @Benchmark
+    public ModelNode jsonViaString() throws IOException {
+        ByteArrayEntity entity = new ByteArrayEntity(json, ContentType.APPLICATION_JSON);
+        return ModelNode.fromJSONString(EntityUtils.toString(entity));
+    }
+
+    @Benchmark
+    public ModelNode jsonStreaming() throws IOException {
+        return HttpModelControllerClient.decode(new ByteArrayEntity(json, ContentType.APPLICATION_JSON));
+    }
+
+    @Benchmark
+    public ModelNode dmrEncodedStreaming() throws IOException {
+        return HttpModelControllerClient.decode(
+                new ByteArrayEntity(dmrEncoded, HttpModelControllerClient.APPLICATION_DMR_ENCODED));
+    }
+}
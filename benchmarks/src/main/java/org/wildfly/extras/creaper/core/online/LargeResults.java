@@ -0,0 +1,98 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Generates results of {@code read-resource(recursive=true, include-runtime=true)} that have the shape of what
+ * a real server returns for a configuration with a lot of deployments: deep nesting, many small string/number
+ * attributes and lots of undefined values. The result is deterministic, so that benchmark runs are comparable.
+ */
+final class LargeResults {
+    private LargeResults() {
+    }
+
+    /** Roughly {@code 45 kB} of JSON per deployment. */
+    static ModelNode standaloneReadResource(int deployments) {
+        ModelNode response = new ModelNode();
+        response.get(Constants.OUTCOME).set(Constants.SUCCESS);
+        response.get(Constants.RESULT).set(serverResource(deployments));
+        return response;
+    }
+
+    /**
+     * A composite response of the kind that is returned for a domain {@code read-resource} of the same resource
+     * on multiple servers ({@code server-groups} / {@code step-N} structure included).
+     */
+    static ModelNode domainReadResource(int servers, int deploymentsPerServer) {
+        ModelNode response = new ModelNode();
+        response.get(Constants.OUTCOME).set(Constants.SUCCESS);
+        response.get(Constants.RESULT).set(serverResource(deploymentsPerServer));
+
+        ModelNode host = response.get(Constants.SERVER_GROUPS, "main-server-group", "host", "master");
+        for (int i = 0; i < servers; i++) {
+            ModelNode serverResponse = host.get("server-" + i, Constants.RESPONSE);
+            serverResponse.get(Constants.OUTCOME).set(Constants.SUCCESS);
+            serverResponse.get(Constants.RESULT).set(serverResource(deploymentsPerServer));
+        }
+        return response;
+    }
+
+    private static ModelNode serverResource(int deployments) {
+        ModelNode result = new ModelNode();
+        result.get("name").set("localhost");
+        result.get("release-codename").set("Kenny");
+        result.get("server-state").set("running");
+        result.get("launch-type").set("STANDALONE");
+        result.get("profile-name").setEmptyObject();
+
+        for (int d = 0; d < deployments; d++) {
+            ModelNode deployment = result.get("deployment", "app-" + d + ".war");
+            deployment.get("enabled").set(true);
+            deployment.get("runtime-name").set("app-" + d + ".war");
+            deployment.get("persistent").set(true);
+            deployment.get("status").set("OK");
+            deployment.get("enabled-time").set(1500000000000L + d);
+            deployment.get("owner").set(new ModelNode());
+            deployment.get("content").add().get("hash").set(new byte[20]);
+
+            ModelNode undertow = deployment.get("subsystem", "undertow");
+            undertow.get("context-root").set("/app-" + d);
+            undertow.get("server").set("default-server");
+            undertow.get("virtual-host").set("default-host");
+            undertow.get("active-sessions").set(d % 17);
+            undertow.get("max-active-sessions").set(-1);
+            undertow.get("session-avg-alive-time").set(0);
+            for (int s = 0; s < 20; s++) {
+                ModelNode servlet = undertow.get("servlet", "org.example.app" + d + ".Servlet" + s);
+                servlet.get("servlet-class").set("org.example.app" + d + ".Servlet" + s);
+                servlet.get("servlet-name").set("Servlet" + s);
+                servlet.get("load-on-startup").set(new ModelNode());
+                servlet.get("max-request-time").set(s * 13L);
+                servlet.get("min-request-time").set(s);
+                servlet.get("request-count").set(d * 1000L + s);
+                servlet.get("total-request-time").set(d * 31L + s);
+                servlet.get("mappings").add("/servlet" + s + "/*");
+            }
+
+            ModelNode ejb = deployment.get("subsystem", "ejb3");
+            for (int b = 0; b < 10; b++) {
+                ModelNode bean = ejb.get("stateless-session-bean", "Bean" + b);
+                bean.get("component-class-name").set("org.example.app" + d + ".Bean" + b);
+                bean.get("declared-roles").setEmptyList();
+                bean.get("execution-time").set(0L);
+                bean.get("invocations").set(0L);
+                bean.get("methods").setEmptyObject();
+                bean.get("peak-concurrent-invocations").set(0L);
+                bean.get("pool-available-count").set(20);
+                bean.get("pool-create-count").set(0);
+                bean.get("pool-current-size").set(0);
+                bean.get("pool-name").set("slsb-strict-max-pool");
+                bean.get("run-as-role").set(new ModelNode());
+                bean.get("security-domain").set("other");
+                bean.get("timers").setEmptyList();
+                bean.get("wait-time").set(0L);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,93 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link ModelNodeResult} accessors that commands use on almost every result: outcome checks, typed values,
+ * list values, response headers and extracting results of individual steps of a 20-step composite.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelNodeResultAccessorsBenchmark {
+    private static final int COMPOSITE_STEPS = 20;
+
+    private ModelNodeResult stringResult;
+    private ModelNodeResult listResult;
+    private ModelNodeResult compositeResult;
+
+    @Setup
+    public void setUp() {
+        ModelNode response = new ModelNode();
+        response.get(Constants.OUTCOME).set(Constants.SUCCESS);
+        response.get(Constants.RESULT).set("jdbc:h2:mem:test;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        response.get(Constants.RESPONSE_HEADERS, Constants.PROCESS_STATE)
+                .set(Constants.CONTROLLER_PROCESS_STATE_RELOAD_REQUIRED);
+        stringResult = new ModelNodeResult(response);
+
+        response = new ModelNode();
+        response.get(Constants.OUTCOME).set(Constants.SUCCESS);
+        for (int i = 0; i < 50; i++) {
+            response.get(Constants.RESULT).add("app-" + i + ".war");
+        }
+        listResult = new ModelNodeResult(response);
+
+        response = new ModelNode();
+        response.get(Constants.OUTCOME).set(Constants.SUCCESS);
+        for (int i = 1; i <= COMPOSITE_STEPS; i++) {
+            ModelNode step = response.get(Constants.RESULT, "step-" + i);
+            step.get(Constants.OUTCOME).set(Constants.SUCCESS);
+            step.get(Constants.RESULT).set("value-" + i);
+        }
+        compositeResult = new ModelNodeResult(response);
+    }
+
+    @Benchmark
+    public boolean isSuccess() {
+        return stringResult.isSuccess();
+    }
+
+    @Benchmark
+    public String stringValue() {
+        return stringResult.stringValue();
+    }
+
+    @Benchmark
+    public boolean isReloadRequired() {
+        return stringResult.isReloadRequired();
+    }
+
+    @Benchmark
+    public List<String> stringListValue() {
+        return listResult.stringListValue();
+    }
+
+    @Benchmark
+    public ModelNodeResult forBatchStep() {
+        return compositeResult.forBatchStep(COMPOSITE_STEPS / 2);
+    }
+
+    @Benchmark
+    public void forAllBatchSteps(Blackhole blackhole) {
+        for (ModelNodeResult step : compositeResult.forAllBatchSteps()) {
+            blackhole.consume(step.stringValue());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.apache.http.entity.ByteArrayEntity;
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating a {@link ModelNodeResult} from a ~5 MB domain {@code read-resource} response and extracting a result
+ * of a single server. The {@code *Copy} variants correspond to the former behavior, where each of these steps made
+ * a deep copy of the whole node; {@code forServer} now only copies the result of that one server, and
+ * an {@code application/dmr-encoded} HTTP response is decoded directly to a {@code ModelNodeResult}. Run with
+ * {@code -prof gc} to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelNodeResultWrappingBenchmark {
+    private ModelNode response;
+    private byte[] dmrEncodedResponse;
+    private ModelNodeResult result;
+
+    @Setup
+    public void setUp() throws IOException {
+        response = LargeResults.domainReadResource(4, 25);
+        ByteArrayOutputStream base64 = new ByteArrayOutputStream();
+        response.writeBase64(base64);
+        dmrEncodedResponse = base64.toByteArray();
+        result = new ModelNodeResult(response);
+    }
+
+    @Benchmark
+    public ModelNodeResult constructorCopy() {
+        return new ModelNodeResult(response);
+    }
+
+    @Benchmark
+    public ModelNodeResult decodeDmrEncodedCopy() throws IOException {
+        return new ModelNodeResult(ModelNode.fromBase64(new ByteArrayInputStream(dmrEncodedResponse)));
+    }
+
+    @Benchmark
+    public ModelNode decodeDmrEncoded() throws IOException {
+        return HttpModelControllerClient.decode(new ByteArrayEntity(dmrEncodedResponse,
+                HttpModelControllerClient.APPLICATION_DMR_ENCODED));
+    }
+
+    @Benchmark
+    public ModelNodeResult forServerCopy() {
+        return new ModelNodeResult(result.forServer("master", "server-2"));
+    }
+
+    @Benchmark
+    public ModelNodeResult forServer() {
+        return result.forServer("master", "server-2");
+    }
+}
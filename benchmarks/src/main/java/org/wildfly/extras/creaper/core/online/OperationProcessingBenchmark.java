@@ -0,0 +1,140 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What {@link OnlineManagementClient} does with each operation before it's sent: {@link AdjustOperationForDomain}
+ * and {@link ModelNodeOperationToCliString} (for logging), and the whole {@code execute} path against
+ * a {@link FakeModelControllerClient}, both for a single operation and a 20-step composite, and the
+ * {@code executeAsync} path, whose overhead over {@code execute} is the future and its completion.
+ * {@code AdjustOperationForDomain} modifies the operation in place, so these benchmarks work on a copy;
+ * the {@code copy*} benchmarks measure the cost of that copy alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+// the CLI that OnlineManagementClient initializes needs reflective access to JDK internals on Java 9+
+@Fork(value = 1, jvmArgsAppend = {
+        "--add-opens=java.base/java.lang=ALL-UNNAMED",
+        "--add-opens=java.base/java.security=ALL-UNNAMED"})
+public class OperationProcessingBenchmark {
+    private static final int COMPOSITE_STEPS = 20;
+
+    private ModelNode operation;
+    private ModelNode composite;
+
+    private AdjustOperationForDomain adjustForDomain;
+    private OnlineManagementClient standaloneClient;
+    private OnlineManagementClient domainClient;
+
+    @Setup
+    public void setUp() throws IOException {
+        operation = writeAttribute(0);
+
+        composite = new ModelNode();
+        composite.get(Constants.OP).set(Constants.COMPOSITE);
+        composite.get(Constants.OP_ADDR).setEmptyList();
+        for (int i = 0; i < COMPOSITE_STEPS; i++) {
+            composite.get(Constants.STEPS).add(writeAttribute(i));
+        }
+
+        OnlineOptions domainOptions = OnlineOptions.domain().forProfile("full").forHost("master").build()
+                .wrap(new FakeModelControllerClient(true));
+        adjustForDomain = new AdjustOperationForDomain(domainOptions);
+        domainClient = new OnlineManagementClientImpl(domainOptions);
+        standaloneClient = new OnlineManagementClientImpl(
+                OnlineOptions.standalone().wrap(new FakeModelControllerClient(false)));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        standaloneClient.close();
+        domainClient.close();
+    }
+
+    private static ModelNode writeAttribute(int index) {
+        ModelNode op = new ModelNode();
+        op.get(Constants.OP).set(Constants.WRITE_ATTRIBUTE_OPERATION);
+        op.get(Constants.OP_ADDR).add(Constants.SUBSYSTEM, "datasources").add("data-source", "ExampleDS" + index);
+        op.get(Constants.NAME).set("connection-url");
+        op.get(Constants.VALUE).set("jdbc:h2:mem:test" + index + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        return op;
+    }
+
+    @Benchmark
+    public String toCliString() {
+        return ModelNodeOperationToCliString.convert(operation);
+    }
+
+    @Benchmark
+    public String toCliStringComposite() {
+        return ModelNodeOperationToCliString.convert(composite);
+    }
+
+    @Benchmark
+    public ModelNode copy() {
+        return operation.clone();
+    }
+
+    @Benchmark
+    public ModelNode copyComposite() {
+        return composite.clone();
+    }
+
+    @Benchmark
+    public ModelNode adjustForDomain() {
+        return adjustForDomain.adjust(operation.clone());
+    }
+
+    @Benchmark
+    public ModelNode adjustForDomainComposite() {
+        return adjustForDomain.adjust(composite.clone());
+    }
+
+    @Benchmark
+    public ModelNodeResult executeStandalone() throws IOException {
+        return standaloneClient.execute(operation.clone());
+    }
+
+    @Benchmark
+    public ModelNodeResult executeStandaloneComposite() throws IOException {
+        return standaloneClient.execute(composite.clone());
+    }
+
+    @Benchmark
+    public ModelNodeResult executeDomain() throws IOException {
+        return domainClient.execute(operation.clone());
+    }
+
+    @Benchmark
+    public ModelNodeResult executeDomainComposite() throws IOException {
+        return domainClient.execute(composite.clone());
+    }
+
+    @Benchmark
+    public ModelNodeResult executeAsyncStandalone() throws InterruptedException, ExecutionException {
+        return standaloneClient.executeAsync(operation.clone()).get();
+    }
+
+    @Benchmark
+    public ModelNodeResult executeAsyncDomain() throws InterruptedException, ExecutionException {
+        return domainClient.executeAsync(operation.clone()).get();
+    }
+}
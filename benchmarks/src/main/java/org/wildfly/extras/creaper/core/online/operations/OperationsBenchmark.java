@@ -0,0 +1,110 @@
+package org.wildfly.extras.creaper.core.online.operations;
+
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.extras.creaper.core.ManagementClient;
+import org.wildfly.extras.creaper.core.online.FakeModelControllerClient;
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+import org.wildfly.extras.creaper.core.online.OnlineOptions;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of management operations by {@link OperationsModelNodeBuilder}, conversion of a {@link Batch}
+ * of {@code batchSize} operations to a composite, and the same operations executed through {@link Operations}
+ * against a {@link FakeModelControllerClient}, which includes everything the client does on the way.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+// the CLI that OnlineManagementClient initializes needs reflective access to JDK internals on Java 9+
+@Fork(value = 1, jvmArgsAppend = {
+        "--add-opens=java.base/java.lang=ALL-UNNAMED",
+        "--add-opens=java.base/java.security=ALL-UNNAMED"})
+public class OperationsBenchmark {
+    @Param({"10", "100"})
+    public int batchSize;
+
+    private final OperationsModelNodeBuilder builder = new OperationsModelNodeBuilder();
+
+    private Address address;
+    private Values dataSource;
+    private OnlineManagementClient client;
+    private Operations ops;
+
+    @Setup
+    public void setUp() throws IOException {
+        address = Address.subsystem("datasources").and("data-source", "ExampleDS");
+        dataSource = Values.empty()
+                .and("jndi-name", "java:jboss/datasources/ExampleDS")
+                .and("driver-name", "h2")
+                .and("connection-url", "jdbc:h2:mem:test;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+                .and("user-name", "sa")
+                .and("password", "sa")
+                .and("min-pool-size", 5)
+                .and("max-pool-size", 20)
+                .and("use-java-context", true)
+                .and("statistics-enabled", false);
+
+        client = ManagementClient.online(OnlineOptions.standalone().wrap(new FakeModelControllerClient(false)));
+        ops = new Operations(client);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        client.close();
+    }
+
+    private Batch batch() {
+        Batch batch = new Batch();
+        for (int i = 0; i < batchSize; i++) {
+            batch.writeAttribute(address, "max-pool-size", i);
+        }
+        return batch;
+    }
+
+    @Benchmark
+    public ModelNode buildWriteAttribute() {
+        return builder.writeAttribute(address, "max-pool-size", 20);
+    }
+
+    @Benchmark
+    public ModelNode buildAdd() {
+        return builder.add(address, dataSource);
+    }
+
+    @Benchmark
+    public ModelNode buildReadResource() {
+        return builder.readResource(address, ReadResourceOption.RECURSIVE, ReadResourceOption.INCLUDE_DEFAULTS);
+    }
+
+    @Benchmark
+    public ModelNode batchToModelNode() {
+        return batch().toModelNode();
+    }
+
+    @Benchmark
+    public ModelNodeResult executeAdd() throws IOException {
+        return ops.add(address, dataSource);
+    }
+
+    @Benchmark
+    public ModelNodeResult executeBatch() throws IOException {
+        return ops.batch(batch());
+    }
+}
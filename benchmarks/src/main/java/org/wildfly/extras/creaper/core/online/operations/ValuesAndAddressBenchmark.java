@@ -0,0 +1,70 @@
+package org.wildfly.extras.creaper.core.online.operations;
+
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building {@link Values} and {@link Address} by chaining, as commands such as {@code AddDataSource} do,
+ * and using the same {@code Address} for all operations of a {@link Batch}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValuesAndAddressBenchmark {
+    @Param({"10", "50"})
+    public int size;
+
+    private String[] names;
+    private Address address;
+
+    @Setup
+    public void setUp() {
+        names = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = "attribute-" + i;
+        }
+        address = Address.subsystem("datasources").and("data-source", "ExampleDS");
+    }
+
+    @Benchmark
+    public Values buildValues() {
+        Values values = Values.empty();
+        for (int i = 0; i < size; i++) {
+            values = values.andOptional(names[i], (i % 3 == 0) ? null : "value");
+        }
+        return values;
+    }
+
+    @Benchmark
+    public Address buildAddress() {
+        Address result = Address.root();
+        for (int i = 0; i < size; i++) {
+            result = result.and(names[i], "value");
+        }
+        return result;
+    }
+
+    @Benchmark
+    public ModelNode batchWithSameAddress() {
+        Batch batch = new Batch();
+        for (int i = 0; i < size; i++) {
+            batch.writeAttribute(address, names[i], "value");
+        }
+        return batch.toModelNode();
+    }
+}
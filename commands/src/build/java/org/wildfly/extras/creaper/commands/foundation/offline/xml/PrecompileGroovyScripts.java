@@ -0,0 +1,44 @@
+package org.wildfly.extras.creaper.commands.foundation.offline.xml;
+
+import com.google.common.io.Files;
+import org.jboss.logging.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Precompiles all {@code .groovy} resources in given classes directory and all scripts embedded in Java code,
+ * see {@link PrecompiledScripts}. Called during the build of this module, after the classes and resources are
+ * in place. This class is only compiled for the build and isn't part of the module's artifact.
+ */
+public final class PrecompileGroovyScripts {
+    private static final Logger log = Logger.getLogger(PrecompileGroovyScripts.class);
+
+    private PrecompileGroovyScripts() {
+        // avoid instantiation
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: PrecompileGroovyScripts <classes directory>");
+        }
+
+        File classesDirectory = new File(args[0]);
+        int count = 0;
+        for (File file : Files.fileTraverser().depthFirstPreOrder(classesDirectory)) {
+            if (file.isFile() && file.getName().endsWith(".groovy")) {
+                String name = classesDirectory.toURI().relativize(file.toURI()).getPath();
+                PrecompiledScripts.precompile(name, Files.toByteArray(file), classesDirectory);
+                count++;
+            }
+        }
+        for (Subtree.LocatorScript script : Subtree.LocatorScript.values()) {
+            PrecompiledScripts.precompile(script.scriptName, script.content.getBytes(StandardCharsets.UTF_8),
+                    classesDirectory);
+            count++;
+        }
+
+        log.infof("Precompiled %d Groovy scripts to %s", count, classesDirectory);
+    }
+}
@@ -12,7 +12,6 @@ import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Batch;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 import java.io.IOException;
 import java.util.HashMap;
@@ -156,8 +155,8 @@ public class AddDataSource implements OnlineCommand, OfflineCommand {
 
         if (replaceExisting) {
             try {
-                ops.removeIfExists(dsAddress);
-                new Administration(ctx.client).reloadIfRequired();
+                boolean removed = ops.removeIfExists(dsAddress);
+                ctx.reloadIfRequiredAfterRemoving(removed);
             } catch (Exception e) {
                 throw new CommandFailedException("Failed to remove existing datasource " + name, e);
             }
@@ -2,16 +2,25 @@ package org.wildfly.extras.creaper.commands.deployments;
 
 import org.jboss.as.controller.client.OperationBuilder;
 import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
 import org.wildfly.extras.creaper.core.online.Constants;
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
 import org.wildfly.extras.creaper.core.online.OnlineCommand;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
+import org.wildfly.extras.creaper.core.online.operations.Values;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -19,29 +28,48 @@ import java.util.List;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOY;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ENABLED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HASH;
 
 /**
  * Command which takes care about deploying specified deployment under specified deployment name.
  * <p/>
  * In case of domain it is deployed by default to all server groups
+ * <p/>
+ * With {@link Builder#replaceExisting() replaceExisting}, an existing deployment of the same name is replaced,
+ * but only if its content differs; see the builder method for details.
  */
 public final class Deploy implements OnlineCommand {
+    private static final Logger log = Logger.getLogger(Deploy.class);
+
+    private static final String FULL_REPLACE_DEPLOYMENT = "full-replace-deployment";
 
     private final String deploymentName;
+    private final File deploymentFile;
     private final InputStream deploymentInputStream;
     private final boolean autoCloseInputStream;
     private final List<String> serverGroups;
+    private final boolean replaceExisting;
 
     private Deploy(InputStream deploymentInputStream, Builder deployCmdOptions) {
         this.deploymentInputStream = deploymentInputStream;
+        this.deploymentFile = deployCmdOptions.deploymentFile;
         this.deploymentName = deployCmdOptions.deploymentName;
         this.autoCloseInputStream = deployCmdOptions.autoCloseInputStream;
         this.serverGroups = deployCmdOptions.serverGroups;
+        this.replaceExisting = deployCmdOptions.replaceExisting;
     }
 
     @Override
     public void apply(OnlineCommandContext ctx) throws Exception {
         Operations ops = new Operations(ctx.client);
+        if (replaceExisting && ops.exists(Address.deployment(deploymentName))) {
+            replace(ctx, ops);
+        } else {
+            deploy(ctx, ops);
+        }
+    }
+
+    private void deploy(OnlineCommandContext ctx, Operations ops) throws Exception {
 
         // deploy and add to server groups
         ModelNode content = new ModelNode();
@@ -77,6 +105,120 @@ public final class Deploy implements OnlineCommand {
         ctx.client.execute(builder.build());
     }
 
+    /**
+     * Uploads the content using {@code full-replace-deployment} only if its SHA-1 hash (which is what the server
+     * uses to identify content) differs from the hash of the existing content, then makes sure the deployment
+     * is deployed.
+     */
+    private void replace(OnlineCommandContext ctx, Operations ops) throws Exception {
+        File contentFile = deploymentFile;
+        File temporaryFile = null;
+        try {
+            byte[] hash;
+            if (contentFile != null) {
+                hash = sha1(contentFile);
+            } else {
+                // the hash must be known before uploading, so the stream is stored and hashed in one pass
+                temporaryFile = File.createTempFile("creaper-deployment", ".tmp");
+                contentFile = temporaryFile;
+                hash = copyAndSha1(deploymentInputStream, temporaryFile);
+            }
+
+            if (Arrays.equals(hash, existingContentHash(ops))) {
+                log.debugf("Content of deployment %s didn't change, skipping upload", deploymentName);
+            } else {
+                ModelNode replaceRequest = getEmptyOperation(FULL_REPLACE_DEPLOYMENT, new ModelNode().setEmptyList());
+                replaceRequest.get(Constants.NAME).set(deploymentName);
+                replaceRequest.get(Constants.CONTENT).add().get(Constants.INPUT_STREAM_INDEX).set(0);
+
+                try (InputStream content = new FileInputStream(contentFile)) {
+                    OperationBuilder builder = new OperationBuilder(replaceRequest, false);
+                    builder.addInputStream(content);
+                    ctx.client.execute(builder.build());
+                }
+            }
+        } finally {
+            if (autoCloseInputStream) {
+                deploymentInputStream.close();
+            }
+            if (temporaryFile != null && !temporaryFile.delete()) {
+                temporaryFile.deleteOnExit();
+            }
+        }
+
+        if (ctx.options.isDomain) {
+            List<String> groups = serverGroups;
+            if (serverGroups == null) {
+                groups = ops.readChildrenNames(Address.root(), Constants.SERVER_GROUP)
+                        .stringListValue(Collections.<String>emptyList());
+            }
+            for (String serverGroup : groups) {
+                Address address = Address.of(Constants.SERVER_GROUP, serverGroup).and(Constants.DEPLOYMENT,
+                        deploymentName);
+                if (ops.exists(address)) {
+                    ensureEnabled(ops, address);
+                } else {
+                    ops.add(address, Values.of(ENABLED, true));
+                }
+            }
+        } else {
+            ensureEnabled(ops, Address.deployment(deploymentName));
+        }
+    }
+
+    private static void ensureEnabled(Operations ops, Address address) throws IOException {
+        if (!ops.readAttribute(address, ENABLED).booleanValue(false)) {
+            ops.invoke(DEPLOY, address);
+        }
+    }
+
+    /** Returns the hash of the existing managed content, or {@code null} if the deployment isn't managed. */
+    private byte[] existingContentHash(Operations ops) throws IOException {
+        ModelNodeResult content = ops.readAttribute(Address.deployment(deploymentName), Constants.CONTENT);
+        if (!content.hasDefinedValue()) {
+            return null;
+        }
+        for (ModelNode item : content.listValue()) {
+            if (item.hasDefined(HASH)) {
+                return item.get(HASH).asBytes();
+            }
+        }
+        return null;
+    }
+
+    private static byte[] sha1(File file) throws IOException {
+        MessageDigest digest = sha1Digest();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream input = new FileInputStream(file)) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+
+    private static byte[] copyAndSha1(InputStream input, File target) throws IOException {
+        MessageDigest digest = sha1Digest();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream digestInput = new DigestInputStream(input, digest);
+             OutputStream output = new FileOutputStream(target)) {
+            int read;
+            while ((read = digestInput.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest sha1Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 must be supported by every Java platform", e);
+        }
+    }
+
     private ModelNode createDeploymentOperation(ModelNode content, ModelNode... serverGroupAddresses) {
         ModelNode composite = getEmptyOperation(Constants.COMPOSITE, new ModelNode().setEmptyList());
         ModelNode steps = composite.get(Constants.STEPS);
@@ -115,6 +257,7 @@ public final class Deploy implements OnlineCommand {
         private final boolean autoCloseInputStream;
         private final String deploymentName;
         private List<String> serverGroups;
+        private boolean replaceExisting;
 
         public Builder(File deploymentFile) {
             if (!deploymentFile.exists()) {
@@ -178,5 +321,23 @@ public final class Deploy implements OnlineCommand {
             return this;
         }
 
+        /**
+         * <p>
+         *     If a deployment with the same name already exists, replace it instead of failing. The SHA-1 hash
+         *     of the new content is computed locally and compared with the hash of the existing content; if they
+         *     are the same, nothing is uploaded and the deployment is only deployed (if it isn't already).
+         *     Otherwise, the content is replaced using {@code full-replace-deployment}, which redeploys
+         *     the deployment without a separate undeploy/deploy cycle.
+         * </p>
+         * <p>
+         *     If the deployment is provided as an {@code InputStream}, it is first copied to a temporary file
+         *     (and hashed while copying), because its hash must be known before uploading.
+         * </p>
+         */
+        public Builder replaceExisting() {
+            this.replaceExisting = true;
+            return this;
+        }
+
     }
 }
@@ -6,6 +6,7 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.admin.DomainAdministration;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -32,8 +33,14 @@ public final class ServersRunningStateBackup {
 
             DomainAdministration domainAdministration = new DomainAdministration(ctx.client);
             Map<String, List<String>> runningServers = new HashMap<String, List<String>>();
-            for (String host : domainAdministration.hosts()) {
-                runningServers.put(host, domainAdministration.allRunningServers());
+            for (Map.Entry<String, Map<String, String>> host : domainAdministration.serverStates().entrySet()) {
+                List<String> servers = new ArrayList<String>();
+                for (Map.Entry<String, String> server : host.getValue().entrySet()) {
+                    if ("STARTED".equals(server.getValue())) {
+                        servers.add(server.getKey());
+                    }
+                }
+                runningServers.put(host.getKey(), servers);
             }
             ServersRunningStateBackup.this.runningServersOnHosts = runningServers;
         }
@@ -55,9 +62,9 @@ public final class ServersRunningStateBackup {
             }
 
             DomainAdministration domainAdministration = new DomainAdministration(ctx.client);
-            for (String host : domainAdministration.hosts()) {
-                List<String> servers = domainAdministration.allServers(host);
-                for (String server : servers) {
+            for (Map.Entry<String, Map<String, String>> hostServers : domainAdministration.serverStates().entrySet()) {
+                String host = hostServers.getKey();
+                for (String server : hostServers.getValue().keySet()) {
                     if (runningServersOnHosts.containsKey(host) && runningServersOnHosts.get(host).contains(server)) {
                         domainAdministration.startServer(host, server);
                     } else {
@@ -13,7 +13,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public abstract class AbstractAddCustom implements OnlineCommand, OfflineCommand {
 
@@ -40,8 +39,8 @@ public abstract class AbstractAddCustom implements OnlineCommand, OfflineCommand
         Operations ops = new Operations(ctx.client);
         Address address = Address.subsystem("elytron").and(getCustomTypeName(), name);
         if (replaceExisting) {
-            ops.removeIfExists(address);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(address);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(address, Values.empty()
@@ -5,7 +5,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommand;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddElytron implements OnlineCommand {
 
@@ -17,7 +16,7 @@ public final class AddElytron implements OnlineCommand {
         Operations ops = new Operations(ctx.client);
         ops.add(Address.extension("org.wildfly.extension.elytron"));
         ops.add(Address.subsystem("elytron"));
-        new Administration(ctx.client).reloadIfRequired();
+        ctx.reloadIfRequired();
     }
 
 }
@@ -9,7 +9,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddAggregateSecurityEventListener implements OnlineCommand {
 
@@ -32,8 +31,8 @@ public final class AddAggregateSecurityEventListener implements OnlineCommand {
         Operations ops = new Operations(ctx.client);
         Address listenerAddress = Address.subsystem("elytron").and("aggregate-security-event-listener", name);
         if (replaceExisting) {
-            ops.removeIfExists(listenerAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(listenerAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(listenerAddress, Values.empty()
@@ -6,7 +6,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddSizeRotatingFileAuditLog implements OnlineCommand {
 
@@ -43,8 +42,8 @@ public final class AddSizeRotatingFileAuditLog implements OnlineCommand {
         Operations ops = new Operations(ctx.client);
         Address fileAuditAddress = Address.subsystem("elytron").and("size-rotating-file-audit-log", name);
         if (replaceExisting) {
-            ops.removeIfExists(fileAuditAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(fileAuditAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(fileAuditAddress, Values.empty()
@@ -6,7 +6,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddSyslogAuditLog implements OnlineCommand {
 
@@ -39,8 +38,8 @@ public final class AddSyslogAuditLog implements OnlineCommand {
         Operations ops = new Operations(ctx.client);
         Address syslogAuditAddress = Address.subsystem("elytron").and("syslog-audit-log", name);
         if (replaceExisting) {
-            ops.removeIfExists(syslogAuditAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(syslogAuditAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(syslogAuditAddress, Values.empty()
@@ -11,7 +11,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddAuthenticationContext implements OnlineCommand {
 
@@ -36,8 +35,8 @@ public final class AddAuthenticationContext implements OnlineCommand {
         Operations ops = new Operations(ctx.client);
         Address realmAddress = Address.subsystem("elytron").and("authentication-context", name);
         if (replaceExisting) {
-            ops.removeIfExists(realmAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(realmAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         List<ModelNode> matchRulesNodeList = null;
@@ -10,7 +10,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddCredentialStore implements OnlineCommand {
 
@@ -51,8 +50,8 @@ public final class AddCredentialStore implements OnlineCommand {
         Operations ops = new Operations(ctx.client);
         Address credentialStoreAddress = Address.subsystem("elytron").and("credential-store", name);
         if (replaceExisting) {
-            ops.removeIfExists(credentialStoreAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(credentialStoreAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(credentialStoreAddress, Values.empty()
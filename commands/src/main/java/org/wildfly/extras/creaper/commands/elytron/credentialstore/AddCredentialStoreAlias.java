@@ -11,7 +11,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddCredentialStoreAlias implements OnlineCommand {
 
@@ -39,10 +38,11 @@ public final class AddCredentialStoreAlias implements OnlineCommand {
         Address credentialStoreAddress = Address.subsystem("elytron")
                 .and("credential-store", credentialStore);
         if (replaceExisting) {
-            if (aliasExists(ops, credentialStoreAddress, alias)) {
+            boolean removed = aliasExists(ops, credentialStoreAddress, alias);
+            if (removed) {
                 ops.invoke("remove-alias", credentialStoreAddress, Values.empty().and("alias", alias));
             }
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.invoke("add-alias", credentialStoreAddress, Values.empty()
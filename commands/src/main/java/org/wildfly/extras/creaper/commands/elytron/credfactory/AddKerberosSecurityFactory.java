@@ -11,7 +11,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddKerberosSecurityFactory implements OnlineCommand {
 
@@ -59,8 +58,8 @@ public final class AddKerberosSecurityFactory implements OnlineCommand {
         Operations ops = new Operations(ctx.client);
         Address kerberosSecurityFactoryAddress = Address.subsystem("elytron").and("kerberos-security-factory", name);
         if (replaceExisting) {
-            ops.removeIfExists(kerberosSecurityFactoryAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(kerberosSecurityFactoryAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(kerberosSecurityFactoryAddress, Values.empty()
@@ -12,7 +12,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddDirContext implements OnlineCommand {
 
@@ -58,8 +57,8 @@ public final class AddDirContext implements OnlineCommand {
         Address dirContextAddress = Address.subsystem("elytron")
                 .and("dir-context", name);
         if (replaceExisting) {
-            ops.removeIfExists(dirContextAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(dirContextAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ModelNode propertiesNode = null;
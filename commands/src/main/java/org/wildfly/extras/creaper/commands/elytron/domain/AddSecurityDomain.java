@@ -10,7 +10,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddSecurityDomain implements OnlineCommand {
 
@@ -55,8 +54,8 @@ public final class AddSecurityDomain implements OnlineCommand {
         Operations ops = new Operations(ctx.client);
         Address securityDomainAddress = Address.subsystem("elytron").and("security-domain", name);
         if (replaceExisting) {
-            ops.removeIfExists(securityDomainAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(securityDomainAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         List<ModelNode> realmsModelNodeList = new ArrayList<ModelNode>();
@@ -10,7 +10,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddAggregateHttpServerMechanismFactory implements OnlineCommand {
 
@@ -34,8 +33,8 @@ public final class AddAggregateHttpServerMechanismFactory implements OnlineComma
         Address factoryAddress = Address.subsystem("elytron")
                 .and("aggregate-http-server-mechanism-factory", name);
         if (replaceExisting) {
-            ops.removeIfExists(factoryAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(factoryAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(factoryAddress, Values.empty()
@@ -11,7 +11,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddHttpAuthenticationFactory implements OnlineCommand {
 
@@ -39,8 +38,8 @@ public final class AddHttpAuthenticationFactory implements OnlineCommand {
         Address factoryAddress = Address.subsystem("elytron")
                 .and("http-authentication-factory", name);
         if (replaceExisting) {
-            ops.removeIfExists(factoryAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(factoryAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         List<ModelNode> mechanismConfigurationsNodeList = null;
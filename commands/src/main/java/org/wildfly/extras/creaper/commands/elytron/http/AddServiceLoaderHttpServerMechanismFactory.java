@@ -6,7 +6,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddServiceLoaderHttpServerMechanismFactory implements OnlineCommand {
 
@@ -30,8 +29,8 @@ public final class AddServiceLoaderHttpServerMechanismFactory implements OnlineC
         Address factoryAddress = Address.subsystem("elytron")
                 .and("service-loader-http-server-mechanism-factory", name);
         if (replaceExisting) {
-            ops.removeIfExists(factoryAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(factoryAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(factoryAddress, Values.empty()
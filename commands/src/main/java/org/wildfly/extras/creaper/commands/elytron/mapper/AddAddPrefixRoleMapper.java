@@ -6,7 +6,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddAddPrefixRoleMapper implements OnlineCommand {
 
@@ -29,8 +28,8 @@ public final class AddAddPrefixRoleMapper implements OnlineCommand {
         Operations ops = new Operations(ctx.client);
         Address mapperAddress = Address.subsystem("elytron").and("add-prefix-role-mapper", name);
         if (replaceExisting) {
-            ops.removeIfExists(mapperAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(mapperAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(mapperAddress, Values.empty()
@@ -5,7 +5,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddAggregatePrincipalDecoder extends AbstractAddPrincipalDecoder {
 
@@ -23,8 +22,8 @@ public final class AddAggregatePrincipalDecoder extends AbstractAddPrincipalDeco
         Address constantPrincipalDecoderAddress = Address.subsystem("elytron")
                 .and("aggregate-principal-decoder", name);
         if (replaceExisting) {
-            ops.removeIfExists(constantPrincipalDecoderAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(constantPrincipalDecoderAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(constantPrincipalDecoderAddress, Values.empty()
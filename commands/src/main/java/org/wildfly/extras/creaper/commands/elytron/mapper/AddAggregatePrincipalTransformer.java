@@ -5,7 +5,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public class AddAggregatePrincipalTransformer extends AbstractAddPrincipalTransformer {
 
@@ -23,8 +22,8 @@ public class AddAggregatePrincipalTransformer extends AbstractAddPrincipalTransf
         Address aggregatePrincipalTransformerAddress = Address.subsystem("elytron")
                 .and("aggregate-principal-transformer", name);
         if (replaceExisting) {
-            ops.removeIfExists(aggregatePrincipalTransformerAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(aggregatePrincipalTransformerAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(aggregatePrincipalTransformerAddress, Values.empty()
@@ -10,7 +10,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddAggregateRoleMapper implements OnlineCommand {
 
@@ -33,8 +32,8 @@ public final class AddAggregateRoleMapper implements OnlineCommand {
         Operations ops = new Operations(ctx.client);
         Address mapperAddress = Address.subsystem("elytron").and("aggregate-role-mapper", name);
         if (replaceExisting) {
-            ops.removeIfExists(mapperAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(mapperAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(mapperAddress, Values.empty()
@@ -5,7 +5,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public class AddChainedPrincipalTransformer extends AbstractAddPrincipalTransformer {
 
@@ -23,8 +22,8 @@ public class AddChainedPrincipalTransformer extends AbstractAddPrincipalTransfor
         Address aggregatePrincipalTransformerAddress = Address.subsystem("elytron")
                 .and("chained-principal-transformer", name);
         if (replaceExisting) {
-            ops.removeIfExists(aggregatePrincipalTransformerAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(aggregatePrincipalTransformerAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(aggregatePrincipalTransformerAddress, Values.empty()
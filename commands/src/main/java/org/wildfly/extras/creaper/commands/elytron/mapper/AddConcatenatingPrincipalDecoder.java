@@ -5,7 +5,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddConcatenatingPrincipalDecoder extends AbstractAddPrincipalDecoder {
 
@@ -26,8 +25,8 @@ public final class AddConcatenatingPrincipalDecoder extends AbstractAddPrincipal
         Address constantPrincipalDecoderAddress = Address.subsystem("elytron")
                 .and("concatenating-principal-decoder", name);
         if (replaceExisting) {
-            ops.removeIfExists(constantPrincipalDecoderAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(constantPrincipalDecoderAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(constantPrincipalDecoderAddress, Values.empty()
@@ -10,7 +10,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddConstantPermissionMapper implements OnlineCommand {
 
@@ -35,8 +34,8 @@ public final class AddConstantPermissionMapper implements OnlineCommand {
         Operations ops = new Operations(ctx.client);
         Address mapperAddress = Address.subsystem("elytron").and("constant-permission-mapper", name);
         if (replaceExisting) {
-            ops.removeIfExists(mapperAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(mapperAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         List<ModelNode> permissionsNodeList = null;
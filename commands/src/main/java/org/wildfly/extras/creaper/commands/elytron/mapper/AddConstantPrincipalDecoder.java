@@ -6,7 +6,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddConstantPrincipalDecoder implements OnlineCommand {
 
@@ -29,8 +28,8 @@ public final class AddConstantPrincipalDecoder implements OnlineCommand {
         Operations ops = new Operations(ctx.client);
         Address constantPrincipalDecoderAddress = Address.subsystem("elytron").and("constant-principal-decoder", name);
         if (replaceExisting) {
-            ops.removeIfExists(constantPrincipalDecoderAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(constantPrincipalDecoderAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(constantPrincipalDecoderAddress, Values.empty()
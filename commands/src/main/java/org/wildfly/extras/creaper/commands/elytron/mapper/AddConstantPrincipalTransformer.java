@@ -6,7 +6,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddConstantPrincipalTransformer implements OnlineCommand {
 
@@ -30,8 +29,8 @@ public final class AddConstantPrincipalTransformer implements OnlineCommand {
         Address constantPrincipalTransformerAddress = Address.subsystem("elytron")
                 .and("constant-principal-transformer", name);
         if (replaceExisting) {
-            ops.removeIfExists(constantPrincipalTransformerAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(constantPrincipalTransformerAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(constantPrincipalTransformerAddress, Values.empty()
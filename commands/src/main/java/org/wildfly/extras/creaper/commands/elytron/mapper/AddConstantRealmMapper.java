@@ -6,7 +6,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddConstantRealmMapper implements OnlineCommand {
 
@@ -29,8 +28,8 @@ public final class AddConstantRealmMapper implements OnlineCommand {
         Operations ops = new Operations(ctx.client);
         Address constantRealmMapperAddress = Address.subsystem("elytron").and("constant-realm-mapper", name);
         if (replaceExisting) {
-            ops.removeIfExists(constantRealmMapperAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(constantRealmMapperAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(constantRealmMapperAddress, Values.empty()
@@ -6,7 +6,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddRegexValidatingPrincipalTransformer implements OnlineCommand {
 
@@ -32,8 +31,8 @@ public final class AddRegexValidatingPrincipalTransformer implements OnlineComma
         Address regexPrincipalTransformerAddress = Address.subsystem("elytron").and("regex-validating-principal-transformer",
                 name);
         if (replaceExisting) {
-            ops.removeIfExists(regexPrincipalTransformerAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(regexPrincipalTransformerAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(regexPrincipalTransformerAddress, Values.empty()
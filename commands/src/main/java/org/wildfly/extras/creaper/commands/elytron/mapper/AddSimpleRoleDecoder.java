@@ -6,7 +6,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddSimpleRoleDecoder implements OnlineCommand {
 
@@ -29,8 +28,8 @@ public final class AddSimpleRoleDecoder implements OnlineCommand {
         Operations ops = new Operations(ctx.client);
         Address simpleRoleDecoderAddress = Address.subsystem("elytron").and("simple-role-decoder", name);
         if (replaceExisting) {
-            ops.removeIfExists(simpleRoleDecoderAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(simpleRoleDecoderAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(simpleRoleDecoderAddress, Values.empty()
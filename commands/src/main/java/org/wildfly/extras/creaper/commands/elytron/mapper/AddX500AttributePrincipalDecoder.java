@@ -10,7 +10,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddX500AttributePrincipalDecoder implements OnlineCommand {
 
@@ -50,8 +49,8 @@ public final class AddX500AttributePrincipalDecoder implements OnlineCommand {
         Address x500AttributePrincipalDecoderAddress = Address.subsystem("elytron")
                 .and("x500-attribute-principal-decoder", name);
         if (replaceExisting) {
-            ops.removeIfExists(x500AttributePrincipalDecoderAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(x500AttributePrincipalDecoderAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(x500AttributePrincipalDecoderAddress, Values.empty()
@@ -9,7 +9,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public class AddAggregateProviders implements OnlineCommand {
 
@@ -32,8 +31,8 @@ public class AddAggregateProviders implements OnlineCommand {
         Operations ops = new Operations(ctx.client);
         Address aggregatepProvidersAddress = Address.subsystem("elytron").and("aggregate-providers", name);
         if (replaceExisting) {
-            ops.removeIfExists(aggregatepProvidersAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(aggregatepProvidersAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(aggregatepProvidersAddress, Values.empty()
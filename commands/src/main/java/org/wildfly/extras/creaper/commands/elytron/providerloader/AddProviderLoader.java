@@ -12,7 +12,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public class AddProviderLoader implements OnlineCommand {
 
@@ -45,8 +44,8 @@ public class AddProviderLoader implements OnlineCommand {
         Operations ops = new Operations(ctx.client);
         Address providerLoaderAddress = Address.subsystem("elytron").and("provider-loader", name);
         if (replaceExisting) {
-            ops.removeIfExists(providerLoaderAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(providerLoaderAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(providerLoaderAddress, Values.empty()
@@ -10,7 +10,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddCachingRealm implements OnlineCommand, OfflineCommand {
 
@@ -37,8 +36,8 @@ public final class AddCachingRealm implements OnlineCommand, OfflineCommand {
         Operations ops = new Operations(ctx.client);
         Address securityRealmAddress = Address.subsystem("elytron").and("caching-realm", name);
         if (replaceExisting) {
-            ops.removeIfExists(securityRealmAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(securityRealmAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(securityRealmAddress, Values.empty()
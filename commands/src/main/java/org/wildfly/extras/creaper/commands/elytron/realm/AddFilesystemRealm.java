@@ -6,7 +6,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddFilesystemRealm implements OnlineCommand {
 
@@ -35,8 +34,8 @@ public final class AddFilesystemRealm implements OnlineCommand {
         Operations ops = new Operations(ctx.client);
         Address securityRealmAddress = Address.subsystem("elytron").and("filesystem-realm", name);
         if (replaceExisting) {
-            ops.removeIfExists(securityRealmAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(securityRealmAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(securityRealmAddress, Values.empty()
@@ -45,7 +44,7 @@ public final class AddFilesystemRealm implements OnlineCommand {
                 .andOptional("levels", levels)
                 .andOptional("relative-to", relativeTo));
 
-        new Administration(ctx.client).reloadIfRequired();
+        ctx.reloadIfRequired();
     }
 
 
@@ -9,7 +9,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddIdentityRealm implements OnlineCommand {
 
@@ -36,8 +35,8 @@ public final class AddIdentityRealm implements OnlineCommand {
         Operations ops = new Operations(ctx.client);
         Address identityRealmAddress = Address.subsystem("elytron").and("identity-realm", name);
         if (replaceExisting) {
-            ops.removeIfExists(identityRealmAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(identityRealmAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(identityRealmAddress, Values.empty()
@@ -11,7 +11,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddJdbcRealm implements OnlineCommand {
 
@@ -34,8 +33,8 @@ public final class AddJdbcRealm implements OnlineCommand {
         Operations ops = new Operations(ctx.client);
         Address jdbcRealmAddress = Address.subsystem("elytron").and("jdbc-realm", name);
         if (replaceExisting) {
-            ops.removeIfExists(jdbcRealmAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(jdbcRealmAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         List<ModelNode> principalQueryNodeList = new ArrayList<ModelNode>();
@@ -10,7 +10,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddLdapRealm implements OnlineCommand {
 
@@ -39,8 +38,8 @@ public final class AddLdapRealm implements OnlineCommand {
         Operations ops = new Operations(ctx.client);
         Address realmAddress = Address.subsystem("elytron").and("ldap-realm", name);
         if (replaceExisting) {
-            ops.removeIfExists(realmAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(realmAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ModelNode identityMappingModelNode = new ModelNode();
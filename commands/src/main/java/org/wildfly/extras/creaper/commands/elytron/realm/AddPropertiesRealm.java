@@ -1,12 +1,13 @@
 package org.wildfly.extras.creaper.commands.elytron.realm;
 
+import org.wildfly.extras.creaper.core.CommandFailedException;
 import org.wildfly.extras.creaper.core.ServerVersion;
 import org.wildfly.extras.creaper.core.online.OnlineCommand;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
+import org.wildfly.extras.creaper.core.online.operations.OperationException;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddPropertiesRealm implements OnlineCommand {
 
@@ -21,6 +22,7 @@ public final class AddPropertiesRealm implements OnlineCommand {
     private final String groupsProperiesPath;
     private final String groupsPropertiesRelativeTo;
     private final boolean replaceExisting;
+    private final boolean reconcile;
 
     private AddPropertiesRealm(Builder builder) {
         this.name = builder.name;
@@ -32,6 +34,7 @@ public final class AddPropertiesRealm implements OnlineCommand {
         this.groupsProperiesPath = builder.groupsProperiesPath;
         this.groupsPropertiesRelativeTo = builder.groupsPropertiesRelativeTo;
         this.replaceExisting = builder.replaceExisting;
+        this.reconcile = builder.reconcile;
     }
 
     @Override
@@ -43,8 +46,8 @@ public final class AddPropertiesRealm implements OnlineCommand {
         Operations ops = new Operations(ctx.client);
         Address securityRealmAddress = Address.subsystem("elytron").and(REALM_TYPE, name);
         if (replaceExisting) {
-            ops.removeIfExists(securityRealmAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(securityRealmAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         Values groupsProperties = groupsProperiesPath != null
@@ -53,16 +56,26 @@ public final class AddPropertiesRealm implements OnlineCommand {
                 .andOptional("relative-to", groupsPropertiesRelativeTo)
                 : null;
 
-        ops.add(securityRealmAddress, Values.empty()
+        Values values = Values.empty()
                 .andOptional("groups-attribute", groupsAttribute)
                 .andObject("users-properties", Values.empty()
                         .and("path", userProperiesPath)
                         .andOptional("relative-to", userPropertiesRelativeTo)
                         .andOptional("plain-text", plainText)
                         .andOptional("digest-realm-name", digestRealmName))
-                .andObjectOptional("groups-properties", groupsProperties));
+                .andObjectOptional("groups-properties", groupsProperties);
 
-        new Administration(ctx.client).reloadIfRequired();
+        if (reconcile) {
+            try {
+                ops.reconcile(securityRealmAddress, values);
+            } catch (OperationException e) {
+                throw new CommandFailedException("Failed to reconcile properties realm " + name, e);
+            }
+        } else {
+            ops.add(securityRealmAddress, values);
+        }
+
+        ctx.reloadIfRequired();
     }
 
     public static final class Builder {
@@ -76,6 +89,7 @@ public final class AddPropertiesRealm implements OnlineCommand {
         private String groupsProperiesPath;
         private String groupsPropertiesRelativeTo;
         private boolean replaceExisting;
+        private boolean reconcile;
 
         public Builder(String name) {
             if (name == null) {
@@ -127,7 +141,20 @@ public final class AddPropertiesRealm implements OnlineCommand {
             return this;
         }
 
+        /**
+         * If the realm already exists, only change the attributes that differ, instead of failing or removing
+         * and re-adding the realm (see {@link #replaceExisting()}). If the realm is already in the desired state,
+         * nothing is changed and no reload is needed. See {@link Operations#reconcile(Address, Values)}.
+         */
+        public Builder reconcile() {
+            this.reconcile = true;
+            return this;
+        }
+
         public AddPropertiesRealm build() {
+            if (replaceExisting && reconcile) {
+                throw new IllegalArgumentException("Only one of replaceExisting and reconcile can be set");
+            }
             if (userProperiesPath == null || userProperiesPath.isEmpty()) {
                 throw new IllegalArgumentException("Path to users-properties must not be null and must have a minimum length of 1 characters");
             }
@@ -10,7 +10,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddTokenRealm implements OnlineCommand {
 
@@ -38,8 +37,8 @@ public final class AddTokenRealm implements OnlineCommand {
         Address tokenRealmAddress = Address.subsystem("elytron")
                 .and("token-realm", name);
         if (replaceExisting) {
-            ops.removeIfExists(tokenRealmAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(tokenRealmAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         Values jwtProperties = jwt != null
@@ -9,7 +9,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddAggregateSaslServerFactory implements OnlineCommand {
 
@@ -33,8 +32,8 @@ public final class AddAggregateSaslServerFactory implements OnlineCommand {
         Address factoryAddress = Address.subsystem("elytron")
                 .and("aggregate-sasl-server-factory", name);
         if (replaceExisting) {
-            ops.removeIfExists(factoryAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(factoryAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(factoryAddress, Values.empty()
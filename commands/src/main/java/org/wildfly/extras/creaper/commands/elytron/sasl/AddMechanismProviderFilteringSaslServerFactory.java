@@ -10,7 +10,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddMechanismProviderFilteringSaslServerFactory implements OnlineCommand {
 
@@ -37,8 +36,8 @@ public final class AddMechanismProviderFilteringSaslServerFactory implements Onl
         Address factoryAddress = Address.subsystem("elytron")
                 .and("mechanism-provider-filtering-sasl-server-factory", name);
         if (replaceExisting) {
-            ops.removeIfExists(factoryAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(factoryAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         List<ModelNode> filtersNodeList = null;
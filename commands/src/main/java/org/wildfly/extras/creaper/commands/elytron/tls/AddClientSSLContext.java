@@ -8,7 +8,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddClientSSLContext extends AbstractAddSSLContext {
 
@@ -29,8 +28,8 @@ public final class AddClientSSLContext extends AbstractAddSSLContext {
         Operations ops = new Operations(ctx.client);
         Address clientSSLContextAddress = Address.subsystem("elytron").and("client-ssl-context", name);
         if (replaceExisting) {
-            ops.removeIfExists(clientSSLContextAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(clientSSLContextAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(clientSSLContextAddress, Values.empty()
@@ -10,7 +10,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddFilteringKeyStore implements OnlineCommand, OfflineCommand {
 
@@ -35,8 +34,8 @@ public final class AddFilteringKeyStore implements OnlineCommand, OfflineCommand
         Operations ops = new Operations(ctx.client);
         Address filteringKeyStoreAddress = Address.subsystem("elytron").and("filtering-key-store", name);
         if (replaceExisting) {
-            ops.removeIfExists(filteringKeyStoreAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(filteringKeyStoreAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(filteringKeyStoreAddress, Values.empty()
@@ -11,7 +11,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddKeyManager implements OnlineCommand, OfflineCommand {
 
@@ -45,8 +44,8 @@ public final class AddKeyManager implements OnlineCommand, OfflineCommand {
         Operations ops = new Operations(ctx.client);
         Address keyManagerAddress = Address.subsystem("elytron").and("key-manager", name);
         if (replaceExisting) {
-            ops.removeIfExists(keyManagerAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(keyManagerAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(keyManagerAddress, Values.empty()
@@ -11,7 +11,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddKeyStore implements OnlineCommand, OfflineCommand {
 
@@ -50,8 +49,8 @@ public final class AddKeyStore implements OnlineCommand, OfflineCommand {
         Operations ops = new Operations(ctx.client);
         Address keyStoreAddress = Address.subsystem("elytron").and("key-store", name);
         if (replaceExisting) {
-            ops.removeIfExists(keyStoreAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(keyStoreAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(keyStoreAddress, Values.empty()
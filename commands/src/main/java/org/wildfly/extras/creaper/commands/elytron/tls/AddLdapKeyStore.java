@@ -17,7 +17,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddLdapKeyStore implements OnlineCommand, OfflineCommand {
 
@@ -69,8 +68,8 @@ public final class AddLdapKeyStore implements OnlineCommand, OfflineCommand {
         Operations ops = new Operations(ctx.client);
         Address keyStoreAddress = Address.subsystem("elytron").and("ldap-key-store", name);
         if (replaceExisting) {
-            ops.removeIfExists(keyStoreAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(keyStoreAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         Values keyStoreValues = Values.empty()
@@ -8,7 +8,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddServerSSLContext extends AbstractAddSSLContext {
 
@@ -54,8 +53,8 @@ public final class AddServerSSLContext extends AbstractAddSSLContext {
         Operations ops = new Operations(ctx.client);
         Address serverSSLContextAddress = Address.subsystem("elytron").and("server-ssl-context", name);
         if (replaceExisting) {
-            ops.removeIfExists(serverSSLContextAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(serverSSLContextAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(serverSSLContextAddress, Values.empty()
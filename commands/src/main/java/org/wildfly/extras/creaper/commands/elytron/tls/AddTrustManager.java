@@ -13,7 +13,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 public final class AddTrustManager implements OnlineCommand, OfflineCommand {
 
@@ -46,8 +45,8 @@ public final class AddTrustManager implements OnlineCommand, OfflineCommand {
         Operations ops = new Operations(ctx.client);
         Address trustManagerAddress = Address.subsystem("elytron").and("trust-manager", name);
         if (replaceExisting) {
-            ops.removeIfExists(trustManagerAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(trustManagerAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         ops.add(trustManagerAddress, Values.empty()
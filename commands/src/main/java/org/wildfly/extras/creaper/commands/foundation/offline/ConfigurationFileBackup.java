@@ -1,6 +1,5 @@
 package org.wildfly.extras.creaper.commands.foundation.offline;
 
-import com.google.common.io.Files;
 import org.jboss.logging.Logger;
 import org.wildfly.extras.creaper.core.CommandFailedException;
 import org.wildfly.extras.creaper.core.offline.OfflineCommand;
@@ -8,6 +7,10 @@ import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 /**
  * Provides a pair of offline commands to backup and then restore the configuration file. The {@code backup} command
@@ -15,6 +18,9 @@ import java.io.IOException;
  * violated, an exception is thrown. For special circumstances, when the backup that was already acquired is no longer
  * needed and is not going to be restored, a {@code destroy} command is provided. If there was no backup acquired,
  * the destroy command does nothing.
+ *
+ * <p>The backup is kept in the same directory as the configuration file, so that restoring it is just an atomic
+ * rename.</p>
  */
 public final class ConfigurationFileBackup {
     private static final Logger log = Logger.getLogger(ConfigurationFileBackup.class);
@@ -29,8 +35,12 @@ public final class ConfigurationFileBackup {
                         + ConfigurationFileBackup.this.backupFile);
             }
 
-            File tempFile = File.createTempFile("creaper-backup", null);
-            Files.copy(ctx.configurationFile, tempFile);
+            File configurationFile = ctx.configurationFile.getAbsoluteFile();
+            File tempFile = File.createTempFile("." + configurationFile.getName() + ".creaper-backup", null,
+                    configurationFile.getParentFile());
+            ctx.syncConfigurationFile();
+            Files.copy(configurationFile.toPath(), tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.COPY_ATTRIBUTES);
             ConfigurationFileBackup.this.backupFile = tempFile;
         }
 
@@ -47,10 +57,15 @@ public final class ConfigurationFileBackup {
                 throw new CommandFailedException("There's no configuration file backup to restore");
             }
 
-            Files.copy(ConfigurationFileBackup.this.backupFile, ctx.configurationFile);
-            boolean deleted = ConfigurationFileBackup.this.backupFile.delete();
-            if (!deleted) {
-                log.errorf("Couldn't delete %s, continuing", ConfigurationFileBackup.this.backupFile);
+            if (ctx.options.inMemorySession) {
+                // changes kept in memory must not overwrite the restored file later
+                ctx.inMemoryConfiguration(null);
+            }
+            Path backupPath = ConfigurationFileBackup.this.backupFile.toPath();
+            try {
+                Files.move(backupPath, ctx.configurationFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(backupPath, ctx.configurationFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
             }
             ConfigurationFileBackup.this.backupFile = null;
         }
@@ -0,0 +1,118 @@
+package org.wildfly.extras.creaper.commands.foundation.offline.xml;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.Resources;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.GroovyCodeSource;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of compiled transformation scripts. Compiling a Groovy script is by far the most expensive part
+ * of applying a {@link GroovyXmlTransform}, and each compilation also defines a new class in the class loader.
+ * Scripts are keyed by their URL <i>and</i> a hash of their content, so a script that changes (e.g. during
+ * development) is recompiled. When the cache is full, the least recently used script is evicted.
+ * Scripts that were {@link PrecompiledScripts precompiled} during the build are loaded instead of compiled.
+ */
+final class CompiledScriptCache {
+    private static final Logger log = Logger.getLogger(CompiledScriptCache.class);
+
+    /** There's less than 100 scripts in Creaper itself, so this leaves plenty of room for custom scripts. */
+    static final int DEFAULT_MAX_SIZE = 256;
+
+    static final CompiledScriptCache INSTANCE = new CompiledScriptCache(GroovyHolder.GROOVY, DEFAULT_MAX_SIZE);
+
+    private final GroovyClassLoader groovy;
+    private final Map<String, Class> cache;
+
+    private long hits;
+    private long misses;
+    private long precompiledLoads;
+    private long evictions;
+
+    CompiledScriptCache(GroovyClassLoader groovy, final int maxSize) {
+        this.groovy = groovy;
+        this.cache = new LinkedHashMap<String, Class>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Class> eldest) {
+                if (size() > maxSize) {
+                    evictions++;
+                    log.debugf("Evicting compiled script %s", eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns a compiled class of the {@code script}, loading a precompiled class or compiling the script only
+     * if it's not in the cache yet.
+     */
+    Class get(TransformationScript script) throws IOException {
+        return get(script.url(), script.resourceName());
+    }
+
+    /** Returns a compiled class of the script at {@code url}, compiling it only if it's not in the cache yet. */
+    Class get(URL url) throws IOException {
+        return get(url, null);
+    }
+
+    private Class get(URL url, String resourceName) throws IOException {
+        byte[] content = Resources.toByteArray(url);
+        String key = url.toExternalForm() + "#" + Hashing.sha256().hashBytes(content);
+
+        synchronized (this) {
+            Class result = cache.get(key);
+            if (result != null) {
+                hits++;
+                return result;
+            }
+        }
+
+        Class precompiled = resourceName != null ? PrecompiledScripts.find(resourceName, content) : null;
+        if (precompiled != null) {
+            synchronized (this) {
+                precompiledLoads++;
+                cache.put(key, precompiled);
+            }
+            return precompiled;
+        }
+
+        synchronized (this) {
+            misses++;
+        }
+
+        // compiling outside of the lock; if two threads compile the same script concurrently, one class just wins
+        Class compiled = groovy.parseClass(new GroovyCodeSource(url));
+
+        synchronized (this) {
+            cache.put(key, compiled);
+        }
+        return compiled;
+    }
+
+    synchronized long hits() {
+        return hits;
+    }
+
+    synchronized long misses() {
+        return misses;
+    }
+
+    synchronized long precompiledLoads() {
+        return precompiledLoads;
+    }
+
+    synchronized long evictions() {
+        return evictions;
+    }
+
+    synchronized int cachedScripts() {
+        return cache.size();
+    }
+}
@@ -1,25 +1,22 @@
 package org.wildfly.extras.creaper.commands.foundation.offline.xml;
 
-import com.google.common.base.Function;
-import com.google.common.collect.Ordering;
-import groovy.util.Node;
-import groovy.xml.XmlParser;
-import groovy.xml.XmlUtil;
+import groovy.xml.slurpersupport.NamespaceAwareHashMap;
+import groovy.xml.slurpersupport.Node;
 
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 
+/**
+ * Knows the order of first-level elements in configuration files and inserts missing first-level elements directly
+ * into a parsed document, at the position required by the schema. The element is added to the underlying tree
+ * (unlike {@code root << { ... }}), so it's immediately visible to GPath navigation and no serialization and
+ * reparsing is needed.
+ */
 final class FirstLevelXmlElementOrder {
-    private static final Function<Node, String> GET_NODE_NAME = new Function<Node, String>() {
-        @Override
-        public String apply(Node input) {
-            return String.valueOf(input == null ? null : input.name());
-        }
-    };
-
     // see files [jboss-as|wildfly]-config_*.xsd
 
-    private static final Ordering<Node> DOMAIN_ORDERING = Ordering.explicit(
+    private static final List<String> DOMAIN_ORDERING = Arrays.asList(
             "extensions",
             "system-properties",
             "paths",
@@ -32,9 +29,9 @@ final class FirstLevelXmlElementOrder {
             "server-groups",
             "host-excludes",
             "management-client-content"
-    ).onResultOf(GET_NODE_NAME);
+    );
 
-    private static final Ordering<Node> HOST_ORDERING = Ordering.explicit(
+    private static final List<String> HOST_ORDERING = Arrays.asList(
             "extensions",
             "system-properties",
             "paths",
@@ -46,9 +43,9 @@ final class FirstLevelXmlElementOrder {
             "servers",
             "profile",
             "socket-binding-group"
-    ).onResultOf(GET_NODE_NAME);
+    );
 
-    private static final Ordering<Node> SERVER_ORDERING = Ordering.explicit(
+    private static final List<String> SERVER_ORDERING = Arrays.asList(
             "extensions",
             "system-properties",
             "paths",
@@ -59,30 +56,45 @@ final class FirstLevelXmlElementOrder {
             "socket-binding-group",
             "deployments",
             "deployment-overlays"
-    ).onResultOf(GET_NODE_NAME);
+    );
 
-    static String fix(String xml) {
-        try {
-            Node root = new XmlParser(false, false).parseText(xml);
+    /**
+     * Adds an empty element {@code elementName} to {@code root}, before the first existing element that must come
+     * after it. Existing elements are never moved; elements unknown to the schema are skipped.
+     *
+     * @return the new element
+     */
+    static Node insert(Node root, String elementName) {
+        List<String> ordering;
+        if ("domain".equals(root.name())) {
+            ordering = DOMAIN_ORDERING;
+        } else if ("host".equals(root.name())) {
+            ordering = HOST_ORDERING;
+        } else if ("server".equals(root.name())) {
+            ordering = SERVER_ORDERING;
+        } else {
+            throw new IllegalArgumentException("Unknown root element '" + root.name() + "'");
+        }
 
-            Ordering<Node> ordering;
-            if ("domain".equals(root.name())) {
-                ordering = DOMAIN_ORDERING;
-            } else if ("host".equals(root.name())) {
-                ordering = HOST_ORDERING;
-            } else if ("server".equals(root.name())) {
-                ordering = SERVER_ORDERING;
-            } else {
-                throw new IllegalArgumentException("Unknown root element '" + root.name() + "'");
-            }
+        int elementOrder = ordering.indexOf(elementName);
+        if (elementOrder < 0) {
+            throw new IllegalArgumentException("Unknown element '" + elementName + "' in '" + root.name() + "'");
+        }
 
-            Collections.sort((List<Node>) root.children(), ordering);
-            return XmlUtil.serialize(root);
-        } catch (RuntimeException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+        List children = root.children();
+        int position = children.size();
+        for (int i = 0; i < children.size(); i++) {
+            Object child = children.get(i);
+            if (child instanceof Node && ordering.indexOf(((Node) child).name()) > elementOrder) {
+                position = i;
+                break;
+            }
         }
+
+        Node element = new Node(root, elementName, new NamespaceAwareHashMap(), new HashMap<String, String>(),
+                root.namespaceURI());
+        children.add(position, element);
+        return element;
     }
 
     private FirstLevelXmlElementOrder() {
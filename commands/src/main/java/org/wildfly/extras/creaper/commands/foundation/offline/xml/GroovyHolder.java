@@ -12,11 +12,14 @@ final class GroovyHolder {
     static final GroovyClassLoader GROOVY = createGroovy();
 
     private static GroovyClassLoader createGroovy() {
+        return new GroovyClassLoader(Thread.currentThread().getContextClassLoader(), createCompilerConfiguration());
+    }
+
+    /** Same configuration is used for {@link PrecompiledScripts precompiling} scripts during build. */
+    static CompilerConfiguration createCompilerConfiguration() {
         ImportCustomizer importCustomizer = new ImportCustomizer().addStarImports("groovy.xml");
 
-        CompilerConfiguration compilerConfiguration = new CompilerConfiguration()
+        return new CompilerConfiguration()
                 .addCompilationCustomizers(importCustomizer);
-
-        return new GroovyClassLoader(Thread.currentThread().getContextClassLoader(), compilerConfiguration);
     }
 }
@@ -1,19 +1,13 @@
 package org.wildfly.extras.creaper.commands.foundation.offline.xml;
 
-import groovy.lang.GroovyCodeSource;
 import groovy.lang.Script;
-import groovy.xml.XmlSlurper;
-import groovy.xml.XmlUtil;
 import groovy.xml.slurpersupport.GPathResult;
 import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.offline.InMemoryConfiguration;
 import org.wildfly.extras.creaper.core.offline.OfflineCommand;
 import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
 
-import java.io.BufferedWriter;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -90,14 +84,13 @@ public final class GroovyXmlTransform implements OfflineCommand {
             throw new CommandFailedException("Couldn't load " + script);
         }
 
-        GroovyCodeSource codeSource;
+        Class clazz;
         try {
-            codeSource = new GroovyCodeSource(url);
+            clazz = CompiledScriptCache.INSTANCE.get(script);
         } catch (Exception e) {
             throw new CommandFailedException(e);
         }
 
-        Class clazz = GroovyHolder.GROOVY.parseClass(codeSource);
         if (!Script.class.isAssignableFrom(clazz)) {
             throw new CommandFailedException("Not a valid Groovy script: " + script);
         }
@@ -116,24 +109,30 @@ public final class GroovyXmlTransform implements OfflineCommand {
         }
 
         if (entireFile) {
+            // the script works with the file directly
+            ctx.syncConfigurationFile();
             loadedScript.setProperty("file", ctx.configurationFile);
             loadedScript.run();
         } else {
             try {
-                GPathResult root = new XmlSlurper(false, false).parse(ctx.configurationFile);
+                GPathResult root;
+                InMemoryConfiguration inMemory = ctx.inMemoryConfiguration();
+                if (inMemory instanceof ParsedConfiguration) {
+                    root = ((ParsedConfiguration) inMemory).reparse();
+                } else {
+                    if (inMemory != null) {
+                        ctx.syncConfigurationFile(); // left by some other kind of command
+                    }
+                    root = ParsedConfiguration.parse(ctx.configurationFile);
+                }
+
                 if (subtrees.isEmpty()) {
                     loadedScript.setProperty("root", root);
                 } else {
+                    // missing subtrees are inserted directly to the parsed tree, so they can be located right away
                     for (Subtree subtree : subtrees.values()) {
                         subtree.addIfMissing(root, ctx.options);
                     }
-                    // two things happening here:
-                    // 1. nodes might have been added, but to a wrong place (fixing it post facto is easier than adding
-                    //    them to the correct location in the first place)
-                    // 2. XmlSlurper can't see the changes it made, so we need to serialize and reparse here
-                    String fixedXml = FirstLevelXmlElementOrder.fix(XmlUtil.serialize(root));
-                    root = new XmlSlurper(false, false).parseText(fixedXml);
-
                     for (Map.Entry<String, Subtree> subtree : subtrees.entrySet()) {
                         loadedScript.setProperty(subtree.getKey(), subtree.getValue().locate(root, ctx.options));
                     }
@@ -141,10 +140,11 @@ public final class GroovyXmlTransform implements OfflineCommand {
 
                 loadedScript.run();
 
-                Writer writer = new BufferedWriter(new OutputStreamWriter(
-                        new FileOutputStream(ctx.configurationFile), "utf-8"));
-                XmlUtil.serialize(root, writer);
-                writer.close();
+                if (ctx.options.inMemorySession) {
+                    ctx.inMemoryConfiguration(new ParsedConfiguration(root));
+                } else {
+                    ctx.writeConfigurationFile(new ParsedConfiguration(root));
+                }
             } catch (Exception e) {
                 throw new CommandFailedException(e);
             }
@@ -156,6 +156,32 @@ public final class GroovyXmlTransform implements OfflineCommand {
         return "GroovyXmlTransform " + script.toString();
     }
 
+    /**
+     * Returns how many times a transformation script was found in the cache of compiled scripts. Compiled scripts
+     * are cached by their URL and content, so applying the same kind of command repeatedly compiles its script
+     * only once.
+     */
+    public static long compiledScriptCacheHits() {
+        return CompiledScriptCache.INSTANCE.hits();
+    }
+
+    /**
+     * Returns how many times a transformation script had to be compiled, because it wasn't found in the cache
+     * and it wasn't precompiled either.
+     */
+    public static long compiledScriptCacheMisses() {
+        return CompiledScriptCache.INSTANCE.misses();
+    }
+
+    /**
+     * Returns how many times a transformation script wasn't found in the cache, but was loaded from a class
+     * precompiled during the build. All scripts that are part of Creaper are precompiled, so only custom scripts
+     * need to be compiled at runtime.
+     */
+    public static long precompiledScriptLoads() {
+        return CompiledScriptCache.INSTANCE.precompiledLoads();
+    }
+
     // ---
 
     public static final class Builder {
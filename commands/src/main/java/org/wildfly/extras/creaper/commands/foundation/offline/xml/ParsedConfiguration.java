@@ -0,0 +1,52 @@
+package org.wildfly.extras.creaper.commands.foundation.offline.xml;
+
+import groovy.lang.Writable;
+import groovy.xml.StreamingMarkupBuilder;
+import groovy.xml.XmlSlurper;
+import groovy.xml.XmlUtil;
+import groovy.xml.slurpersupport.GPathResult;
+import org.wildfly.extras.creaper.core.offline.InMemoryConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+
+/**
+ * The configuration file as left by a {@link GroovyXmlTransform}, either kept in an in-memory session or about to be
+ * written to the file. The tree is never modified once it's wrapped here; the next transform works on
+ * a {@link #reparse() fresh copy}, so that when a transformation fails, the previous state is kept intact.
+ */
+final class ParsedConfiguration implements InMemoryConfiguration {
+    private final GPathResult root;
+
+    ParsedConfiguration(GPathResult root) {
+        this.root = root;
+    }
+
+    static GPathResult parse(File configurationFile) throws Exception {
+        return new XmlSlurper(false, false).parse(configurationFile);
+    }
+
+    /**
+     * Returns a new tree with all the changes made to the original tree. {@code XmlSlurper} doesn't see its own
+     * changes, so they are applied by streaming the tree out and parsing it again. This is still much cheaper than
+     * {@link #writeTo(OutputStream) writing} and reading the file, as the pretty printing is skipped.
+     */
+    GPathResult reparse() throws Exception {
+        StreamingMarkupBuilder builder = new StreamingMarkupBuilder();
+        builder.setEncoding("UTF-8");
+        StringWriter markup = new StringWriter();
+        ((Writable) builder.bindNode(root)).writeTo(markup);
+        return new XmlSlurper(false, false).parseText(markup.toString());
+    }
+
+    @Override
+    public void writeTo(OutputStream output) throws IOException {
+        Writer writer = new OutputStreamWriter(output, "utf-8");
+        XmlUtil.serialize(root, writer);
+        writer.flush();
+    }
+}
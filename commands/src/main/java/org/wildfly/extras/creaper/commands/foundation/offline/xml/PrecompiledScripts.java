@@ -0,0 +1,98 @@
+package org.wildfly.extras.creaper.commands.foundation.offline.xml;
+
+import com.google.common.hash.Hashing;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.classgen.GeneratorContext;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilePhase;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.SourceUnit;
+import org.codehaus.groovy.control.customizers.CompilationCustomizer;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>Transformation scripts shipped with Creaper are compiled to bytecode during the build (see
+ * {@code PrecompileGroovyScripts} in {@code src/build/java}, which is called from {@code pom.xml}), so that they
+ * don't have to be compiled at runtime. Compiling
+ * a Groovy script takes tens of milliseconds, which adds up quickly for a freshly started JVM.</p>
+ *
+ * <p>A precompiled class is named after the script (a classpath resource name, or a name of a script
+ * embedded in Java code) <i>and</i> a hash of its content. That way, a script is only loaded from a precompiled
+ * class if it has exactly the same content as at build time. Scripts that weren't precompiled (typically scripts
+ * that come from the user) aren't found and must be compiled at runtime.</p>
+ */
+final class PrecompiledScripts {
+    private PrecompiledScripts() {
+        // avoid instantiation
+    }
+
+    /**
+     * @param name classpath resource name of the script (e.g. {@code org/foo/Bar.groovy}), or a name in the same
+     * format for scripts that aren't resources
+     * @param content content of the script
+     */
+    static String className(String name, byte[] content) {
+        String baseName = name.endsWith(".groovy") ? name.substring(0, name.length() - ".groovy".length()) : name;
+        String hash = Hashing.sha256().hashBytes(content).toString().substring(0, 16);
+
+        StringBuilder result = new StringBuilder();
+        for (char c : baseName.toCharArray()) {
+            if (c == '/') {
+                result.append('.');
+            } else if (Character.isJavaIdentifierPart(c)) {
+                result.append(c);
+            } else {
+                result.append('_');
+            }
+        }
+        return result.append("_groovy_").append(hash).toString();
+    }
+
+    /** Returns the precompiled class of given script or {@code null} if the script wasn't precompiled. */
+    static Class find(String name, byte[] content) {
+        return find(name, content, PrecompiledScripts.class.getClassLoader());
+    }
+
+    static Class find(String name, byte[] content, ClassLoader classLoader) {
+        try {
+            return Class.forName(className(name, content), false, classLoader);
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (LinkageError e) {
+            return null;
+        }
+    }
+
+    /** Returns the precompiled class of given script or compiles it if the script wasn't precompiled. */
+    static Class findOrCompile(String name, String content) {
+        Class result = find(name, content.getBytes(StandardCharsets.UTF_8));
+        if (result == null) {
+            result = GroovyHolder.GROOVY.parseClass(content);
+        }
+        return result;
+    }
+
+    /** Compiles the script to the {@code targetDirectory}; the class name is given by {@link #className}. */
+    static void precompile(String name, byte[] content, File targetDirectory) {
+        final String className = className(name, content);
+
+        CompilerConfiguration configuration = GroovyHolder.createCompilerConfiguration();
+        configuration.setTargetDirectory(targetDirectory);
+        configuration.addCompilationCustomizers(new CompilationCustomizer(CompilePhase.CONVERSION) {
+            @Override
+            public void call(SourceUnit source, GeneratorContext context, ClassNode classNode) {
+                if (classNode.isScript()) {
+                    classNode.setName(className);
+                }
+            }
+        });
+
+        CompilationUnit compilationUnit = new CompilationUnit(configuration);
+        // the source name only appears in stack traces, where it should look like the original file name
+        compilationUnit.addSource(name.substring(name.lastIndexOf('/') + 1),
+                new String(content, StandardCharsets.UTF_8));
+        compilationUnit.compile();
+    }
+}
@@ -2,6 +2,7 @@ package org.wildfly.extras.creaper.commands.foundation.offline.xml;
 
 import groovy.lang.Script;
 import groovy.xml.slurpersupport.GPathResult;
+import groovy.xml.slurpersupport.Node;
 import org.wildfly.extras.creaper.core.offline.OfflineOptions;
 
 /**
@@ -170,14 +171,11 @@ public final class Subtree {
         static final SubtreeLocator JVMS = new StaticSubtreeLocator("jvms", Type.HOST);
         static final SubtreeLocator SERVERS = new StaticSubtreeLocator("servers", Type.HOST);
 
-        private final String tagName; // only for a possible exception message
-        private final Class scriptClass;
+        private final String tagName;
         private final Type onlyForType;
 
         StaticSubtreeLocator(String tagName, Type onlyForType) {
-            String script = "root.\"" + tagName + "\"";
             this.tagName = tagName;
-            this.scriptClass = GroovyHolder.GROOVY.parseClass(script);
             this.onlyForType = onlyForType;
         }
 
@@ -185,8 +183,9 @@ public final class Subtree {
             if (onlyForType != null && onlyForType != Type.of(root)) {
                 throw new IllegalArgumentException("Locating '" + tagName + "' is only possible in '" + onlyForType + "'");
             }
-            Script script = (Script) scriptClass.newInstance();
+            Script script = LocatorScript.CHILD.newInstance();
             script.setProperty("root", root);
+            script.setProperty("tagName", tagName);
             return (GPathResult) script.run();
         }
     }
@@ -194,16 +193,12 @@ public final class Subtree {
     private static final class ProfileSubtreeLocator implements SubtreeLocator {
         static final SubtreeLocator INSTANCE = new ProfileSubtreeLocator();
 
-        private static final Class STANDALONE_OR_HOST_SCRIPT_CLASS = GroovyHolder.GROOVY.parseClass("root.profile");
-        private static final Class DOMAIN_SCRIPT_CLASS = GroovyHolder.GROOVY.parseClass("root.profiles.profile.find { it.@name == defaultProfile }");
-
         @Override
         public GPathResult locate(GPathResult root, OfflineOptions options) throws Exception {
             boolean domain = Type.of(root) == Type.DOMAIN;
 
-            Script script = (Script) (
-                    domain ? DOMAIN_SCRIPT_CLASS.newInstance() : STANDALONE_OR_HOST_SCRIPT_CLASS.newInstance()
-            );
+            Script script = domain ? LocatorScript.PROFILE_DOMAIN.newInstance()
+                    : LocatorScript.PROFILE_STANDALONE_OR_HOST.newInstance();
             script.setProperty("root", root);
             if (domain) {
                 script.setProperty("defaultProfile", options.defaultProfile);
@@ -213,11 +208,6 @@ public final class Subtree {
     }
 
     private static final class SubsystemSubtreeLocator implements SubtreeLocator {
-        private static final Class STANDALONE_OR_HOST_SCRIPT_CLASS = GroovyHolder.GROOVY.parseClass("root.profile.subsystem.find { it.@xmlns.toString()"
-                + ".startsWith(\"urn:jboss:domain:${subsystemName}:\") || it.@xmlns.toString().startsWith(\"urn:wildfly:${subsystemName}:\")} ");
-        private static final Class DOMAIN_SCRIPT_CLASS = GroovyHolder.GROOVY.parseClass("root.profiles.profile.find { it.@name == defaultProfile }.subsystem"
-                + ".find { it.@xmlns.toString().startsWith(\"urn:jboss:domain:${subsystemName}:\") || it.@xmlns.toString().startsWith(\"urn:wildfly:${subsystemName}:\") }");
-
         private final String subsystemName;
 
         SubsystemSubtreeLocator(String subsystemName) {
@@ -228,9 +218,8 @@ public final class Subtree {
         public GPathResult locate(GPathResult root, OfflineOptions options) throws Exception {
             boolean domain = Type.of(root) == Type.DOMAIN;
 
-            Script script = (Script) (
-                    domain ? DOMAIN_SCRIPT_CLASS.newInstance() : STANDALONE_OR_HOST_SCRIPT_CLASS.newInstance()
-            );
+            Script script = domain ? LocatorScript.SUBSYSTEM_DOMAIN.newInstance()
+                    : LocatorScript.SUBSYSTEM_STANDALONE_OR_HOST.newInstance();
             script.setProperty("root", root);
             script.setProperty("subsystemName", subsystemName);
             if (domain) {
@@ -243,16 +232,12 @@ public final class Subtree {
     private static final class SocketBindingGroupSubtreeLocator implements SubtreeLocator {
         static final SubtreeLocator INSTANCE = new SocketBindingGroupSubtreeLocator();
 
-        private static final Class STANDALONE_OR_HOST_SCRIPT_CLASS = GroovyHolder.GROOVY.parseClass("root.\"socket-binding-group\"");
-        private static final Class DOMAIN_SCRIPT_CLASS = GroovyHolder.GROOVY.parseClass("root.\"socket-binding-groups\".\"socket-binding-group\".find { it.@name == \"${defaultSocketBindingGroup}\" }");
-
         @Override
         public GPathResult locate(GPathResult root, OfflineOptions options) throws Exception {
             boolean domain = Type.of(root) == Type.DOMAIN;
 
-            Script script = (Script) (
-                    domain ? DOMAIN_SCRIPT_CLASS.newInstance() : STANDALONE_OR_HOST_SCRIPT_CLASS.newInstance()
-            );
+            Script script = domain ? LocatorScript.SOCKET_BINDING_GROUP_DOMAIN.newInstance()
+                    : LocatorScript.SOCKET_BINDING_GROUP_STANDALONE_OR_HOST.newInstance();
             script.setProperty("root", root);
             if (domain) {
                 String defaultSocketBindingGroup = options.defaultProfile + "-sockets";
@@ -266,8 +251,6 @@ public final class Subtree {
     }
 
     private static final class SubsystemInProfileSubtreeLocator implements SubtreeLocator {
-        private static final Class SCRIPT_CLASS = GroovyHolder.GROOVY.parseClass("root.profiles.profile.find { it.@name == profileName }.subsystem.find { it.@xmlns.toString().startsWith(\"urn:jboss:domain:${subsystemName}:\") }");
-
         private final String profileName;
         private final String subsystemName;
 
@@ -283,7 +266,7 @@ public final class Subtree {
                         + profileName + "' is only possible in domain");
             }
 
-            Script script = (Script) SCRIPT_CLASS.newInstance();
+            Script script = LocatorScript.SUBSYSTEM_IN_PROFILE.newInstance();
             script.setProperty("root", root);
             script.setProperty("profileName", profileName);
             script.setProperty("subsystemName", subsystemName);
@@ -291,10 +274,44 @@ public final class Subtree {
         }
     }
 
-    // appends a new subtree to the end of the document, which is wrong (but simple)
-    //
-    // the location will be fixed later (which is easier and more efficient than doing it here),
-    // see FirstLevelXmlElementOrder
+    /**
+     * Scripts used by the locators. They are {@link PrecompiledScripts precompiled} during the build and only
+     * loaded (or compiled, if they weren't precompiled) when first used.
+     */
+    enum LocatorScript {
+        CHILD("root.\"${tagName}\""),
+        PROFILE_STANDALONE_OR_HOST("root.profile"),
+        PROFILE_DOMAIN("root.profiles.profile.find { it.@name == defaultProfile }"),
+        SUBSYSTEM_STANDALONE_OR_HOST("root.profile.subsystem.find { it.@xmlns.toString()"
+                + ".startsWith(\"urn:jboss:domain:${subsystemName}:\") || it.@xmlns.toString().startsWith(\"urn:wildfly:${subsystemName}:\")} "),
+        SUBSYSTEM_DOMAIN("root.profiles.profile.find { it.@name == defaultProfile }.subsystem"
+                + ".find { it.@xmlns.toString().startsWith(\"urn:jboss:domain:${subsystemName}:\") || it.@xmlns.toString().startsWith(\"urn:wildfly:${subsystemName}:\") }"),
+        SOCKET_BINDING_GROUP_STANDALONE_OR_HOST("root.\"socket-binding-group\""),
+        SOCKET_BINDING_GROUP_DOMAIN("root.\"socket-binding-groups\".\"socket-binding-group\".find { it.@name == \"${defaultSocketBindingGroup}\" }"),
+        SUBSYSTEM_IN_PROFILE("root.profiles.profile.find { it.@name == profileName }.subsystem.find { it.@xmlns.toString().startsWith(\"urn:jboss:domain:${subsystemName}:\") }"),
+        ;
+
+        final String scriptName;
+        final String content;
+        private volatile Class scriptClass;
+
+        LocatorScript(String content) {
+            this.scriptName = Subtree.class.getName().replace('.', '/') + "_" + name();
+            this.content = content;
+        }
+
+        Script newInstance() throws Exception {
+            Class scriptClass = this.scriptClass;
+            if (scriptClass == null) {
+                // if two threads load the class concurrently, one class just wins
+                scriptClass = PrecompiledScripts.findOrCompile(scriptName, content);
+                this.scriptClass = scriptClass;
+            }
+            return (Script) scriptClass.newInstance();
+        }
+    }
+
+    // inserts a new subtree directly at the correct location, see FirstLevelXmlElementOrder
     private static final class SubtreeCreator {
         static final SubtreeCreator EXTENSIONS = new SubtreeCreator("extensions");
         static final SubtreeCreator SYSTEM_PROPERTIES = new SubtreeCreator("system-properties");
@@ -311,7 +328,7 @@ public final class Subtree {
         static final SubtreeCreator JVMS = new SubtreeCreator("jvms");
         static final SubtreeCreator SERVERS = new SubtreeCreator("servers");
 
-        private final Class scriptClass;
+        private final String tagName;
         private final boolean skipInDomain;
 
         private SubtreeCreator(String tagName) {
@@ -319,8 +336,7 @@ public final class Subtree {
         }
 
         private SubtreeCreator(String tagName, boolean skipInDomain) {
-            String script = "if (root.\"" + tagName + "\".isEmpty()) root << { \"" + tagName + "\"() }";
-            this.scriptClass = GroovyHolder.GROOVY.parseClass(script);
+            this.tagName = tagName;
             this.skipInDomain = skipInDomain;
         }
 
@@ -331,13 +347,13 @@ public final class Subtree {
                 return;
             }
 
-            try {
-                Script script = (Script) scriptClass.newInstance();
-                script.setProperty("root", root);
-                script.run();
-            } catch (Exception e) {
-                throw new RuntimeException(e);
+            Node rootNode = (Node) root.getAt(0);
+            for (Object child : rootNode.children()) {
+                if (child instanceof Node && tagName.equals(((Node) child).name())) {
+                    return;
+                }
             }
+            FirstLevelXmlElementOrder.insert(rootNode, tagName);
         }
     }
 }
@@ -16,6 +16,16 @@ final class TransformationScript {
         return resourceLoader.getResource(path);
     }
 
+    /** Absolute name of the resource, resolved the same way as in {@link Class#getResource(String)}. */
+    String resourceName() {
+        if (path.startsWith("/")) {
+            return path.substring(1);
+        }
+        String className = resourceLoader.getName();
+        int lastDot = className.lastIndexOf('.');
+        return lastDot < 0 ? path : className.substring(0, lastDot).replace('.', '/') + "/" + path;
+    }
+
     InputStream openInputStream() {
         return resourceLoader.getResourceAsStream(path);
     }
@@ -22,6 +22,7 @@ import java.net.URL;
 public final class CliFile implements OnlineCommand {
     private final CharSource source;
     private final String description;
+    private final int batchSize; // 0 means not batched
 
     /**
      * Apply a CLI script from the filesystem ({@code file}).
@@ -38,6 +39,7 @@ public final class CliFile implements OnlineCommand {
 
         this.source = Files.asByteSource(file).asCharSource(Charsets.UTF_8);
         this.description = file.toString();
+        this.batchSize = 0;
     }
 
     /**
@@ -56,6 +58,7 @@ public final class CliFile implements OnlineCommand {
         URL url = Resources.getResource(clazz, path);
         this.source = Resources.asByteSource(url).asCharSource(Charsets.UTF_8);
         this.description = path;
+        this.batchSize = 0;
     }
 
     /**
@@ -76,15 +79,31 @@ public final class CliFile implements OnlineCommand {
         URL url = Resources.getResource(resourceLoader, path);
         this.source = Resources.asByteSource(url).asCharSource(Charsets.UTF_8);
         this.description = path;
+        this.batchSize = 0;
+    }
+
+    private CliFile(CliFile original, int batchSize) {
+        this.source = original.source;
+        this.description = original.description;
+        this.batchSize = batchSize;
+    }
+
+    /** Returns a command that applies the same script in batched mode, see {@link CliScript#batched(int)}. */
+    public CliFile batched(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        return new CliFile(this, batchSize);
     }
 
     @Override
     public void apply(OnlineCommandContext ctx) throws IOException, CliException, CommandFailedException {
-        ctx.client.apply(new CliScript(source.read(), description));
+        CliScript script = new CliScript(source.read(), description);
+        ctx.client.apply(batchSize == 0 ? script : script.batched(batchSize));
     }
 
     @Override
     public String toString() {
-        return "CliFile " + description;
+        return batchSize == 0 ? "CliFile " + description : "CliFile " + description + " (batched)";
     }
 }
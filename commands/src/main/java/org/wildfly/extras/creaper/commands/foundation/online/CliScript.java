@@ -3,10 +3,22 @@ package org.wildfly.extras.creaper.commands.foundation.online;
 import com.google.common.base.Predicates;
 import com.google.common.collect.Iterables;
 import com.google.common.io.CharSource;
+import org.jboss.dmr.ModelNode;
 import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.online.CliException;
+import org.wildfly.extras.creaper.core.online.Constants;
+import org.wildfly.extras.creaper.core.online.FailuresAllowedBlock;
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
 import org.wildfly.extras.creaper.core.online.OnlineCommand;
 import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * <p>Apply a list of CLI operations (a CLI script), provided as a {@code String}. If you want to read the script
  * from a file or a classpath resource, use the {@link CliFile} command.</p>
@@ -16,10 +28,23 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
  * that specifies the host and port to connect to) are considered a failure. The script is scanned for the forbidden
  * {@code connect} operations <i>before</i> is it executed, so if this error happens, no operation from the script
  * has been performed yet.</p>
+ *
+ * <p>By default, each line of the script is handed over to the CLI separately, which means one round trip
+ * to the server per line. For long scripts, {@link #batched(int) batched} mode is much faster: consecutive plain
+ * operations (lines like {@code /subsystem=foo:add(bar=baz)}) are translated to DMR operations locally and sent
+ * as {@code composite} operations, and only real CLI commands ({@code cd}, {@code deploy}, {@code module add},
+ * {@code if} / {@code try} / {@code for} / {@code batch} blocks etc.) and operations that need the CLI's special
+ * handling ({@code reload}, {@code shutdown}, operations with headers) are executed one by one.</p>
  */
 public final class CliScript implements OnlineCommand {
+    private static final Set<String> SPECIAL_OPERATIONS = new HashSet<String>(Arrays.asList(
+            "reload", "shutdown", "restart", "reload-servers", "restart-servers", "resume-servers",
+            "suspend-servers", "stop-servers", "start-servers", "composite"
+    ));
+
     private final String script;
     private final String description;
+    private final int batchSize; // 0 means not batched
 
     /**
      * Apply the given CLI {@code script}.
@@ -35,12 +60,36 @@ public final class CliScript implements OnlineCommand {
      * @param description human-readable description of the script to use for {@code toString}; may be {@code null}
      */
     CliScript(String script, String description) {
+        this(script, description, 0);
+    }
+
+    private CliScript(String script, String description, int batchSize) {
         if (script == null) {
             throw new IllegalArgumentException("The script text must be provided");
         }
 
         this.script = script;
         this.description = description;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * <p>Returns a command that applies the same script in batched mode: up to {@code batchSize} consecutive plain
+     * operations are sent to the server as a single {@code composite} operation. All lines are still processed
+     * in order, so {@code cd}, relative addresses and CLI variables work as usual.</p>
+     *
+     * <p>The steps of a composite are executed in order and each step sees the changes made by the previous ones,
+     * so e.g. adding a resource and writing its attribute on the next line works the same as without batching.
+     * Note that if an operation fails, the whole composite is rolled back, so none of the operations batched
+     * together with the failed one are applied. The reported error contains the number of the failed line.</p>
+     *
+     * @param batchSize maximum number of operations sent in one {@code composite}; must be at least 1
+     */
+    public CliScript batched(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        return new CliScript(script, description, batchSize);
     }
 
     @Override
@@ -52,17 +101,145 @@ public final class CliScript implements OnlineCommand {
             throw new CommandFailedException("The script contains an unsupported 'connect' operation");
         }
 
-        for (String line : lines) {
-            ctx.client.executeCli(line.trim());
+        if (batchSize == 0) {
+            for (String line : lines) {
+                ctx.client.executeCli(line.trim());
+            }
+        } else {
+            applyBatched(ctx);
+        }
+    }
+
+    private void applyBatched(OnlineCommandContext ctx) throws Exception {
+        List<String> lines = CharSource.wrap(script).readLines();
+        List<ScriptLine> pending = new ArrayList<ScriptLine>(batchSize);
+        int blockDepth = 0;
+
+        for (int i = 0; i < lines.size(); i++) {
+            ScriptLine line = new ScriptLine(i + 1, lines.get(i).trim());
+            if (line.text.isEmpty() || line.text.startsWith("#") || line.text.matches("connect\\s*")) {
+                continue;
+            }
+
+            if (blockDepth == 0 && isOperation(line.text)) {
+                try {
+                    line.operation = ctx.parseCliOperation(line.text);
+                } catch (CliException e) {
+                    throw line.failure(e.getMessage(), e);
+                }
+
+                if (!line.needsCli()) {
+                    pending.add(line);
+                    if (pending.size() >= batchSize) {
+                        flush(ctx, pending);
+                    }
+                    continue;
+                }
+            }
+
+            flush(ctx, pending);
+            blockDepth = Math.max(0, blockDepth + blockDepthChange(line.text));
+            try {
+                ctx.client.executeCli(line.text);
+            } catch (CliException e) {
+                throw line.failure(e.getMessage(), e);
+            }
+        }
+
+        flush(ctx, pending);
+    }
+
+    /** Sends all {@code pending} operations in one round trip and clears the list. */
+    private static void flush(OnlineCommandContext ctx, List<ScriptLine> pending)
+            throws IOException, CommandFailedException {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        ModelNode operation;
+        if (pending.size() == 1) {
+            operation = pending.get(0).operation;
+        } else {
+            operation = new ModelNode();
+            operation.get(Constants.OP).set(Constants.COMPOSITE);
+            operation.get(Constants.OP_ADDR).setEmptyList();
+            for (ScriptLine line : pending) {
+                operation.get(Constants.STEPS).add(line.operation);
+            }
+        }
+
+        ModelNodeResult result;
+        try (FailuresAllowedBlock ignored = ctx.client.allowFailures()) {
+            result = ctx.client.execute(operation);
+        }
+
+        if (result.isFailed()) {
+            throw failure(pending, result);
+        }
+        pending.clear();
+    }
+
+    private static CommandFailedException failure(List<ScriptLine> pending, ModelNodeResult result) {
+        String rolledBack = pending.size() > 1
+                ? " (the other " + (pending.size() - 1) + " operations of the batch were rolled back)" : "";
+
+        if (pending.size() > 1 && result.hasDefined(Constants.RESULT)) {
+            int step = 0;
+            for (ModelNodeResult stepResult : result.forAllBatchSteps()) {
+                if (stepResult.hasDefined(Constants.FAILURE_DESCRIPTION)) {
+                    String message = stepResult.get(Constants.FAILURE_DESCRIPTION).asString();
+                    return pending.get(step).failure(message + rolledBack, null);
+                }
+                step++;
+            }
+        }
+
+        return pending.get(0).failure(result.get(Constants.FAILURE_DESCRIPTION).asString() + rolledBack, null);
+    }
+
+    /** Whether the {@code line} is an operation (as opposed to a CLI command), such as {@code /foo=bar:baz}. */
+    static boolean isOperation(String line) {
+        return line.startsWith("/") || line.startsWith(":") || line.startsWith(".");
+    }
+
+    /** How the {@code line} changes the nesting of CLI blocks: +1 for block start, -1 for block end, 0 otherwise. */
+    static int blockDepthChange(String line) {
+        String command = line.split("\\s+", 2)[0];
+        if ("if".equals(command) || "try".equals(command) || "for".equals(command) || "batch".equals(command)) {
+            return 1;
         }
+        if ("end-if".equals(command) || "end-try".equals(command) || "done".equals(command)
+                || "run-batch".equals(command) || "discard-batch".equals(command)) {
+            return -1;
+        }
+        return 0;
     }
 
     @Override
     public String toString() {
-        if (description == null) {
-            return "CliScript";
-        } else {
-            return "CliScript " + description;
+        String result = description == null ? "CliScript" : "CliScript " + description;
+        return batchSize == 0 ? result : result + " (batched)";
+    }
+
+    private static final class ScriptLine {
+        final int number;
+        final String text;
+        ModelNode operation;
+
+        ScriptLine(int number, String text) {
+            this.number = number;
+            this.text = text;
+        }
+
+        /** Operations that must be executed by the CLI handler, because the CLI treats them specially. */
+        boolean needsCli() {
+            return operation.hasDefined(Constants.OPERATION_HEADERS)
+                    || SPECIAL_OPERATIONS.contains(operation.get(Constants.OP).asString());
+        }
+
+        CommandFailedException failure(String message, Exception cause) {
+            return new CommandFailedException("Line " + number + " of the script failed: " + text + ": " + message,
+                    cause);
         }
     }
 }
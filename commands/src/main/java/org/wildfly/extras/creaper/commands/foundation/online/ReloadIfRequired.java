@@ -0,0 +1,24 @@
+package org.wildfly.extras.creaper.commands.foundation.online;
+
+import org.wildfly.extras.creaper.core.online.OnlineCommand;
+import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
+import org.wildfly.extras.creaper.core.online.OnlineOptions;
+
+/**
+ * <p>Reloads the server if required. In domain, reloads the entire host if at least one server requires reload.</p>
+ *
+ * <p>This is mostly useful with {@link OnlineOptions.OptionalOnlineOptions#deferredReload()
+ * deferred reload}, where it works as a barrier: when a command depends on the reloaded state of the server after
+ * previous commands, put this command between them.</p>
+ */
+public final class ReloadIfRequired implements OnlineCommand {
+    @Override
+    public void apply(OnlineCommandContext ctx) throws Exception {
+        ctx.reloadIfRequiredNow();
+    }
+
+    @Override
+    public String toString() {
+        return "ReloadIfRequired";
+    }
+}
@@ -12,10 +12,12 @@ import org.wildfly.extras.creaper.core.online.operations.Values;
 
 public final class AddLogger extends AbstractLoggerCommand {
     private final boolean replaceExisting;
+    private final boolean reconcile;
 
     private AddLogger(Builder builder) {
         super(builder);
         this.replaceExisting = builder.replaceExisting;
+        this.reconcile = builder.reconcile;
     }
 
     @Override
@@ -32,12 +34,22 @@ public final class AddLogger extends AbstractLoggerCommand {
             }
         }
 
-        ops.add(loggerAddress, Values.empty()
+        Values values = Values.empty()
                 .and("category", category)
                 .andOptional("level", level == null ? null : level.value())
                 .andOptional("filter-spec", filter)
                 .andOptional("use-parent-handlers", useParentHandler)
-                .andListOptional(String.class, "handlers", handlers));
+                .andListOptional(String.class, "handlers", handlers);
+
+        if (reconcile) {
+            try {
+                ops.reconcile(loggerAddress, values);
+            } catch (OperationException e) {
+                throw new CommandFailedException("Failed to reconcile logger " + category, e);
+            }
+        } else {
+            ops.add(loggerAddress, values);
+        }
     }
 
     @Override
@@ -49,7 +61,8 @@ public final class AddLogger extends AbstractLoggerCommand {
                 .parameter("filter", filter)
                 .parameter("level", level == null ? null : level.value())
                 .parameter("useParentHandler", useParentHandler == null ? null : String.valueOf(useParentHandler))
-                .parameter("replaceExisting", replaceExisting)
+                // rewriting the XML is cheap, so reconciling is the same as replacing
+                .parameter("replaceExisting", replaceExisting || reconcile)
                 .build();
 
         ctx.client.apply(transform);
@@ -62,6 +75,7 @@ public final class AddLogger extends AbstractLoggerCommand {
 
     public static final class Builder extends AbstractLoggerCommand.Builder<Builder> {
         private boolean replaceExisting;
+        private boolean reconcile;
 
         public Builder(String category) {
             super(category);
@@ -72,8 +86,21 @@ public final class AddLogger extends AbstractLoggerCommand {
             return this;
         }
 
+        /**
+         * If the logger already exists, only change the attributes that differ, instead of failing or removing
+         * and re-adding the logger (see {@link #replaceExisting()}). If the logger is already in the desired state,
+         * nothing is changed at all. See {@link Operations#reconcile(Address, Values)}.
+         */
+        public Builder reconcile() {
+            this.reconcile = true;
+            return this;
+        }
+
         @Override
         public AddLogger build() {
+            if (replaceExisting && reconcile) {
+                throw new IllegalArgumentException("Only one of replaceExisting and reconcile can be set");
+            }
             return new AddLogger(this);
         }
     }
@@ -15,7 +15,6 @@ import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.OperationException;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Add a new security domain.
@@ -43,8 +42,8 @@ public class AddSecurityDomain implements OnlineCommand, OfflineCommand {
         Address securityDomainAddress = Address.subsystem("security").and("security-domain", securityDomainName);
         if (replaceExisting) {
             try {
-                ops.removeIfExists(securityDomainAddress);
-                new Administration(ctx.client).reloadIfRequired();
+                boolean removed = ops.removeIfExists(securityDomainAddress);
+                ctx.reloadIfRequiredAfterRemoving(removed);
             } catch (OperationException e) {
                 throw new IOException("Failed to remove existing security domain " + securityDomainName, e);
             }
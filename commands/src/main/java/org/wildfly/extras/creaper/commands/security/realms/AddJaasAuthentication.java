@@ -8,7 +8,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Add jaas authentication to security realm.
@@ -39,8 +38,8 @@ public final class AddJaasAuthentication extends AbstractAddSecurityRealmSubElem
         Operations ops = new Operations(ctx.client);
         Address securityRealmJaasAuthnAddress = securityRealmAddress.and("authentication", "jaas");
         if (replaceExisting) {
-            ops.removeIfExists(securityRealmJaasAuthnAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(securityRealmJaasAuthnAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
         ops.add(securityRealmJaasAuthnAddress, Values.empty()
                 .andOptional("name", name)
@@ -11,7 +11,6 @@ import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Batch;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Add kerberos authentication to security realm.
@@ -56,7 +55,7 @@ public final class AddKerberosAuthentication extends AbstractAddSecurityRealmSub
                 batch.remove(securityRealmKerberosAuthnAddress);
             }
             ops.batch(batch);
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequiredAfterRemoving(krbServerIdentityExists || krbAuthenticationExists);
         }
 
         Batch batch = new Batch();
@@ -8,7 +8,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Add ldap authentication to security realm.
@@ -52,8 +51,8 @@ public final class AddLdapAuthentication extends AbstractAddSecurityRealmSubElem
         Operations ops = new Operations(ctx.client);
         Address securityRealmLdapAuthnAddress = securityRealmAddress.and("authentication", "ldap");
         if (replaceExisting) {
-            ops.removeIfExists(securityRealmLdapAuthnAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(securityRealmLdapAuthnAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
         ops.add(securityRealmLdapAuthnAddress, Values.empty()
                 .andOptional("username-attribute", usernameAttribute)
@@ -9,7 +9,6 @@ import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Batch;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Add LDAP authorization to security realm.
@@ -73,8 +72,8 @@ public final class AddLdapAuthorization extends AbstractAddSecurityRealmSubEleme
         Operations ops = new Operations(ctx.client);
         Address securityRealmLdapAuthzAddress = securityRealmAddress.and("authorization", "ldap");
         if (replaceExisting) {
-            ops.removeIfExists(securityRealmLdapAuthzAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(securityRealmLdapAuthzAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
 
         Batch batch = new Batch();
@@ -17,7 +17,6 @@ import org.wildfly.extras.creaper.core.online.operations.Batch;
 import org.wildfly.extras.creaper.core.online.operations.OperationException;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Add a new LDAP outbound connection.
@@ -58,8 +57,8 @@ public final class AddLdapConnection implements OnlineCommand, OfflineCommand {
         Address ldapConnection = Address.coreService("management").and("ldap-connection", connectionName);
         if (replaceExisting) {
             try {
-                ops.removeIfExists(ldapConnection);
-                new Administration(ctx.client).reloadIfRequired();
+                boolean removed = ops.removeIfExists(ldapConnection);
+                ctx.reloadIfRequiredAfterRemoving(removed);
             } catch (OperationException e) {
                 throw new IOException("Failed to LDAP outbound connection " + connectionName, e);
             }
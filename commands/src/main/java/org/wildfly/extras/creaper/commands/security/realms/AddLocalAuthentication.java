@@ -8,7 +8,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Add local authentication to security realm.
@@ -35,8 +34,8 @@ public class AddLocalAuthentication extends AbstractAddSecurityRealmSubElement {
         Operations ops = new Operations(ctx.client);
         Address securityRealmJaasAuthnAddress = securityRealmAddress.and("authentication", "local");
         if (replaceExisting) {
-            ops.removeIfExists(securityRealmJaasAuthnAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(securityRealmJaasAuthnAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
         ops.add(securityRealmJaasAuthnAddress, Values.empty()
                 .andOptional("allowed-users", allowedUsers)
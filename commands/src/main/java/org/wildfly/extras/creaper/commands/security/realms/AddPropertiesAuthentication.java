@@ -8,7 +8,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Add properties authentication to security realm.
@@ -35,8 +34,8 @@ public final class AddPropertiesAuthentication extends AbstractAddSecurityRealmS
         Operations ops = new Operations(ctx.client);
         Address securityRealmPropertiesAuthnAddress = securityRealmAddress.and("authentication", "properties");
         if (replaceExisting) {
-            ops.removeIfExists(securityRealmPropertiesAuthnAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(securityRealmPropertiesAuthnAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
         ops.add(securityRealmPropertiesAuthnAddress, Values.empty()
                 .andOptional("path", path)
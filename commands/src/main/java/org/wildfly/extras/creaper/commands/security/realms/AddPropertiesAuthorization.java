@@ -8,7 +8,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Add properties authorization to security realm.
@@ -33,8 +32,8 @@ public final class AddPropertiesAuthorization extends AbstractAddSecurityRealmSu
         Operations ops = new Operations(ctx.client);
         Address securityRealmPropertiesAuthzAddress = securityRealmAddress.and("authorization", "properties");
         if (replaceExisting) {
-            ops.removeIfExists(securityRealmPropertiesAuthzAddress);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(securityRealmPropertiesAuthzAddress);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
         ops.add(securityRealmPropertiesAuthzAddress, Values.empty()
                 .andOptional("path", path)
@@ -9,7 +9,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 import java.io.IOException;
 
@@ -50,7 +49,7 @@ public final class AddSecretAuthentication extends AbstractAddSecurityRealmSubEl
             if (secretServerIdentityExists) {
                 ops.remove(secretServerIdentitiesAddress);
             }
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequiredAfterRemoving(secretServerIdentityExists);
         }
 
         ops.add(secretServerIdentitiesAddress, Values.empty()
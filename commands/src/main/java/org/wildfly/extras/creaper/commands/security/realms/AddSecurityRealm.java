@@ -12,7 +12,6 @@ import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.OperationException;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Add a new security realm.
@@ -39,8 +38,8 @@ public final class AddSecurityRealm implements OnlineCommand, OfflineCommand {
         Address securityRealmAddress = Address.coreService("management").and("security-realm", securityRealmName);
         if (replaceExisting) {
             try {
-                ops.removeIfExists(securityRealmAddress);
-                new Administration(ctx.client).reloadIfRequired();
+                boolean removed = ops.removeIfExists(securityRealmAddress);
+                ctx.reloadIfRequiredAfterRemoving(removed);
             } catch (OperationException e) {
                 throw new IOException("Failed to remove existing security realm " + securityRealmName, e);
             }
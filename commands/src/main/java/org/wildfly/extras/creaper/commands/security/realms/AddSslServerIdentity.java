@@ -8,7 +8,6 @@ import org.wildfly.extras.creaper.core.online.OnlineCommandContext;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -82,7 +81,7 @@ public class AddSslServerIdentity extends AbstractAddSecurityRealmSubElement {
             if (secretServerIdentityExists) {
                 ops.remove(sslServerIdentitiesAddress);
             }
-            new Administration(ctx.client).reloadIfRequired();
+            ctx.reloadIfRequiredAfterRemoving(secretServerIdentityExists);
         }
 
         Values params = Values.empty()
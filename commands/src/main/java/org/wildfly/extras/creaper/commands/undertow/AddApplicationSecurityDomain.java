@@ -10,7 +10,6 @@ import org.wildfly.extras.creaper.core.online.operations.Values;
 import org.wildfly.extras.creaper.core.ServerVersion;
 import org.wildfly.extras.creaper.core.offline.OfflineCommand;
 import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Command which adds application security domain to Undertow subsystem.
@@ -38,8 +37,8 @@ public final class AddApplicationSecurityDomain implements OnlineCommand, Offlin
         Operations ops = new Operations(ctx.client);
         Address address = Address.subsystem("undertow").and("application-security-domain", name);
         if (replaceExisting) {
-            ops.removeIfExists(address);
-            new Administration(ctx.client).reloadIfRequired();
+            boolean removed = ops.removeIfExists(address);
+            ctx.reloadIfRequiredAfterRemoving(removed);
         }
         Values params = Values.empty()
                 .and("http-authentication-factory", httpAuthenticationFactory)
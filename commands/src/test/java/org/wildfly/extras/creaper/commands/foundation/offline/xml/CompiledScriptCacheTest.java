@@ -0,0 +1,71 @@
+package org.wildfly.extras.creaper.commands.foundation.offline.xml;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class CompiledScriptCacheTest {
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private URL script(String name, String content) throws IOException {
+        File file = new File(tmp.getRoot(), name);
+        Files.write(content, file, Charsets.UTF_8);
+        return file.toURI().toURL();
+    }
+
+    @Test
+    public void compilesOnlyOnce() throws IOException {
+        CompiledScriptCache cache = new CompiledScriptCache(GroovyHolder.GROOVY, 10);
+        URL url = script("Script.groovy", "root.@foo = 'bar'");
+
+        Class first = cache.get(url);
+        Class second = cache.get(url);
+
+        assertSame(first, second);
+        assertEquals(1, cache.misses());
+        assertEquals(1, cache.hits());
+    }
+
+    @Test
+    public void recompilesChangedScript() throws IOException {
+        CompiledScriptCache cache = new CompiledScriptCache(GroovyHolder.GROOVY, 10);
+
+        Class first = cache.get(script("Script.groovy", "root.@foo = 'bar'"));
+        Class second = cache.get(script("Script.groovy", "root.@foo = 'baz'"));
+
+        assertNotSame(first, second);
+        assertEquals(2, cache.misses());
+        assertEquals(0, cache.hits());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws IOException {
+        CompiledScriptCache cache = new CompiledScriptCache(GroovyHolder.GROOVY, 2);
+        URL a = script("A.groovy", "root.@a = 'a'");
+        URL b = script("B.groovy", "root.@b = 'b'");
+        URL c = script("C.groovy", "root.@c = 'c'");
+
+        cache.get(a);
+        cache.get(b);
+        cache.get(a);
+        cache.get(c); // evicts b
+        assertEquals(2, cache.cachedScripts());
+        assertEquals(1, cache.evictions());
+
+        cache.get(a);
+        assertEquals(2, cache.hits());
+        cache.get(b);
+        assertEquals(4, cache.misses());
+    }
+}
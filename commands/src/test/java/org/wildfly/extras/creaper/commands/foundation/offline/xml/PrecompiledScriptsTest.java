@@ -0,0 +1,50 @@
+package org.wildfly.extras.creaper.commands.foundation.offline.xml;
+
+import groovy.lang.Script;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PrecompiledScriptsTest {
+    private static final String NAME = "org/foo/ChangeFoo.groovy";
+    // XmlUtil comes from the implicit groovy.xml import
+    private static final byte[] CONTENT = "XmlUtil.serialize('<foo/>').contains('foo') ? answer : -1"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void classNameDependsOnNameAndContent() {
+        String className = PrecompiledScripts.className(NAME, CONTENT);
+        assertTrue(className, className.startsWith("org.foo.ChangeFoo_groovy_"));
+        assertNotEquals(className, PrecompiledScripts.className("org/foo/ChangeBar.groovy", CONTENT));
+        assertNotEquals(className, PrecompiledScripts.className(NAME, "changed".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(PrecompiledScripts.className("org/foo/change-foo", CONTENT).startsWith("org.foo.change_foo_"));
+    }
+
+    @Test
+    public void precompiledScriptIsFoundOnlyWithSameContent() throws Exception {
+        PrecompiledScripts.precompile(NAME, CONTENT, tmp.getRoot());
+
+        ClassLoader classLoader = new URLClassLoader(new URL[]{tmp.getRoot().toURI().toURL()},
+                getClass().getClassLoader());
+        Class<?> scriptClass = PrecompiledScripts.find(NAME, CONTENT, classLoader);
+        assertNotNull(scriptClass);
+        assertNull(PrecompiledScripts.find(NAME, "answer".getBytes(StandardCharsets.UTF_8), classLoader));
+
+        Script script = (Script) scriptClass.getDeclaredConstructor().newInstance();
+        script.setProperty("answer", 42);
+        assertEquals(42, script.run());
+    }
+}
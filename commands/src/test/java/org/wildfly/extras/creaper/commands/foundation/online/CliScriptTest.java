@@ -0,0 +1,221 @@
+package org.wildfly.extras.creaper.commands.foundation.online;
+
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.ManagementClient;
+import org.wildfly.extras.creaper.core.online.Constants;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+import org.wildfly.extras.creaper.core.online.OnlineOptions;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CliScriptTest {
+    private static final ModelNode HANDSHAKE = ModelNode.fromString("{\"outcome\" => \"success\", \"result\" => {"
+            + "\"step-1\" => {\"outcome\" => \"success\", \"result\" => 4},"
+            + "\"step-2\" => {\"outcome\" => \"success\", \"result\" => 1},"
+            + "\"step-3\" => {\"outcome\" => \"success\", \"result\" => 0},"
+            + "\"step-4\" => {\"outcome\" => \"success\", \"result\" => [\"extension\", \"subsystem\"]}"
+            + "}}");
+
+    /** Operations on {@code subsystem=foo} and composites, in the order they were sent to the server. */
+    private final List<String> executed = new ArrayList<String>();
+    private OnlineManagementClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        Answer<ModelNode> server = new Answer<ModelNode>() {
+            @Override
+            public ModelNode answer(InvocationOnMock invocation) {
+                Object argument = invocation.getArgument(0);
+                ModelNode operation = argument instanceof Operation
+                        ? ((Operation) argument).getOperation() : (ModelNode) argument;
+                return respond(operation);
+            }
+        };
+
+        ModelControllerClient controllerClient = mock(ModelControllerClient.class);
+        when(controllerClient.execute(any(ModelNode.class))).thenAnswer(server);
+        when(controllerClient.execute(any(Operation.class))).thenAnswer(server);
+        when(controllerClient.execute(any(ModelNode.class), any(OperationMessageHandler.class))).thenAnswer(server);
+        when(controllerClient.execute(any(Operation.class), any(OperationMessageHandler.class))).thenAnswer(server);
+        client = ManagementClient.online(OnlineOptions.standalone().wrap(controllerClient));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        client.close();
+    }
+
+    /** Everything succeeds, except of operations on {@code subsystem=broken}. */
+    private ModelNode respond(ModelNode operation) {
+        String name = operation.get(Constants.OP).asString();
+        if (Constants.COMPOSITE.equals(name)) {
+            List<ModelNode> steps = operation.get(Constants.STEPS).asList();
+            if (Constants.READ_CHILDREN_TYPES.equals(steps.get(steps.size() - 1).get(Constants.OP).asString())) {
+                return HANDSHAKE.clone();
+            }
+
+            executed.add("composite of " + steps.size());
+            ModelNode response = new ModelNode();
+            response.get(Constants.OUTCOME).set(Constants.SUCCESS);
+            for (int i = 0; i < steps.size(); i++) {
+                ModelNode stepResponse = respond(steps.get(i));
+                response.get(Constants.RESULT, "step-" + (i + 1)).set(stepResponse);
+                if (stepResponse.get(Constants.OUTCOME).asString().equals(Constants.FAILED)) {
+                    response.get(Constants.OUTCOME).set(Constants.FAILED);
+                    response.get(Constants.FAILURE_DESCRIPTION).set("WFLYCTL0062: Composite operation failed");
+                    response.get("rolled-back").set(true);
+                }
+            }
+            return response;
+        }
+
+        String address = operation.get(Constants.OP_ADDR).asString();
+        if (address.contains("broken")) {
+            executed.add(name + " " + address);
+            ModelNode response = new ModelNode();
+            response.get(Constants.OUTCOME).set(Constants.FAILED);
+            response.get(Constants.FAILURE_DESCRIPTION).set("boom");
+            return response;
+        }
+        if (address.contains("foo")) {
+            executed.add(name + " " + address);
+        }
+        ModelNode response = new ModelNode();
+        response.get(Constants.OUTCOME).set(Constants.SUCCESS);
+        return response;
+    }
+
+    private static String script(String... lines) {
+        StringBuilder result = new StringBuilder();
+        for (String line : lines) {
+            result.append(line).append("\n");
+        }
+        return result.toString();
+    }
+
+    private static String add(String bar) {
+        return "add [(\"subsystem\" => \"foo\"),(\"bar\" => \"" + bar + "\")]";
+    }
+
+    @Test
+    public void operationsAreSentInComposites() throws Exception {
+        client.apply(new CliScript(script(
+                "/subsystem=foo/bar=1:add",
+                "/subsystem=foo/bar=2:add",
+                "/subsystem=foo/bar=3:add",
+                "/subsystem=foo/bar=4:add",
+                "/subsystem=foo/bar=5:add"
+        )).batched(2));
+
+        assertEquals(Arrays.asList(
+                "composite of 2", add("1"), add("2"),
+                "composite of 2", add("3"), add("4"),
+                add("5")
+        ), executed);
+    }
+
+    @Test
+    public void pendingOperationsAreSentBeforeCliCommandsAndBlocks() throws Exception {
+        client.apply(new CliScript(script(
+                "/subsystem=foo/bar=1:add",
+                "/subsystem=foo/bar=2:add",
+                "echo hello",
+                "/subsystem=foo/bar=3:add",
+                "if (outcome == success) of /subsystem=foo:read-resource",
+                "    /subsystem=foo/bar=4:add",
+                "end-if",
+                "/subsystem=foo/bar=5:add",
+                "/subsystem=foo/bar=6:add"
+        )).batched(10));
+
+        assertEquals(Arrays.asList(
+                "composite of 2", add("1"), add("2"),
+                add("3"),
+                "read-resource [(\"subsystem\" => \"foo\")]",
+                add("4"),
+                "composite of 2", add("5"), add("6")
+        ), executed);
+    }
+
+    @Test
+    public void failureIsReportedForScriptLine() throws Exception {
+        try {
+            client.apply(new CliScript(script(
+                    "# comment",
+                    "/subsystem=foo/bar=1:add",
+                    "",
+                    "/subsystem=broken:add",
+                    "/subsystem=foo/bar=2:add",
+                    "/subsystem=foo/bar=3:add"
+            )).batched(3));
+            fail("CommandFailedException expected");
+        } catch (CommandFailedException e) {
+            String message = failureMessage(e);
+            assertTrue(message, message.contains("Line 4 of the script failed: /subsystem=broken:add: boom"));
+            assertTrue(message, message.contains("the other 2 operations of the batch were rolled back"));
+        }
+
+        // the last line wasn't sent after the failed batch
+        assertFalse(executed.contains(add("3")));
+    }
+
+    private static String failureMessage(Throwable e) {
+        StringBuilder result = new StringBuilder();
+        while (e != null) {
+            result.append(e.getMessage()).append("\n");
+            e = e.getCause();
+        }
+        return result.toString();
+    }
+
+    @Test
+    public void operationsAreRecognized() {
+        assertTrue(CliScript.isOperation("/subsystem=logging/logger=foo:add(level=INFO)"));
+        assertTrue(CliScript.isOperation(":read-resource"));
+        assertTrue(CliScript.isOperation("./logger=foo:remove"));
+        assertFalse(CliScript.isOperation("cd /subsystem=logging"));
+        assertFalse(CliScript.isOperation("module add --name=foo --resources=foo.jar"));
+        assertFalse(CliScript.isOperation("deploy foo.war"));
+    }
+
+    @Test
+    public void blocksAreTracked() {
+        assertEquals(1, CliScript.blockDepthChange("if (outcome != success) of /subsystem=foo:read-resource"));
+        assertEquals(1, CliScript.blockDepthChange("try"));
+        assertEquals(1, CliScript.blockDepthChange("for name in :read-children-names(child-type=subsystem)"));
+        assertEquals(1, CliScript.blockDepthChange("batch"));
+        assertEquals(0, CliScript.blockDepthChange("else"));
+        assertEquals(0, CliScript.blockDepthChange("catch"));
+        assertEquals(0, CliScript.blockDepthChange("ifconfig"));
+        assertEquals(-1, CliScript.blockDepthChange("end-if"));
+        assertEquals(-1, CliScript.blockDepthChange("end-try"));
+        assertEquals(-1, CliScript.blockDepthChange("done"));
+        assertEquals(-1, CliScript.blockDepthChange("run-batch"));
+        assertEquals(-1, CliScript.blockDepthChange("discard-batch"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void batchSizeMustBePositive() {
+        new CliScript(":read-resource").batched(0);
+    }
+}
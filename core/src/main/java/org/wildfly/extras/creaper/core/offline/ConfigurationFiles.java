@@ -0,0 +1,103 @@
+package org.wildfly.extras.creaper.core.offline;
+
+import org.jboss.logging.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+
+/**
+ * Writes configuration files so that a crash never leaves a partially written file behind. The new content is written
+ * to a temporary file in the same directory, which is then atomically renamed over the original file. Optionally,
+ * the data is {@code fsync}'d before the rename and the directory after it.
+ */
+final class ConfigurationFiles {
+    private static final Logger log = Logger.getLogger(ConfigurationFiles.class);
+
+    private ConfigurationFiles() {
+        // avoid instantiation
+    }
+
+    static void replace(Path file, InMemoryConfiguration content, boolean fsync) throws IOException {
+        Path target = file.toAbsolutePath();
+        Path directory = target.getParent();
+        if (directory == null) {
+            throw new IOException("Not a file: " + target);
+        }
+        Path temp = Files.createTempFile(directory, "." + target.toFile().getName(), ".tmp");
+        try {
+            copyPermissions(target, temp);
+
+            FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+            try {
+                // closing the output must not close the channel, it's still needed for fsync
+                OutputStream output = new BufferedOutputStream(
+                        new NonClosingOutputStream(Channels.newOutputStream(channel)));
+                content.writeTo(output);
+                output.flush();
+                if (fsync) {
+                    channel.force(true);
+                }
+            } finally {
+                channel.close();
+            }
+
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            if (fsync) {
+                fsyncDirectory(directory);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void copyPermissions(Path from, Path to) throws IOException {
+        if (Files.exists(from) && Files.getFileAttributeView(from, PosixFileAttributeView.class) != null) {
+            Files.setPosixFilePermissions(to, Files.getPosixFilePermissions(from));
+        }
+    }
+
+    private static void fsyncDirectory(Path directory) {
+        try {
+            FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ);
+            try {
+                channel.force(true);
+            } finally {
+                channel.close();
+            }
+        } catch (IOException e) {
+            // not possible on some platforms (e.g. Windows); the file itself was fsync'd, which is what matters most
+            log.debugf(e, "Couldn't fsync directory %s", directory);
+        }
+    }
+
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.wildfly.extras.creaper.core.offline;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A parsed and possibly modified copy of the configuration file that is shared by all commands applied
+ * in a single {@link OfflineManagementClient#apply(Iterable) apply} call, if the client was created with
+ * {@link OfflineOptions.OptionalOfflineOptions#inMemorySession() inMemorySession}. The client takes care of writing
+ * it to the configuration file when all the commands are applied, or when a command asks for it using
+ * {@link OfflineCommandContext#syncConfigurationFile()}. It can also be written to the configuration file
+ * directly using {@link OfflineCommandContext#writeConfigurationFile(InMemoryConfiguration)}.
+ *
+ * @see OfflineCommandContext#inMemoryConfiguration()
+ */
+public interface InMemoryConfiguration {
+    /**
+     * Writes the content of the configuration file to {@code output}. The {@code output} is buffered
+     * and it doesn't have to be closed.
+     */
+    void writeTo(OutputStream output) throws IOException;
+}
@@ -3,6 +3,7 @@ package org.wildfly.extras.creaper.core.offline;
 import org.wildfly.extras.creaper.core.ServerVersion;
 
 import java.io.File;
+import java.io.IOException;
 
 public final class OfflineCommandContext {
     public final OfflineManagementClient client;
@@ -10,10 +11,53 @@ public final class OfflineCommandContext {
     public final ServerVersion version;
     public final File configurationFile; // same as client.options().configurationFile
 
-    OfflineCommandContext(OfflineManagementClient client, ServerVersion version) {
+    private final OfflineManagementClientImpl clientImpl;
+
+    OfflineCommandContext(OfflineManagementClientImpl client, ServerVersion version) {
         this.client = client;
         this.options = client.options();
         this.version = version;
         this.configurationFile = client.options().configurationFile;
+        this.clientImpl = client;
+    }
+
+    /**
+     * Returns the {@link InMemoryConfiguration} left by previous commands of the current {@code apply} call,
+     * or {@code null} if there's none (the configuration file is up to date). Always returns {@code null}
+     * if {@link OfflineOptions#inMemorySession} is disabled.
+     */
+    public InMemoryConfiguration inMemoryConfiguration() {
+        return clientImpl.inMemoryConfiguration;
+    }
+
+    /**
+     * Replaces the {@link InMemoryConfiguration} that will be written to the configuration file at the end of
+     * the current {@code apply} call. Only possible if {@link OfflineOptions#inMemorySession} is enabled.
+     */
+    public void inMemoryConfiguration(InMemoryConfiguration configuration) {
+        if (!options.inMemorySession) {
+            throw new IllegalStateException("In-memory session is not enabled");
+        }
+        clientImpl.inMemoryConfiguration = configuration;
+    }
+
+    /**
+     * If there is an {@link InMemoryConfiguration}, writes it to the configuration file and forgets it. Commands
+     * that read or write the {@link #configurationFile} directly must call this first. Does nothing if
+     * {@link OfflineOptions#inMemorySession} is disabled.
+     */
+    public void syncConfigurationFile() throws IOException {
+        clientImpl.syncConfigurationFile();
+    }
+
+    /**
+     * Replaces the configuration file with {@code content}. The content is written to a temporary file which is then
+     * atomically renamed over the configuration file, so the configuration file is never left partially written
+     * (see also {@link OfflineOptions.OptionalOfflineOptions#durableWrites() durableWrites}). Any
+     * {@link #inMemoryConfiguration() InMemoryConfiguration} is forgotten, as the content is supposed to supersede it.
+     */
+    public void writeConfigurationFile(InMemoryConfiguration content) throws IOException {
+        clientImpl.inMemoryConfiguration = null;
+        ConfigurationFiles.replace(configurationFile.toPath(), content, options.durableWrites);
     }
 }
@@ -14,6 +14,10 @@ final class OfflineManagementClientImpl implements OfflineManagementClient {
     private final OfflineOptions options;
     private final ServerVersion version;
 
+    // the in-memory session spans a top-level apply call, including all nested apply calls
+    private int applyDepth;
+    InMemoryConfiguration inMemoryConfiguration;
+
     OfflineManagementClientImpl(OfflineOptions options) throws IOException {
         File configurationFile = options.configurationFile;
         if (!configurationFile.exists()) {
@@ -41,17 +45,35 @@ final class OfflineManagementClientImpl implements OfflineManagementClient {
 
     @Override
     public void apply(Iterable<OfflineCommand> commands) throws CommandFailedException {
+        applyDepth++;
         try {
             OfflineCommandContext ctx = new OfflineCommandContext(this, version);
             for (OfflineCommand command : commands) {
                 log.infof("Applying command %s", command);
                 command.apply(ctx);
             }
+            if (applyDepth == 1) {
+                syncConfigurationFile();
+            }
         } catch (Exception e) {
+            if (applyDepth == 1 && inMemoryConfiguration != null) {
+                log.warnf("Changes kept in memory were not written to %s", options.configurationFile);
+                inMemoryConfiguration = null;
+            }
             if (e instanceof CommandFailedException) {
                 throw (CommandFailedException) e;
             }
             throw new CommandFailedException(e);
+        } finally {
+            applyDepth--;
+        }
+    }
+
+    void syncConfigurationFile() throws IOException {
+        if (inMemoryConfiguration != null) {
+            InMemoryConfiguration configuration = inMemoryConfiguration;
+            inMemoryConfiguration = null;
+            ConfigurationFiles.replace(options.configurationFile.toPath(), configuration, options.durableWrites);
         }
     }
 }
@@ -20,6 +20,9 @@ public final class OfflineOptions {
     private final File configurationDirectory; // can be null if configurationFile is specified directly
     public final File configurationFile;
 
+    public final boolean inMemorySession;
+    public final boolean durableWrites;
+
     private OfflineOptions(Data data) {
         this.isStandalone = data.isStandalone;
 
@@ -28,6 +31,9 @@ public final class OfflineOptions {
 
         this.configurationDirectory = data.configurationDirectory;
         this.configurationFile = data.configurationFile;
+
+        this.inMemorySession = data.inMemorySession;
+        this.durableWrites = data.durableWrites;
     }
 
     /**
@@ -56,6 +62,9 @@ public final class OfflineOptions {
 
         private File configurationDirectory;
         private File configurationFile;
+
+        private boolean inMemorySession;
+        private boolean durableWrites;
     }
 
     /** Connect to a standalone server. */
@@ -188,6 +197,33 @@ public final class OfflineOptions {
             this.data = data;
         }
 
+        /**
+         * <p>All commands passed to a single {@link OfflineManagementClient#apply(Iterable) apply} call will share
+         * one parsed copy of the configuration file (see {@link InMemoryConfiguration}), which is written back
+         * to the file only once, when all the commands are applied. This saves parsing and writing the file
+         * for each command separately, which is costly when applying a lot of commands.</p>
+         *
+         * <p>Note that in this mode, if a command fails, changes made by all previous commands of the same
+         * {@code apply} call are lost, unless one of the commands wrote them to the file explicitly.
+         * Commands that read or write the configuration file directly must call
+         * {@link OfflineCommandContext#syncConfigurationFile()} first.</p>
+         */
+        public OptionalOfflineOptions inMemorySession() {
+            data.inMemorySession = true;
+            return this;
+        }
+
+        /**
+         * The configuration file is always written to a temporary file first, which is then atomically renamed over
+         * the original file, so that a crash never leaves a partially written configuration file behind. With this
+         * option, the temporary file is also {@code fsync}'d before the rename (and the directory after it),
+         * so that the new content survives a power loss or an OS crash. This makes each write slower.
+         */
+        public OptionalOfflineOptions durableWrites() {
+            data.durableWrites = true;
+            return this;
+        }
+
         /** Build the final {@code OfflineOptions}. */
         public OfflineOptions build() {
             return new OfflineOptions(data);
@@ -0,0 +1,256 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.as.controller.client.Operation;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.ServerVersion;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Records write operations performed by commands and sends them to the server later, as a single {@code composite}
+ * operation. Any other interaction with the server first sends the recorded operations, so that commands always see
+ * the effects of previous operations. Used when {@link OnlineOptions.OptionalOnlineOptions#autoBatching()
+ * autoBatching} is enabled, on top of {@link AutomaticErrorHandlingForCommands}.
+ */
+final class AutoBatchingForCommands implements OnlineManagementClient {
+    private static final Logger log = Logger.getLogger(OnlineManagementClient.class);
+
+    private static final Set<String> BATCHABLE_OPERATIONS = new HashSet<String>(Arrays.asList(
+            Constants.ADD,
+            Constants.REMOVE_OPERATION,
+            Constants.WRITE_ATTRIBUTE_OPERATION,
+            Constants.UNDEFINE_ATTRIBUTE_OPERATION,
+            "map-put", "map-remove", "map-clear",
+            "list-add", "list-remove", "list-clear"
+    ));
+
+    private final OnlineManagementClient delegate;
+    private final List<RecordedOperation> recorded = new ArrayList<RecordedOperation>();
+
+    private OnlineCommand currentCommand;
+    private int failuresAllowedDepth;
+
+    AutoBatchingForCommands(OnlineManagementClient delegate) {
+        this.delegate = delegate;
+    }
+
+    void currentCommand(OnlineCommand command) {
+        this.currentCommand = command;
+    }
+
+    private boolean isBatchable(ModelNode operation) {
+        return failuresAllowedDepth == 0
+                && currentCommand != null
+                && operation.hasDefined(Constants.OP)
+                && BATCHABLE_OPERATIONS.contains(operation.get(Constants.OP).asString())
+                && !operation.has(Constants.OPERATION_HEADERS);
+    }
+
+    /**
+     * Sends all recorded operations to the server. If one of them fails, throws {@link RuntimeCommandFailedException}
+     * with a message that identifies the command that recorded the failed operation.
+     */
+    void flush() throws IOException {
+        if (recorded.isEmpty()) {
+            return;
+        }
+
+        List<RecordedOperation> operations = new ArrayList<RecordedOperation>(recorded);
+        recorded.clear();
+
+        ModelNode operation;
+        if (operations.size() == 1) {
+            operation = operations.get(0).operation;
+        } else {
+            // same as Batch.toModelNode
+            operation = new ModelNode();
+            operation.get(Constants.OP).set(Constants.COMPOSITE);
+            operation.get(Constants.OP_ADDR).setEmptyList();
+            ModelNode steps = operation.get(Constants.STEPS);
+            steps.setEmptyList();
+            for (RecordedOperation recordedOperation : operations) {
+                steps.add(recordedOperation.operation);
+            }
+            log.debugf("Sending %d batched operations", operations.size());
+        }
+
+        ModelNodeResult result;
+        FailuresAllowedBlock allowFailures = delegate.allowFailures();
+        try {
+            result = delegate.execute(operation);
+        } finally {
+            allowFailures.close();
+        }
+
+        if (result.isFailed()) {
+            throw new RuntimeCommandFailedException(new CommandFailedException(failureMessage(operations, result)));
+        }
+    }
+
+    private void flushUnchecked() {
+        try {
+            flush();
+        } catch (IOException e) {
+            throw new RuntimeCommandFailedException(new CommandFailedException(e));
+        }
+    }
+
+    /** Sends all recorded operations after a command failed; a failure is only logged, not to hide the original. */
+    void flushAfterFailure() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warnf("Sending operations recorded before the failure failed too: %s",
+                    e instanceof RuntimeCommandFailedException
+                            ? ((RuntimeCommandFailedException) e).original.getMessage() : e.getMessage());
+        }
+    }
+
+    private static String failureMessage(List<RecordedOperation> operations, ModelNodeResult result) {
+        if (operations.size() == 1) {
+            RecordedOperation operation = operations.get(0);
+            return "Operation " + operation.operation.asString() + " of command " + operation.command
+                    + " failed: " + result.asString();
+        }
+
+        if (result.hasDefinedValue()) {
+            int index = 0;
+            for (ModelNodeResult stepResult : result.forAllBatchSteps()) {
+                if (index >= operations.size()) {
+                    break;
+                }
+                // steps that were only rolled back are also reported as failed, but without a failure description
+                if (stepResult.isFailed() && stepResult.hasDefined(Constants.FAILURE_DESCRIPTION)) {
+                    RecordedOperation operation = operations.get(index);
+                    return "Operation " + operation.operation.asString() + " of command " + operation.command
+                            + " failed: " + stepResult.asString() + "; all " + operations.size()
+                            + " operations sent together with it were rolled back";
+                }
+                index++;
+            }
+        }
+
+        return "Batch of " + operations.size() + " operations failed: " + result.asString();
+    }
+
+    @Override
+    public OnlineOptions options() {
+        return delegate.options();
+    }
+
+    @Override
+    public ServerVersion version() throws IOException {
+        return delegate.version();
+    }
+
+    @Override
+    public void apply(OnlineCommand... commands) throws CommandFailedException {
+        apply(Arrays.asList(commands));
+    }
+
+    @Override
+    public void apply(Iterable<OnlineCommand> commands) throws CommandFailedException {
+        try {
+            flush();
+        } catch (RuntimeCommandFailedException e) {
+            throw e.original;
+        } catch (IOException e) {
+            throw new CommandFailedException(e);
+        }
+        delegate.apply(commands);
+    }
+
+    @Override
+    public ModelNodeResult execute(ModelNode operation) throws IOException {
+        if (isBatchable(operation)) {
+            if (log.isDebugEnabled()) {
+                log.debugf("Recording operation %s", ModelNodeOperationToCliString.convert(operation));
+            }
+            recorded.add(new RecordedOperation(operation.clone(), currentCommand));
+            ModelNode response = new ModelNode();
+            response.get(Constants.OUTCOME).set(Constants.SUCCESS);
+            response.get(Constants.RESULT); // undefined
+            return new ModelNodeResult(response);
+        }
+
+        flush();
+        return delegate.execute(operation);
+    }
+
+    @Override
+    public ModelNodeResult execute(Operation operation) throws IOException {
+        flush();
+        return delegate.execute(operation);
+    }
+
+    @Override
+    public ModelNodeResult execute(String operation) throws CliException, IOException {
+        flush();
+        return delegate.execute(operation);
+    }
+
+    @Override
+    public CompletableFuture<ModelNodeResult> executeAsync(ModelNode operation) {
+        flushUnchecked();
+        return delegate.executeAsync(operation);
+    }
+
+    @Override
+    public CompletableFuture<ModelNodeResult> executeAsync(Operation operation) {
+        flushUnchecked();
+        return delegate.executeAsync(operation);
+    }
+
+    @Override
+    public void executeCli(String cliOperation) throws CliException, IOException {
+        flush();
+        delegate.executeCli(cliOperation);
+    }
+
+    @Override
+    public void reconnect(int timeoutInSeconds) throws TimeoutException, InterruptedException {
+        flushUnchecked();
+        delegate.reconnect(timeoutInSeconds);
+    }
+
+    @Override
+    public FailuresAllowedBlock allowFailures() throws IOException {
+        flush();
+
+        final FailuresAllowedBlock delegateBlock = delegate.allowFailures();
+        failuresAllowedDepth++;
+
+        return new FailuresAllowedBlock() {
+            @Override
+            public void close() throws IOException {
+                failuresAllowedDepth--;
+                delegateBlock.close();
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        delegate.close();
+    }
+
+    private static final class RecordedOperation {
+        final ModelNode operation;
+        final OnlineCommand command;
+
+        RecordedOperation(ModelNode operation, OnlineCommand command) {
+            this.operation = operation;
+            this.command = command;
+        }
+    }
+}
@@ -6,7 +6,10 @@ import org.wildfly.extras.creaper.core.CommandFailedException;
 import org.wildfly.extras.creaper.core.ServerVersion;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
 
 final class AutomaticErrorHandlingForCommands implements OnlineManagementClient {
     private final OnlineManagementClient delegate;
@@ -101,6 +104,59 @@ final class AutomaticErrorHandlingForCommands implements OnlineManagementClient
         }
     }
 
+    @Override
+    public CompletableFuture<ModelNodeResult> executeAsync(final ModelNode operation) {
+        try {
+            return handleAsyncFailures(delegate.executeAsync(operation), operation);
+        } catch (RuntimeCommandFailedException e) {
+            throw e;
+        } catch (Exception e) {
+            commandFailedWithCause(e);
+            return null; // dead code
+        }
+    }
+
+    @Override
+    public CompletableFuture<ModelNodeResult> executeAsync(final Operation operation) {
+        try {
+            return handleAsyncFailures(delegate.executeAsync(operation), operation.getOperation());
+        } catch (RuntimeCommandFailedException e) {
+            throw e;
+        } catch (Exception e) {
+            commandFailedWithCause(e);
+            return null; // dead code
+        }
+    }
+
+    /**
+     * The returned future completes exceptionally with a {@link RuntimeCommandFailedException} if the operation
+     * fails, unless the operation was submitted inside a failures-allowed block (the block can already be closed
+     * when the result arrives, so its state is captured at submission time).
+     */
+    private CompletableFuture<ModelNodeResult> handleAsyncFailures(CompletableFuture<ModelNodeResult> future,
+                                                                   final ModelNode operation) {
+        final boolean throwExceptionsOnOperationFailures = this.throwExceptionsOnOperationFailures;
+
+        return future.handle(new BiFunction<ModelNodeResult, Throwable, ModelNodeResult>() {
+            @Override
+            public ModelNodeResult apply(ModelNodeResult result, Throwable failure) {
+                if (failure != null) {
+                    if (failure instanceof CompletionException && failure.getCause() != null) {
+                        failure = failure.getCause();
+                    }
+                    if (failure instanceof RuntimeCommandFailedException) {
+                        throw (RuntimeCommandFailedException) failure;
+                    }
+                    commandFailedWithCause(failure);
+                }
+                if (result.isFailed() && throwExceptionsOnOperationFailures) {
+                    commandFailedWithMessage("Operation " + operation.asString() + " failed: " + result.asString());
+                }
+                return result;
+            }
+        });
+    }
+
     @Override
     public void executeCli(String cliOperation) {
         try {
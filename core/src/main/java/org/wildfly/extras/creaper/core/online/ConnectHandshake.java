@@ -0,0 +1,134 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.dmr.ModelNode;
+import org.wildfly.extras.creaper.core.ManagementVersionPart;
+import org.wildfly.extras.creaper.core.ServerVersion;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * <p>The first operation performed after connecting. It's a single composite operation that reads the management
+ * version and the types of children of the root resource (to find out if the server is standalone or domain).
+ * While the server is booting, the composite is repeated until it succeeds, so it also serves for waiting until
+ * the server boots. Connecting therefore takes a single round trip if the server is already running.</p>
+ *
+ * <p>Old servers (AS 7.0 and 7.1) don't have all the management version attributes, so the composite fails there.
+ * In such case, the version is discovered using {@link OnlineServerVersion} and the children types are read
+ * separately.</p>
+ */
+final class ConnectHandshake {
+    private static final long RETRY_DELAY_IN_MILLIS = 100;
+
+    final ServerVersion version;
+    final List<String> rootChildrenTypes;
+
+    private ConnectHandshake(ServerVersion version, List<String> rootChildrenTypes) {
+        this.version = version;
+        this.rootChildrenTypes = rootChildrenTypes;
+    }
+
+    /** Performs the handshake once, without waiting for the server to boot. Used for wrapped clients. */
+    static ConnectHandshake perform(ModelControllerClient client) throws IOException {
+        ModelNodeResult result = new ModelNodeResult(client.execute(operation()));
+        if (result.isSuccess()) {
+            return from(result);
+        }
+        return performSeparately(client);
+    }
+
+    /**
+     * Performs the handshake, waiting at most {@code connectionTimeoutInMillis} for the server to accept
+     * the connection and then at most {@code bootTimeoutInMillis} for the server to boot.
+     */
+    static ConnectHandshake performAndWaitUntilServerBoots(ModelControllerClient client,
+                                                           int connectionTimeoutInMillis, int bootTimeoutInMillis)
+            throws IOException, InterruptedException, TimeoutException {
+        ModelNode op = operation();
+
+        ModelNodeResult result = null;
+        long endTime = System.currentTimeMillis() + connectionTimeoutInMillis;
+        while (System.currentTimeMillis() < endTime) {
+            try {
+                result = new ModelNodeResult(client.execute(op));
+                break;
+            } catch (IOException e) {
+                // server is probably not up yet, keep waiting
+                Thread.sleep(RETRY_DELAY_IN_MILLIS);
+            }
+        }
+
+        endTime = System.currentTimeMillis() + bootTimeoutInMillis;
+        while (true) {
+            if (result == null) {
+                result = new ModelNodeResult(client.execute(op));
+            }
+
+            if (result.isSuccess()) {
+                return from(result);
+            }
+
+            if (!isStillBooting(result)) {
+                // the server is running, but it's too old to understand the handshake
+                return performSeparately(client);
+            }
+
+            if (System.currentTimeMillis() >= endTime) {
+                throw new TimeoutException("Waiting for server to boot timed out");
+            }
+
+            Thread.sleep(RETRY_DELAY_IN_MILLIS);
+            result = null;
+        }
+    }
+
+    private static ModelNode operation() {
+        ModelNode op = new ModelNode();
+        op.get(Constants.OP).set(Constants.COMPOSITE);
+        op.get(Constants.OP_ADDR).setEmptyList();
+        ModelNode steps = op.get(Constants.STEPS);
+        for (ManagementVersionPart part : ManagementVersionPart.values()) {
+            ModelNode step = steps.add();
+            step.get(Constants.OP).set(Constants.READ_ATTRIBUTE_OPERATION);
+            step.get(Constants.OP_ADDR).setEmptyList();
+            step.get(Constants.NAME).set(part.attributeName());
+        }
+        ModelNode step = steps.add();
+        step.get(Constants.OP).set(Constants.READ_CHILDREN_TYPES);
+        step.get(Constants.OP_ADDR).setEmptyList();
+        return op;
+    }
+
+    private static ConnectHandshake from(ModelNodeResult result) {
+        ServerVersion version = ServerVersion.from(
+                result.forBatchStep(1).intValue(0),
+                result.forBatchStep(2).intValue(0),
+                result.forBatchStep(3).intValue(0)
+        );
+        return new ConnectHandshake(version, result.forBatchStep(4).stringListValue());
+    }
+
+    private static ConnectHandshake performSeparately(ModelControllerClient client) throws IOException {
+        ServerVersion version = OnlineServerVersion.discover(client);
+
+        ModelNode op = new ModelNode();
+        op.get(Constants.OP).set(Constants.READ_CHILDREN_TYPES);
+        op.get(Constants.OP_ADDR).setEmptyList();
+        ModelNodeResult result = new ModelNodeResult(client.execute(op));
+        result.assertSuccess();
+
+        return new ConnectHandshake(version, result.stringListValue());
+    }
+
+    private static boolean isStillBooting(ModelNodeResult result) {
+        String failureDescription = result.get(Constants.FAILURE_DESCRIPTION).asString();
+        for (String code : Constants.RESULT_CODES_FOR_BOOT_IN_PROGRESS) {
+            if (failureDescription.startsWith(code)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
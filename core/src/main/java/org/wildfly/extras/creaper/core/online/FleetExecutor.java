@@ -0,0 +1,254 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.logging.Logger;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.ManagementClient;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Applies the same commands to many servers in parallel. For each server, a new
+ * {@link OnlineManagementClient} is {@link ManagementClient#online(OnlineOptions) created}, the commands are
+ * {@link OnlineManagementClient#apply(Iterable) applied} and the client is closed. At most {@code parallelism}
+ * servers are processed at the same time.</p>
+ *
+ * <pre>
+ * FleetExecutor fleet = new FleetExecutor(20, FleetExecutor.FailurePolicy.FAIL_FAST);
+ * fleet.apply(servers, new AddJdbcDriver(...), new AddDataSource(...)).assertSuccess();
+ * </pre>
+ *
+ * <p>Failures don't throw immediately; they are collected into a {@link Report} that also contains the time spent
+ * on each server. Note that the same command instances are applied to all servers concurrently, so the commands
+ * must be stateless or thread-safe.</p>
+ */
+public final class FleetExecutor {
+    private static final Logger log = Logger.getLogger(FleetExecutor.class);
+
+    public enum FailurePolicy {
+        /**
+         * After the first failure, no more servers are started. Servers that are already being processed are
+         * finished (interrupting a command in the middle would leave the server in an unknown state), all other
+         * servers are {@link ServerResult.Outcome#SKIPPED skipped}.
+         */
+        FAIL_FAST,
+        /** Failures are recorded and all servers are processed regardless. */
+        BEST_EFFORT
+    }
+
+    private final int parallelism;
+    private final FailurePolicy failurePolicy;
+
+    public FleetExecutor(int parallelism, FailurePolicy failurePolicy) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        if (failurePolicy == null) {
+            throw new IllegalArgumentException("Failure policy must be set");
+        }
+
+        this.parallelism = parallelism;
+        this.failurePolicy = failurePolicy;
+    }
+
+    public Report apply(List<OnlineOptions> servers, OnlineCommand... commands) throws InterruptedException {
+        return apply(servers, Arrays.asList(commands));
+    }
+
+    /**
+     * Applies the {@code commands} to all the {@code servers} and waits until it's done. If the calling thread
+     * is interrupted, servers that are still being processed are interrupted too.
+     */
+    public Report apply(List<OnlineOptions> servers, final Iterable<OnlineCommand> commands)
+            throws InterruptedException {
+        long start = System.nanoTime();
+
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, servers.size())),
+                new FleetThreadFactory());
+        try {
+            List<Future<ServerResult>> futures = new ArrayList<Future<ServerResult>>(servers.size());
+            for (final OnlineOptions server : servers) {
+                futures.add(executor.submit(new Callable<ServerResult>() {
+                    @Override
+                    public ServerResult call() {
+                        if (failurePolicy == FailurePolicy.FAIL_FAST && failed.get()) {
+                            return new ServerResult(server, ServerResult.Outcome.SKIPPED, 0, null);
+                        }
+
+                        ServerResult result = applyToServer(server, commands);
+                        if (result.outcome == ServerResult.Outcome.FAILED) {
+                            failed.set(true);
+                        }
+                        return result;
+                    }
+                }));
+            }
+
+            List<ServerResult> results = new ArrayList<ServerResult>(servers.size());
+            for (Future<ServerResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    // applyToServer catches all exceptions, so this can only be an Error
+                    throw (Error) e.getCause();
+                }
+            }
+
+            return new Report(results, System.nanoTime() - start);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ServerResult applyToServer(OnlineOptions server, Iterable<OnlineCommand> commands) {
+        long start = System.nanoTime();
+        try {
+            OnlineManagementClient client = ManagementClient.online(server);
+            try {
+                client.apply(commands);
+            } finally {
+                try {
+                    client.close();
+                } catch (IOException e) {
+                    log.warnf(e, "Closing client for %s failed", describe(server));
+                }
+            }
+            return new ServerResult(server, ServerResult.Outcome.SUCCESS, System.nanoTime() - start, null);
+        } catch (Exception e) {
+            log.debugf(e, "Applying commands to %s failed", describe(server));
+            return new ServerResult(server, ServerResult.Outcome.FAILED, System.nanoTime() - start, e);
+        }
+    }
+
+    private static String describe(OnlineOptions server) {
+        return server.isWrappedClient ? "wrapped client" : server.host + ":" + server.port;
+    }
+
+    private static final class FleetThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "creaper-fleet-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /** Result of applying the commands to a single server. */
+    public static final class ServerResult {
+        public enum Outcome { SUCCESS, FAILED, SKIPPED }
+
+        public final OnlineOptions options;
+        public final Outcome outcome;
+        /** Time spent on this server, including connecting and closing the client. */
+        public final long durationNanos;
+        /**
+         * Why the server {@link Outcome#FAILED failed}; typically a {@link CommandFailedException} or
+         * an {@code IOException} when connecting to the server failed. {@code null} otherwise.
+         */
+        public final Exception failure;
+
+        ServerResult(OnlineOptions options, Outcome outcome, long durationNanos, Exception failure) {
+            this.options = options;
+            this.outcome = outcome;
+            this.durationNanos = durationNanos;
+            this.failure = failure;
+        }
+
+        @Override
+        public String toString() {
+            String result = describe(options) + ": " + outcome + " in "
+                    + TimeUnit.NANOSECONDS.toMillis(durationNanos) + " ms";
+            if (failure != null) {
+                result += " (" + failure + ")";
+            }
+            return result;
+        }
+    }
+
+    /** Aggregated results for all servers, in the same order as the servers were passed in. */
+    public static final class Report {
+        private final List<ServerResult> results;
+        public final long totalDurationNanos;
+
+        Report(List<ServerResult> results, long totalDurationNanos) {
+            this.results = Collections.unmodifiableList(results);
+            this.totalDurationNanos = totalDurationNanos;
+        }
+
+        public List<ServerResult> results() {
+            return results;
+        }
+
+        public List<ServerResult> failures() {
+            return withOutcome(ServerResult.Outcome.FAILED);
+        }
+
+        public List<ServerResult> skipped() {
+            return withOutcome(ServerResult.Outcome.SKIPPED);
+        }
+
+        private List<ServerResult> withOutcome(ServerResult.Outcome outcome) {
+            List<ServerResult> result = new ArrayList<ServerResult>();
+            for (ServerResult serverResult : results) {
+                if (serverResult.outcome == outcome) {
+                    result.add(serverResult);
+                }
+            }
+            return result;
+        }
+
+        /** Whether the commands were successfully applied to all servers. */
+        public boolean isSuccess() {
+            for (ServerResult result : results) {
+                if (result.outcome != ServerResult.Outcome.SUCCESS) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @throws CommandFailedException if the commands weren't successfully applied to all servers; the cause
+         * is the first failure and all other failures are {@link Throwable#getSuppressed() suppressed}
+         */
+        public void assertSuccess() throws CommandFailedException {
+            if (isSuccess()) {
+                return;
+            }
+
+            List<ServerResult> failures = failures();
+            CommandFailedException exception = new CommandFailedException("Applying commands failed on "
+                    + failures.size() + " of " + results.size() + " servers, " + skipped().size()
+                    + " servers skipped:\n" + this, failures.isEmpty() ? null : failures.get(0).failure);
+            for (int i = 1; i < failures.size(); i++) {
+                exception.addSuppressed(failures.get(i).failure);
+            }
+            throw exception;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder result = new StringBuilder();
+            for (ServerResult serverResult : results) {
+                result.append(serverResult).append("\n");
+            }
+            result.append("total ").append(TimeUnit.NANOSECONDS.toMillis(totalDurationNanos)).append(" ms");
+            return result.toString();
+        }
+    }
+}
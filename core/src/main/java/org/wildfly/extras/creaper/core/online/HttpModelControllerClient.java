@@ -1,6 +1,7 @@
 package org.wildfly.extras.creaper.core.online;
 
 import org.apache.http.HeaderElement;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpStatus;
 import org.apache.http.auth.AuthScope;
@@ -15,6 +16,8 @@ import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.BasicCredentialsProvider;
@@ -30,38 +33,65 @@ import org.jboss.dmr.ModelNode;
 import org.jboss.threads.AsyncFuture;
 import org.jboss.threads.AsyncFutureTask;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Controller provides execution of {@link ModelNode} or {@link Operation} over HTTP.
  * Controller does not inform about any progress, therefore, there is no point in using {@link OperationMessageHandler}.
  * If an error occurs (server does not respond 401 or header does not contain WWW-Authenticate field after
  * first request) {@code IllegalStateException is thrown} (if username and password is provided)
- * Execution on {@link Operation} is allowed with <b>no attachments</b>.
+ * Operations with attachments (such as deployment content) are sent to the {@code /management-upload} endpoint
+ * as a {@code multipart/form-data} request that is streamed using chunked transfer encoding, so attachments are
+ * never buffered in memory; the progress of the upload can be observed using an {@link UploadProgressListener}.
+ * Operations are sent as compact JSON or, if requested, in the binary {@code application/dmr-encoded} format.
+ * Responses are decoded directly from the response stream.
+ * Asynchronous execution is performed on a bounded pool of daemon threads that is created lazily; operations
+ * submitted when all threads are busy wait in a queue. Size of the pool and maximum number of HTTP connections
+ * can be configured in {@link OnlineOptions}.
  */
 final class HttpModelControllerClient implements ModelControllerClient {
     private static final int NO_TIMEOUT = 0;
+    private static final long EXECUTOR_KEEP_ALIVE_SECONDS = 60;
+
+    static final int DEFAULT_ASYNC_THREADS = 4;
+    static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 4;
+
+    static final ContentType APPLICATION_DMR_ENCODED = ContentType.create("application/dmr-encoded");
 
     private final String url;
+    private final String uploadUrl;
     private final RequestConfig requestConfig;
     private final Registry<ConnectionSocketFactory> registry;
     private final CloseableHttpClient client;
-    private final int timeout;
+    private final boolean dmrEncoded;
+    private final int asyncThreads;
+    private final UploadProgressListener uploadProgressListener; // may be null
     private ExecutorService executorService;
 
     HttpModelControllerClient(String host, int port, String username, String password, int timeoutMillis,
-                              SslOptions ssl) throws IOException {
+                              SslOptions ssl, boolean dmrEncoded, int asyncThreads, int maxConnectionsPerRoute,
+                              UploadProgressListener uploadProgressListener) throws IOException {
+        this.dmrEncoded = dmrEncoded;
+        this.asyncThreads = asyncThreads;
+        this.uploadProgressListener = uploadProgressListener;
+
         // timeout configuration
-        this.timeout = timeoutMillis;
         RequestConfig.Builder requestConfigBuilder = RequestConfig.custom();
         if (timeoutMillis != NO_TIMEOUT) {
             requestConfigBuilder
@@ -73,6 +103,7 @@ final class HttpModelControllerClient implements ModelControllerClient {
         RegistryBuilder<ConnectionSocketFactory> registryBuilder = RegistryBuilder.<ConnectionSocketFactory>create();
         if (ssl != null) {
             url = "https://" + host + ":" + port + "/management";
+            uploadUrl = "https://" + host + ":" + port + "/management-upload";
             SSLConnectionSocketFactory sslConnectionSocketFactory;
             if (ssl.hostnameVerification) {
                 sslConnectionSocketFactory = new SSLConnectionSocketFactory(ssl.createSslContext());
@@ -83,6 +114,7 @@ final class HttpModelControllerClient implements ModelControllerClient {
             registryBuilder.register("https", sslConnectionSocketFactory);
         } else {
             url = "http://" + host + ":" + port + "/management";
+            uploadUrl = "http://" + host + ":" + port + "/management-upload";
             registryBuilder.register("http", PlainConnectionSocketFactory.getSocketFactory());
         }
         registry = registryBuilder.build();
@@ -93,8 +125,13 @@ final class HttpModelControllerClient implements ModelControllerClient {
                     new AuthScope(host, port, getManagementRealm(url), AuthSchemes.DIGEST),
                     new UsernamePasswordCredentials(username, password));
         }
+        // there's only one route, so the total limit is the same as the per-route limit
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(registry);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setMaxTotal(maxConnectionsPerRoute);
+
         client = HttpClients.custom()
-                .setConnectionManager(new PoolingHttpClientConnectionManager(registry))
+                .setConnectionManager(connectionManager)
                 .setDefaultCredentialsProvider(credentialsProvider)
                 .setDefaultRequestConfig(requestConfig)
                 .build();
@@ -114,10 +151,26 @@ final class HttpModelControllerClient implements ModelControllerClient {
 
     @Override
     public ModelNode execute(Operation operation) throws IOException {
-        if (!operation.getInputStreams().isEmpty()) {
-            throw new IllegalStateException("Operation has one or more attachments which is not allowed.");
+        if (operation.getInputStreams().isEmpty()) {
+            return execute(operation.getOperation());
+        }
+
+        try {
+            ModelNode result;
+            CloseableHttpResponse response = client.execute(buildUploadRequest(operation));
+            try {
+                result = parseResponse(response);
+            } finally {
+                response.close();
+            }
+            return result;
+        } finally {
+            if (operation.isAutoCloseStreams()) {
+                for (InputStream inputStream : operation.getInputStreams()) {
+                    closeQuietly(inputStream);
+                }
+            }
         }
-        return execute(operation.getOperation());
     }
 
     @Override
@@ -137,62 +190,111 @@ final class HttpModelControllerClient implements ModelControllerClient {
 
     @Override
     public AsyncFuture<ModelNode> executeAsync(ModelNode modelNode, OperationMessageHandler handler) {
-        ExecutorService executor = obtainExecutorService();
-        Future<ModelNode> submit = executor.submit(new ModelNodeFromModelNodeCallable(modelNode));
-        ModelNode result = getFutureResult(submit);
-        return new HttpModelControllerClientAsyncFutureTask(executor, result);
+        return submit(new ModelNodeFromModelNodeCallable(modelNode));
     }
 
     @Override
     public AsyncFuture<ModelNode> executeAsync(Operation operation, OperationMessageHandler handler) {
-        ExecutorService executor = obtainExecutorService();
-        Future<ModelNode> submit = executor.submit(new ModelNodeFromOperationCallable(operation));
-        ModelNode result = getFutureResult(submit);
-        return new HttpModelControllerClientAsyncFutureTask(executor, result);
+        return submit(new ModelNodeFromOperationCallable(operation));
     }
 
     @Override
     public AsyncFuture<OperationResponse> executeOperationAsync(Operation operation, OperationMessageHandler handler) {
-        ExecutorService executor = obtainExecutorService();
-        Future<OperationResponse> submit = executor.submit(new OperationResponseFromOperationCallable(operation));
-        OperationResponse result = getFutureResult(submit);
-        return new HttpModelControllerClientAsyncFutureTask(executor, result);
+        return submit(new OperationResponseFromOperationCallable(operation));
     }
 
     @Override
     public void close() throws IOException {
         client.close();
-        if (executorService != null) {
-            executorService.shutdown();
+        synchronized (this) {
+            if (executorService != null) {
+                executorService.shutdown();
+            }
         }
     }
 
-    private ExecutorService obtainExecutorService() {
+    private <T> AsyncFuture<T> submit(Callable<T> callable) {
+        HttpModelControllerClientAsyncFutureTask<T> task = new HttpModelControllerClientAsyncFutureTask<T>(callable);
+        task.submitted = obtainExecutorService().submit(task);
+        return task;
+    }
+
+    private synchronized ExecutorService obtainExecutorService() {
         if (executorService == null) {
-            executorService = Executors.newCachedThreadPool();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(asyncThreads, asyncThreads,
+                    EXECUTOR_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                    new HttpAsyncThreadFactory());
+            executor.allowCoreThreadTimeOut(true);
+            executorService = executor;
         }
         return executorService;
     }
 
     private ModelNode parseResponse(CloseableHttpResponse response) throws IOException {
-        ModelNode result;
-        String content = EntityUtils.toString(response.getEntity());
+        HttpEntity entity = response.getEntity();
         int status = response.getStatusLine().getStatusCode();
         if (status == HttpStatus.SC_OK || status == HttpStatus.SC_INTERNAL_SERVER_ERROR) {
-            result = ModelNode.fromJSONString(content);
+            return decode(entity);
         } else {
+            String content = EntityUtils.toString(entity);
             throw new RuntimeException(String.format("Server responded %s%nMessage:%n%s", status, content));
         }
-        return result;
     }
 
-    private HttpPost buildRequest(ModelNode model) throws UnsupportedEncodingException {
+    /**
+     * Builds the {@code ModelNode} directly from the entity stream, without reading the whole response into memory
+     * first. The response is expected to be either {@code application/dmr-encoded} or JSON. An
+     * {@code application/dmr-encoded} response is decoded directly to a {@link ModelNodeResult}, so that
+     * {@link OnlineManagementClient} doesn't have to copy it.
+     */
+    static ModelNode decode(HttpEntity entity) throws IOException {
+        ContentType contentType = ContentType.get(entity);
+        InputStream content = entity.getContent();
+        try {
+            if (contentType != null && APPLICATION_DMR_ENCODED.getMimeType().equals(contentType.getMimeType())) {
+                ModelNodeResult result = new ModelNodeResult(new ModelNode());
+                result.readExternal(Base64.getMimeDecoder().wrap(content));
+                return result;
+            }
+            return ModelNode.fromJSONStream(content);
+        } finally {
+            content.close();
+        }
+    }
+
+    private HttpPost buildRequest(ModelNode model) throws IOException {
         HttpPost request = new HttpPost(url);
-        request.addHeader(HttpHeaders.CONTENT_TYPE, ContentType.APPLICATION_JSON.getMimeType());
-        request.setEntity(new StringEntity(model.toJSONString(true)));
+        if (dmrEncoded) {
+            // the server responds in the same encoding
+            ByteArrayOutputStream base64 = new ByteArrayOutputStream();
+            model.writeBase64(base64);
+            request.setEntity(new ByteArrayEntity(base64.toByteArray(), APPLICATION_DMR_ENCODED));
+        } else {
+            request.setEntity(new StringEntity(model.toJSONString(true), ContentType.APPLICATION_JSON));
+        }
         return request;
     }
 
+    private HttpPost buildUploadRequest(Operation operation) {
+        HttpPost request = new HttpPost(uploadUrl);
+        // the streamed entity can't be sent twice, so the server must be given a chance to reject the request
+        // (typically with an authentication challenge) before the body is sent
+        request.setConfig(RequestConfig.copy(requestConfig).setExpectContinueEnabled(true).build());
+        // identifies the request as coming from a management client rather than from a browser form
+        request.addHeader("X-Management-Client-Name", "creaper");
+        request.setEntity(new MultipartUploadEntity(operation.getOperation(), operation.getInputStreams(),
+                uploadProgressListener));
+        return request;
+    }
+
+    private static void closeQuietly(InputStream inputStream) {
+        try {
+            inputStream.close();
+        } catch (IOException ignored) {
+            // nothing to do
+        }
+    }
+
     private String getManagementRealm(String url) throws IOException {
         // we need client without credentials
         CloseableHttpClient defaultHttpClient = HttpClients.custom()
@@ -236,31 +338,144 @@ final class HttpModelControllerClient implements ModelControllerClient {
         throw new IllegalStateException("Failed to obtain management realm name. Digest realm not found in WWW-Authenticate header.");
     }
 
-    private <T> T getFutureResult(Future<T> submit) {
-        T get = null;
-        try {
-            if (timeout == NO_TIMEOUT) {
-                get = submit.get();
-            } else {
-                get = submit.get(timeout, TimeUnit.MILLISECONDS);
+    /**
+     * Runs the {@code callable} on the executor and propagates its outcome to the {@code AsyncFuture}. Listeners
+     * are notified directly from the thread that completes the future.
+     */
+    private static final class HttpModelControllerClientAsyncFutureTask<T> extends AsyncFutureTask<T>
+            implements Runnable {
+        private static final Executor DIRECT_EXECUTOR = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
             }
-        } catch (InterruptedException ex) {
-            throw new RuntimeException(ex);
-        } catch (ExecutionException ex) {
-            throw new RuntimeException(ex);
-        } catch (TimeoutException ex) {
-            throw new RuntimeException(ex);
-        }
-        return get;
+        };
+
+        private final Callable<T> callable;
+        private volatile Future<?> submitted;
+
+        HttpModelControllerClientAsyncFutureTask(Callable<T> callable) {
+            super(DIRECT_EXECUTOR);
+            this.callable = callable;
+        }
+
+        @Override
+        public void run() {
+            try {
+                setResult(callable.call());
+            } catch (Throwable e) {
+                setFailed(e);
+            }
+        }
+
+        @Override
+        public void asyncCancel(boolean interruptionDesired) {
+            Future<?> submitted = this.submitted;
+            if (submitted != null) {
+                submitted.cancel(interruptionDesired);
+            }
+            // an HTTP request that is already in progress can't be aborted, its result is simply thrown away
+            setCancelled();
+        }
     }
 
-    private static class HttpModelControllerClientAsyncFutureTask<T> extends AsyncFutureTask<T> {
+    /**
+     * A {@code multipart/form-data} entity with the operation in the {@code operation} part and the attachments
+     * in subsequent parts, in the order of their {@code input-stream-index}. The content is written directly
+     * from the attachment streams, the length isn't known in advance, so the entity is sent using chunked
+     * transfer encoding. The entity can only be written once.
+     */
+    static final class MultipartUploadEntity extends AbstractHttpEntity {
+        private static final String CRLF = "\r\n";
+        private static final int BUFFER_SIZE = 64 * 1024;
+        private static final long PROGRESS_INTERVAL = 1024 * 1024;
+
+        private final ModelNode operation;
+        private final List<InputStream> attachments;
+        private final UploadProgressListener progressListener; // may be null
+        private final String boundary = "creaper-" + UUID.randomUUID().toString().replace("-", "");
+
+        MultipartUploadEntity(ModelNode operation, List<InputStream> attachments,
+                              UploadProgressListener progressListener) {
+            this.operation = operation;
+            this.attachments = attachments;
+            this.progressListener = progressListener;
+            setContentType("multipart/form-data; boundary=" + boundary);
+            setChunked(true);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return false;
+        }
+
+        @Override
+        public long getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public InputStream getContent() {
+            throw new UnsupportedOperationException("Multipart upload can only be written to an output stream");
+        }
 
-        HttpModelControllerClientAsyncFutureTask(Executor executor, T result) {
-            super(executor);
-            super.setResult(result);
+        @Override
+        public boolean isStreaming() {
+            return true;
         }
 
+        @Override
+        public void writeTo(OutputStream output) throws IOException {
+            writeAscii(output, "--" + boundary + CRLF
+                    + "Content-Disposition: form-data; name=\"operation\"" + CRLF
+                    + "Content-Type: " + ContentType.APPLICATION_JSON.getMimeType() + CRLF + CRLF);
+            output.write(operation.toJSONString(true).getBytes(StandardCharsets.UTF_8));
+
+            byte[] buffer = new byte[BUFFER_SIZE];
+            for (int i = 0; i < attachments.size(); i++) {
+                writeAscii(output, CRLF + "--" + boundary + CRLF
+                        + "Content-Disposition: form-data; name=\"attachment-" + i + "\"; filename=\"attachment-" + i
+                        + "\"" + CRLF
+                        + "Content-Type: " + ContentType.APPLICATION_OCTET_STREAM.getMimeType() + CRLF + CRLF);
+
+                InputStream attachment = attachments.get(i);
+                long sent = 0;
+                long lastReported = 0;
+                int read;
+                while ((read = attachment.read(buffer)) != -1) {
+                    output.write(buffer, 0, read);
+                    sent += read;
+                    if (progressListener != null && sent - lastReported >= PROGRESS_INTERVAL) {
+                        progressListener.uploadProgress(i, sent, false);
+                        lastReported = sent;
+                    }
+                }
+                if (progressListener != null) {
+                    progressListener.uploadProgress(i, sent, true);
+                }
+            }
+
+            writeAscii(output, CRLF + "--" + boundary + "--" + CRLF);
+            output.flush();
+        }
+
+        private static void writeAscii(OutputStream output, String text) throws IOException {
+            output.write(text.getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    private static final class HttpAsyncThreadFactory implements ThreadFactory {
+        private static final AtomicInteger POOL_COUNTER = new AtomicInteger(1);
+
+        private final int pool = POOL_COUNTER.getAndIncrement();
+        private final AtomicInteger threadCounter = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "creaper-http-async-" + pool + "-" + threadCounter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
     }
 
     private class ModelNodeFromModelNodeCallable implements Callable<ModelNode> {
@@ -7,6 +7,7 @@ import org.wildfly.extras.creaper.core.ManagementClient;
 import org.wildfly.extras.creaper.core.ServerVersion;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -79,6 +80,32 @@ final class LazyOnlineManagementClient implements OnlineManagementClient {
         return delegate.execute(operation);
     }
 
+    @Override
+    public CompletableFuture<ModelNodeResult> executeAsync(ModelNode operation) {
+        try {
+            ensureInitialized();
+        } catch (IOException e) {
+            CompletableFuture<ModelNodeResult> result = new CompletableFuture<ModelNodeResult>();
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        return delegate.executeAsync(operation);
+    }
+
+    @Override
+    public CompletableFuture<ModelNodeResult> executeAsync(Operation operation) {
+        try {
+            ensureInitialized();
+        } catch (IOException e) {
+            CompletableFuture<ModelNodeResult> result = new CompletableFuture<ModelNodeResult>();
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        return delegate.executeAsync(operation);
+    }
+
     @Override
     public void executeCli(String cliOperation) throws CliException, IOException {
         ensureInitialized();
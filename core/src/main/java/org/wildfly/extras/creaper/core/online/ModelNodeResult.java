@@ -1,7 +1,6 @@
 package org.wildfly.extras.creaper.core.online;
 
 import org.jboss.dmr.ModelNode;
-import org.jboss.dmr.Property;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -25,6 +24,9 @@ import java.util.List;
  * </ul>
  *
  * <p>Other than that, work with {@code ModelNodeResult} just like with a {@code ModelNode}.</p>
+ *
+ * <p>Results of individual batch steps or servers ({@link #forBatchStep(int)}, {@link #forAllBatchSteps()},
+ * {@link #forServer(String, String)}) are independent copies of the corresponding part of the original result.</p>
  */
 public class ModelNodeResult extends ModelNode {
     /** @deprecated not supposed to be called directly, only for {@code Externalizable} */
@@ -32,6 +34,7 @@ public class ModelNodeResult extends ModelNode {
     public ModelNodeResult() {
     }
 
+    /** Creates a {@code ModelNodeResult} from a copy of the {@code original} node. */
     public ModelNodeResult(ModelNode original) {
         this.set(original);
     }
@@ -248,21 +251,32 @@ public class ModelNodeResult extends ModelNode {
     // ---
     // batch (composite)
 
+    /**
+     * Returns the result of the {@code stepIndex}-th step of a batch (composite operation); the first step has
+     * index 1. The returned result is a copy of the corresponding part of {@code this}.
+     */
     public final ModelNodeResult forBatchStep(int stepIndex) {
         if (stepIndex < 1) {
             throw new IllegalArgumentException("Step number must be > 0 (first step has index 1)");
         }
 
-        List<Property> steps = this.value().asPropertyList();
+        // keys() and get() don't copy, unlike asPropertyList()
+        ModelNode value = this.value();
+        List<String> steps = new ArrayList<String>(value.keys());
         if (stepIndex > steps.size()) {
             throw new IllegalArgumentException("No step " + stepIndex + ": " + this.asString());
         }
 
-        return new ModelNodeResult(steps.get(stepIndex - 1).getValue());
+        return new ModelNodeResult(value.get(steps.get(stepIndex - 1)));
     }
 
+    /**
+     * Returns the results of all steps of a batch (composite operation). The returned results are copies
+     * of the corresponding parts of {@code this}.
+     */
     public final Iterable<ModelNodeResult> forAllBatchSteps() {
-        final List<Property> steps = this.value().asPropertyList();
+        final ModelNode value = this.value();
+        final List<String> steps = new ArrayList<String>(value.keys());
         final int stepsCount = steps.size();
 
         return new Iterable<ModelNodeResult>() {
@@ -279,7 +293,7 @@ public class ModelNodeResult extends ModelNode {
                     @Override
                     public ModelNodeResult next() {
                         index++;
-                        return new ModelNodeResult(steps.get(index - 1).getValue());
+                        return new ModelNodeResult(value.get(steps.get(index - 1)));
                     }
 
                     @Override
@@ -318,7 +332,8 @@ public class ModelNodeResult extends ModelNode {
     /**
      * Returns the part of the operation result that is in fact a result of an operation performed on one single server
      * in a domain. The server is identified by the {@code host} name and the {@code server} name. It's not needed
-     * to specify the server group, because one host can only belong to one server group.
+     * to specify the server group, because one host can only belong to one server group. The returned result
+     * is a copy of the corresponding part of {@code this}.
      * @throws IllegalArgumentException if {@code this} is not an operation result from domain or if no such
      * {@code host} + {@code server} combination is present in {@code this}
      */
@@ -327,11 +342,12 @@ public class ModelNodeResult extends ModelNode {
             throw new IllegalArgumentException("Can't call forServer on a result that isn't from domain");
         }
 
-        List<Property> serverGroups = this.get(Constants.SERVER_GROUPS).asPropertyList();
-        for (Property serverGroup : serverGroups) {
-            ModelNode response = serverGroup.getValue().get(Constants.HOST, host, server, Constants.RESPONSE);
-            if (response.isDefined()) {
-                return new ModelNodeResult(response);
+        ModelNode serverGroups = this.get(Constants.SERVER_GROUPS);
+        for (String serverGroup : serverGroups.keys()) {
+            // check first, get() would create nonexistent nodes in this result
+            ModelNode serverGroupResult = serverGroups.get(serverGroup);
+            if (serverGroupResult.hasDefined(Constants.HOST, host, server, Constants.RESPONSE)) {
+                return new ModelNodeResult(serverGroupResult.get(Constants.HOST, host, server, Constants.RESPONSE));
             }
         }
 
@@ -1,15 +1,96 @@
 package org.wildfly.extras.creaper.core.online;
 
+import org.jboss.dmr.ModelNode;
 import org.wildfly.extras.creaper.core.ServerVersion;
+import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
 
 public final class OnlineCommandContext {
     public final OnlineManagementClient client;
     public final OnlineOptions options; // same as client.options()
     public final ServerVersion version; // same as client.version()
 
-    OnlineCommandContext(OnlineManagementClient client, ServerVersion version) {
+    private final OnlineManagementClientImpl clientImpl;
+    private final ReadCacheForCommands readCache; // null if disabled
+
+    OnlineCommandContext(OnlineManagementClientImpl clientImpl, OnlineManagementClient client, ServerVersion version,
+                         ReadCacheForCommands readCache) {
         this.client = client;
         this.options = client.options();
         this.version = version;
+        this.clientImpl = clientImpl;
+        this.readCache = readCache;
+    }
+
+    /**
+     * Number of reads in the current {@code apply} call that were answered from the
+     * {@link OnlineOptions.OptionalOnlineOptions#readCache() read cache}; always 0 if the cache isn't enabled.
+     */
+    public long readCacheHits() {
+        return readCache != null ? readCache.hits() : 0;
+    }
+
+    /**
+     * Number of reads in the current {@code apply} call that could be answered from the
+     * {@link OnlineOptions.OptionalOnlineOptions#readCache() read cache}, but had to be sent to the server;
+     * always 0 if the cache isn't enabled.
+     */
+    public long readCacheMisses() {
+        return readCache != null ? readCache.misses() : 0;
+    }
+
+    /**
+     * Translates a CLI operation (such as {@code /subsystem=logging/logger=foo:add(level=INFO)}) to a DMR operation
+     * without executing it, so that it can be sent later, possibly as a step of a composite operation. Relative
+     * addresses are resolved against the current node of the CLI context (as changed by {@code cd}) and CLI variables
+     * are substituted at the time of this call. In managed domain, the operation is adjusted the same way as
+     * in {@link OnlineManagementClient#execute(String)}.
+     * @throws CliException if {@code cliOperation} isn't a valid operation (CLI commands like {@code deploy}
+     * or {@code if} can't be translated)
+     */
+    public ModelNode parseCliOperation(String cliOperation) throws CliException {
+        return clientImpl.parseCliOperation(cliOperation);
+    }
+
+    /**
+     * Reloads the server if required, same as {@link Administration#reloadIfRequired()}. If
+     * {@link OnlineOptions.OptionalOnlineOptions#deferredReload() deferredReload} is enabled, the reload is
+     * only recorded and performed (if still required) at the end of the current {@code apply} call. Commands
+     * should call this at the end, after making changes that might require reload.
+     */
+    public void reloadIfRequired() throws IOException, InterruptedException, TimeoutException {
+        if (options.deferredReload) {
+            clientImpl.reloadDeferred = true;
+        } else {
+            new Administration(client).reloadIfRequired();
+        }
+    }
+
+    /**
+     * Reloads the server if required, even if {@link OnlineOptions.OptionalOnlineOptions#deferredReload()
+     * deferredReload} is enabled. This is a barrier: a reload deferred by previous commands is performed here.
+     * Commands should call this when they need the reloaded state to continue.
+     */
+    public void reloadIfRequiredNow() throws IOException, InterruptedException, TimeoutException {
+        clientImpl.reloadDeferred = false;
+        new Administration(client).reloadIfRequired();
+    }
+
+    /**
+     * To be called after removing a resource that will be added again (typically with {@code replaceExisting}).
+     * Without {@link OnlineOptions.OptionalOnlineOptions#deferredReload() deferredReload}, this is the same as
+     * {@link #reloadIfRequiredNow()}. With deferred reload, the server is reloaded immediately (if required) only if
+     * something was in fact {@code removed}, because the reload might be needed for adding it again. Otherwise,
+     * the reload is deferred.
+     */
+    public void reloadIfRequiredAfterRemoving(boolean removed)
+            throws IOException, InterruptedException, TimeoutException {
+        if (options.deferredReload && !removed) {
+            clientImpl.reloadDeferred = true;
+        } else {
+            reloadIfRequiredNow();
+        }
     }
 }
@@ -7,6 +7,7 @@ import org.wildfly.extras.creaper.core.ServerVersion;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -61,6 +62,24 @@ public interface OnlineManagementClient extends Closeable {
      */
     ModelNodeResult execute(String operation) throws CliException, IOException;
 
+    /**
+     * <p>Performs the management {@code operation} asynchronously and returns a future of its result. The operation
+     * is sent to the server immediately and this method doesn't wait for the response, so it's possible to keep
+     * multiple operations in flight over the single connection this client holds. The operation is adjusted for
+     * managed domain in the same way as in {@link #execute(ModelNode)}.</p>
+     *
+     * <p>The returned future completes with the result, or exceptionally if an I/O error occurs during
+     * the management operation. Note that the server may process multiple in-flight operations in any order;
+     * if the operations depend on each other, wait for the earlier ones to complete first.</p>
+     */
+    CompletableFuture<ModelNodeResult> executeAsync(ModelNode operation);
+
+    /**
+     * Performs the management {@code operation} asynchronously and returns a future of its result.
+     * See {@link #executeAsync(ModelNode)} for more details.
+     */
+    CompletableFuture<ModelNodeResult> executeAsync(Operation operation);
+
     /**
      * Performs the management operation (given in the CLI syntax) synchronously. The {@code cliOperation} can be
      * either a server-side management operation or a local CLI operation such as {@code cd} or {@code ls}. All local
@@ -3,8 +3,12 @@ package org.wildfly.extras.creaper.core.online;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
 
 import org.jboss.as.cli.CliInitializationException;
 import org.jboss.as.cli.CommandContext;
@@ -12,8 +16,10 @@ import org.jboss.as.cli.CommandFormatException;
 import org.jboss.as.cli.impl.CommandContextFactoryImpl;
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationMessageHandler;
 import org.jboss.dmr.ModelNode;
 import org.jboss.logging.Logger;
+import org.jboss.threads.AsyncFuture;
 import org.wildfly.extras.creaper.core.CommandFailedException;
 import org.wildfly.extras.creaper.core.ServerVersion;
 import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
@@ -23,15 +29,34 @@ final class OnlineManagementClientImpl implements OnlineManagementClient {
 
     private static final String JBOSS_CLI_CONFIG = "jboss.cli.config";
 
+    private static final long MIN_RECONNECT_DELAY = 5;
+    private static final long MAX_RECONNECT_DELAY = 500;
+
     private final OnlineOptions options;
     private final AdjustOperationForDomain adjustOperationForDomain;
 
     private ModelControllerClient client;
-    private CommandContext cliContext;
+    private CommandContext cliContext; // created lazily, see cliContext()
     private ServerVersion version;
 
     private ThisIsWhereTheClientWasClosed closedAt; // != null <=> already closed
 
+    // deferred reload spans a top-level apply call, including all nested apply calls
+    private int applyDepth;
+    boolean reloadDeferred; // see OnlineCommandContext.reloadIfRequired
+
+    /**
+     * Returns the {@code response} itself if it's already a {@code ModelNodeResult} (the HTTP client decodes
+     * {@code application/dmr-encoded} responses directly to a {@code ModelNodeResult}), otherwise a copy.
+     */
+    // package-private for testing
+    static ModelNodeResult resultOf(ModelNode response) {
+        if (response instanceof ModelNodeResult) {
+            return (ModelNodeResult) response;
+        }
+        return new ModelNodeResult(response);
+    }
+
     OnlineManagementClientImpl(OnlineOptions options) throws IOException {
         this.options = options;
         this.adjustOperationForDomain = new AdjustOperationForDomain(options);
@@ -42,38 +67,62 @@ final class OnlineManagementClientImpl implements OnlineManagementClient {
         this.client = options.createModelControllerClient();
 
         try {
-            fakeJbossCliConfigToAvoidWarning();
-
-            this.cliContext = new CommandContextFactoryImpl().newCommandContext();
-            cliContext.setSilent(true); // CLI shouldn't print messages to the console directly; proper logging is fine
-            cliContext.bindClient(client);
-        } catch (CliInitializationException e) {
-            try {
-                client.close();
-            } catch (IOException ignored) {
-                // so that it doesn't suppress the original exception
+            ConnectHandshake handshake;
+            if (options.isWrappedClient) {
+                handshake = ConnectHandshake.perform(client);
+            } else {
+                handshake = ConnectHandshake.performAndWaitUntilServerBoots(client, options.connectionTimeout,
+                        options.bootTimeout);
             }
-            throw new IOException(e);
-        }
-
-        try {
-            this.version = OnlineServerVersion.discover(client);
-            checkStandaloneVsDomain();
+            this.version = handshake.version;
+            checkStandaloneVsDomain(handshake.rootChildrenTypes);
         } catch (Exception e) {
             try {
                 client.close();
-                cliContext.disconnectController();
             } catch (IOException ignored) {
                 // so that it doesn't suppress the original exception
             }
             if (e instanceof IOException) {
                 throw (IOException) e;
-            } else {
+            } else if (e instanceof RuntimeException) {
                 throw (RuntimeException) e;
+            } else {
+                throw new IllegalStateException(e);
             }
         }
     }
 
+    /**
+     * The CLI context is only needed for {@link #execute(String)} and {@link #executeCli(String)}. Creating it loads
+     * a large part of the CLI and takes a lot of time, so it's created on first use and not at all in most cases.
+     */
+    private CommandContext cliContext() throws CliException {
+        if (options.cliDisabled) {
+            throw new CliException("CLI was disabled in OnlineOptions, only DMR operations can be executed");
+        }
+
+        if (cliContext == null) {
+            try {
+                fakeJbossCliConfigToAvoidWarning();
+
+                CommandContext cliContext = new CommandContextFactoryImpl().newCommandContext();
+                cliContext.setSilent(true); // CLI shouldn't print messages to the console directly; logging is fine
+                cliContext.bindClient(client);
+                this.cliContext = cliContext;
+            } catch (CliInitializationException e) {
+                throw new CliException(e);
+            }
+        }
+        return cliContext;
+    }
+
+    private void disconnectCliContext() {
+        if (cliContext != null) {
+            cliContext.disconnectController();
+            cliContext = null;
+        }
+    }
+
     private static void fakeJbossCliConfigToAvoidWarning() {
         // this works since AS 7.2.0, that is EAP 6.1.0 and above
         // jboss-as-cli 7.0.x and 7.1.x don't know this system property
@@ -88,13 +137,7 @@ final class OnlineManagementClientImpl implements OnlineManagementClient {
         }
     }
 
-    private void checkStandaloneVsDomain() throws IOException {
-        ModelNode op = new ModelNode();
-        op.get(Constants.OP).set(Constants.READ_CHILDREN_TYPES);
-        op.get(Constants.OP_ADDR).setEmptyList();
-        ModelNodeResult result = this.execute(op);
-        List<String> rootChildrenTypes = result.stringListValue();
-
+    private void checkStandaloneVsDomain(List<String> rootChildrenTypes) {
         if (options.isStandalone && !rootChildrenTypes.contains(Constants.SUBSYSTEM)) {
             throw new IllegalStateException("According to the options, this client should be connected"
                     + " to a standalone server, but the server appears to be something else");
@@ -128,57 +171,248 @@ final class OnlineManagementClientImpl implements OnlineManagementClient {
     @Override
     public void apply(Iterable<OnlineCommand> commands) throws CommandFailedException {
         checkClosed();
+        applyDepth++;
+        AutoBatchingForCommands autoBatching = null;
+        ReadCacheForCommands readCache = null;
         try {
             OnlineManagementClient client = AutomaticErrorHandlingForCommands.wrap(this);
-            OnlineCommandContext ctx = new OnlineCommandContext(client, version);
+            if (options.autoBatching) {
+                autoBatching = new AutoBatchingForCommands(client);
+                client = autoBatching;
+            }
+            if (options.readCache) {
+                readCache = new ReadCacheForCommands(client);
+                client = readCache;
+            }
+            OnlineCommandContext ctx = new OnlineCommandContext(this, client, version, readCache);
             for (OnlineCommand command : commands) {
                 log.infof("Applying command %s", command);
-                command.apply(ctx);
+                if (autoBatching != null) {
+                    autoBatching.currentCommand(command);
+                }
+                applyCommand(command, ctx);
+            }
+            if (autoBatching != null) {
+                autoBatching.currentCommand(null);
+                autoBatching.flush();
+            }
+            if (applyDepth == 1 && reloadDeferred) {
+                log.info("Performing deferred reload");
+                ctx.reloadIfRequiredNow();
             }
         } catch (RuntimeCommandFailedException e) {
             throw e.original;
+        } catch (CompletionException e) {
+            throw unwrapAsyncFailure(e);
+        } catch (ExecutionException e) {
+            throw unwrapAsyncFailure(e);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new CommandFailedException(e);
         } catch (Exception e) {
             throw new CommandFailedException(e);
+        } finally {
+            if (autoBatching != null) {
+                // operations recorded before a failure would have been performed without auto-batching too
+                autoBatching.flushAfterFailure();
+            }
+            if (readCache != null) {
+                log.debugf("Read cache: %d hits, %d misses", readCache.hits(), readCache.misses());
+            }
+            applyDepth--;
+            if (applyDepth == 0 && reloadDeferred) {
+                log.warn("A command failed, deferred reload was not performed; the server might require reload");
+                reloadDeferred = false;
+            }
+        }
+    }
+
+    private void applyCommand(OnlineCommand command, OnlineCommandContext ctx) throws Exception {
+        if (options.operationListeners.isEmpty()) {
+            command.apply(ctx);
+            return;
+        }
+
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            command.apply(ctx);
+        } catch (Exception e) {
+            failure = e;
+            throw e;
+        } finally {
+            OperationListener.CommandEvent event = new OperationListener.CommandEvent(command,
+                    System.nanoTime() - start, failure);
+            for (OperationListener listener : options.operationListeners) {
+                try {
+                    listener.commandApplied(event);
+                } catch (RuntimeException e) {
+                    log.warn("Operation listener failed", e);
+                }
+            }
+        }
+    }
+
+    /** Formatting the operation is relatively expensive, so it's only done when it's actually logged. */
+    private static void logOperation(String message, ModelNode operation) {
+        if (log.isDebugEnabled()) {
+            log.debugf(message, ModelNodeOperationToCliString.convert(operation));
         }
+        if (log.isTraceEnabled()) {
+            log.tracef("JSON format:%n%s", operation.toJSONString(false));
+        }
+    }
+
+    private void operationExecuted(ModelNode operation, ModelNode result, long startNanos) {
+        if (options.operationListeners.isEmpty()) {
+            return;
+        }
+
+        OperationListener.OperationEvent event = new OperationListener.OperationEvent(operation, result,
+                System.nanoTime() - startNanos);
+        for (OperationListener listener : options.operationListeners) {
+            try {
+                listener.operationExecuted(event);
+            } catch (RuntimeException e) {
+                log.warn("Operation listener failed", e);
+            }
+        }
+    }
+
+    private CompletableFuture<ModelNodeResult> operationExecutedAsync(final ModelNode operation,
+                                                                      CompletableFuture<ModelNodeResult> result,
+                                                                      final long startNanos) {
+        if (!options.operationListeners.isEmpty()) {
+            result.whenComplete(new BiConsumer<ModelNodeResult, Throwable>() {
+                @Override
+                public void accept(ModelNodeResult modelNodeResult, Throwable throwable) {
+                    operationExecuted(operation, modelNodeResult, startNanos);
+                }
+            });
+        }
+        return result;
     }
 
     @Override
     public ModelNodeResult execute(ModelNode operation) throws IOException {
         checkClosed();
         operation = adjustOperationForDomain.adjust(operation);
-        log.debugf("Executing operation %s", ModelNodeOperationToCliString.convert(operation));
-        log.tracef("JSON format:%n%s", operation.toJSONString(false));
-        ModelNode result = client.execute(operation);
-        return new ModelNodeResult(result);
+        logOperation("Executing operation %s", operation);
+        long start = System.nanoTime();
+        ModelNode result = null;
+        try {
+            result = client.execute(operation);
+            return resultOf(result);
+        } finally {
+            operationExecuted(operation, result, start);
+        }
     }
 
     @Override
     public ModelNodeResult execute(Operation operation) throws IOException {
         checkClosed();
         operation = adjustOperationForDomain.adjust(operation);
-        log.debugf("Executing operation %s", ModelNodeOperationToCliString.convert(operation.getOperation()));
-        log.tracef("JSON format:%n%s", operation.getOperation().toJSONString(false));
-        ModelNode result = client.execute(operation);
-        return new ModelNodeResult(result);
+        logOperation("Executing operation %s", operation.getOperation());
+        long start = System.nanoTime();
+        ModelNode result = null;
+        try {
+            result = client.execute(operation);
+            return resultOf(result);
+        } finally {
+            operationExecuted(operation.getOperation(), result, start);
+        }
     }
 
     @Override
     public ModelNodeResult execute(String operation) throws CliException, IOException {
+        log.debugf("Executing operation %s", operation);
+        ModelNode parsedOperation = parseCliOperation(operation);
+
+        long start = System.nanoTime();
+        ModelNode result = null;
+        try {
+            result = client.execute(parsedOperation);
+            return resultOf(result);
+        } finally {
+            operationExecuted(parsedOperation, result, start);
+        }
+    }
+
+    /** Translates a CLI operation to a DMR operation without executing it, see {@link OnlineCommandContext}. */
+    ModelNode parseCliOperation(String operation) throws CliException {
         checkClosed();
         operation = adjustOperationForDomain.adjust(operation);
-        log.debugf("Executing operation %s", operation);
-        ModelNode parsedOperation;
         try {
-            parsedOperation = cliContext.buildRequest(operation);
+            return cliContext().buildRequest(operation);
         } catch (CommandFormatException e) {
             throw new CliException(e);
         }
+    }
 
-        ModelNode result = client.execute(parsedOperation);
-        return new ModelNodeResult(result);
+    /**
+     * Commands that use {@link #executeAsync(ModelNode)} typically wait for the result using {@code join} or
+     * {@code get}, which wraps the {@code RuntimeCommandFailedException} from {@link AutomaticErrorHandlingForCommands}
+     * into another exception.
+     */
+    private static CommandFailedException unwrapAsyncFailure(Exception e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeCommandFailedException) {
+            return ((RuntimeCommandFailedException) cause).original;
+        }
+        return new CommandFailedException(cause != null ? cause : e);
+    }
+
+    @Override
+    public CompletableFuture<ModelNodeResult> executeAsync(ModelNode operation) {
+        checkClosed();
+        operation = adjustOperationForDomain.adjust(operation);
+        logOperation("Executing operation asynchronously %s", operation);
+        long start = System.nanoTime();
+        return operationExecutedAsync(operation,
+                toCompletableFuture(client.executeAsync(operation, OperationMessageHandler.DISCARD)), start);
+    }
+
+    @Override
+    public CompletableFuture<ModelNodeResult> executeAsync(Operation operation) {
+        checkClosed();
+        operation = adjustOperationForDomain.adjust(operation);
+        logOperation("Executing operation asynchronously %s", operation.getOperation());
+        long start = System.nanoTime();
+        return operationExecutedAsync(operation.getOperation(),
+                toCompletableFuture(client.executeAsync(operation, OperationMessageHandler.DISCARD)), start);
+    }
+
+    private static CompletableFuture<ModelNodeResult> toCompletableFuture(final AsyncFuture<ModelNode> asyncFuture) {
+        final CompletableFuture<ModelNodeResult> result = new CompletableFuture<ModelNodeResult>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                asyncFuture.asyncCancel(mayInterruptIfRunning);
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+
+        asyncFuture.addListener(new AsyncFuture.Listener<ModelNode, Void>() {
+            @Override
+            public void handleComplete(AsyncFuture<? extends ModelNode> future, Void attachment) {
+                try {
+                    result.complete(resultOf(future.getUninterruptibly()));
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void handleFailed(AsyncFuture<? extends ModelNode> future, Throwable cause, Void attachment) {
+                result.completeExceptionally(cause);
+            }
+
+            @Override
+            public void handleCancelled(AsyncFuture<? extends ModelNode> future, Void attachment) {
+                result.cancel(false);
+            }
+        }, null);
+
+        return result;
     }
 
     @Override
@@ -191,6 +425,7 @@ final class OnlineManagementClientImpl implements OnlineManagementClient {
         cliOperation = adjustOperationForDomain.adjust(cliOperation);
         log.debugf("Executing CLI operation %s", cliOperation);
 
+        CommandContext cliContext = cliContext();
         try {
             if ("reload".equals(cliOperation.trim())) {
                 // CLI requires a special implementation of ModelControllerClient for "reload" and "shutdown",
@@ -225,21 +460,26 @@ final class OnlineManagementClientImpl implements OnlineManagementClient {
 
         try {
             client.close();
-            cliContext.disconnectController();
+            disconnectCliContext();
         } catch (Throwable ignored) {
         }
 
         long endTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeoutInSeconds);
+        long delay = MIN_RECONNECT_DELAY;
         while (System.currentTimeMillis() < endTime) {
-            try {
-                connect();
-                return;
-            } catch (Throwable e) {
-                log.info(e.getMessage());
-                // server is probably down, will retry
+            // connecting is relatively expensive, so only try when the server is likely to accept the connection
+            if (options.readinessProbe.isReady(options.host, options.port)) {
+                try {
+                    connect();
+                    return;
+                } catch (Throwable e) {
+                    log.info(e.getMessage());
+                    // server is probably down, will retry
+                }
             }
 
-            Thread.sleep(500);
+            Thread.sleep(delay);
+            delay = Math.min(delay * 2, MAX_RECONNECT_DELAY);
         }
 
         throw new TimeoutException("Timeout reconnecting to server");
@@ -255,7 +495,7 @@ final class OnlineManagementClientImpl implements OnlineManagementClient {
     @Override
     public void close() throws IOException {
         client.close();
-        cliContext.disconnectController();
+        disconnectCliContext();
 
         if (closedAt == null) {
             closedAt = new ThisIsWhereTheClientWasClosed();
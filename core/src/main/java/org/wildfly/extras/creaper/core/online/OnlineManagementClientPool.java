@@ -0,0 +1,353 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.as.controller.client.Operation;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.ManagementClient;
+import org.wildfly.extras.creaper.core.ServerVersion;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * <p>A bounded pool of {@link OnlineManagementClient}s connected to a single server, all created from the same
+ * {@link OnlineOptions}. The pool itself is thread-safe, so that multiple threads (e.g. parallel test runners) can
+ * share a handful of connections instead of opening one for each test class. The clients themselves are still
+ * meant for single-threaded use: each client is {@link #borrow() borrowed} by one thread at a time, used as usual
+ * and then returned to the pool by calling {@link OnlineManagementClient#close() close} on it.</p>
+ *
+ * <pre>
+ * OnlineManagementClientPool pool = new OnlineManagementClientPool(options, 4);
+ * ...
+ * try (OnlineManagementClient client = pool.borrow()) {
+ *     client.apply(...);
+ * }
+ * ...
+ * pool.close();
+ * </pre>
+ *
+ * <p>Connections are created lazily, up to {@code maxSize}. When all of them are borrowed, {@code borrow} waits until
+ * a client is returned. A client is checked before it's handed out and if the check fails (e.g. because the server
+ * was restarted and the connection wasn't {@link OnlineManagementClient#reconnect(int) reconnected}), it's discarded
+ * and replaced with a new one. Note that borrowing a client doesn't give exclusive access to the <i>server</i>;
+ * commands that assume no other clients are changing the server at the same time can still interfere
+ * with each other.</p>
+ */
+public final class OnlineManagementClientPool {
+    private static final Logger log = Logger.getLogger(OnlineManagementClientPool.class);
+
+    private static final long DEFAULT_BORROW_TIMEOUT_IN_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final OnlineOptions options;
+    private final int maxSize;
+    private final long borrowTimeoutInMillis;
+
+    private final Semaphore permits;
+    private final Deque<OnlineManagementClient> idle = new ArrayDeque<OnlineManagementClient>();
+    private boolean closed;
+
+    // statistics, guarded by "this" (just like "idle" and "closed")
+    private long borrows;
+    private long borrowsThatWaited;
+    private long totalBorrowNanos;
+    private long maxBorrowNanos;
+    private int leased;
+    private int peakLeased;
+    private long clientsCreated;
+    private long clientsDiscarded;
+
+    /** Creates a pool of at most {@code maxSize} clients; {@link #borrow()} waits for at most 1 minute. */
+    public OnlineManagementClientPool(OnlineOptions options, int maxSize) {
+        this(options, maxSize, DEFAULT_BORROW_TIMEOUT_IN_MILLIS);
+    }
+
+    /** Creates a pool of at most {@code maxSize} clients; {@link #borrow()} waits for at most given time. */
+    public OnlineManagementClientPool(OnlineOptions options, int maxSize, long borrowTimeoutInMillis) {
+        if (options.isWrappedClient) {
+            throw new IllegalArgumentException("Can't create a pool of clients that wrap a single ModelControllerClient");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Maximum size of the pool must be positive");
+        }
+
+        this.options = options;
+        this.maxSize = maxSize;
+        this.borrowTimeoutInMillis = borrowTimeoutInMillis;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Returns a client for exclusive use by the caller. The client must be returned to the pool by calling
+     * {@link OnlineManagementClient#close() close}; it can't be used after that.
+     *
+     * @throws TimeoutException if all clients are borrowed and none is returned in time
+     * @throws IOException if a new client has to be created and connecting fails
+     */
+    public OnlineManagementClient borrow() throws IOException, InterruptedException, TimeoutException {
+        long start = System.nanoTime();
+
+        boolean waited = false;
+        if (!permits.tryAcquire()) {
+            waited = true;
+            if (!permits.tryAcquire(borrowTimeoutInMillis, TimeUnit.MILLISECONDS)) {
+                throw new TimeoutException("No client returned to the pool in " + borrowTimeoutInMillis + " ms, "
+                        + "all " + maxSize + " clients are borrowed");
+            }
+        }
+
+        try {
+            OnlineManagementClient client = takeHealthyIdleClient();
+            if (client == null) {
+                client = ManagementClient.online(options);
+                synchronized (this) {
+                    clientsCreated++;
+                }
+            }
+
+            long duration = System.nanoTime() - start;
+            synchronized (this) {
+                borrows++;
+                if (waited) {
+                    borrowsThatWaited++;
+                }
+                totalBorrowNanos += duration;
+                maxBorrowNanos = Math.max(maxBorrowNanos, duration);
+                leased++;
+                peakLeased = Math.max(peakLeased, leased);
+            }
+
+            return new Lease(client);
+        } catch (IOException e) {
+            permits.release();
+            throw e;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private OnlineManagementClient takeHealthyIdleClient() {
+        while (true) {
+            OnlineManagementClient client;
+            synchronized (this) {
+                if (closed) {
+                    throw new IllegalStateException("The pool is already closed");
+                }
+                client = idle.pollFirst();
+            }
+            if (client == null) {
+                return null;
+            }
+            if (isHealthy(client)) {
+                return client;
+            }
+
+            log.debug("Discarding a pooled client that failed health check");
+            closeQuietly(client);
+            synchronized (this) {
+                clientsDiscarded++;
+            }
+        }
+    }
+
+    private static boolean isHealthy(OnlineManagementClient client) {
+        ModelNode op = new ModelNode();
+        op.get(Constants.OP).set(Constants.WHOAMI);
+        op.get(Constants.OP_ADDR).setEmptyList();
+        try {
+            return client.execute(op).isSuccess();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void giveBack(OnlineManagementClient client) {
+        boolean closeClient;
+        synchronized (this) {
+            leased--;
+            closeClient = closed;
+            if (!closed) {
+                // LIFO, so that rarely used clients are the first to go stale and get discarded
+                idle.addFirst(client);
+            }
+        }
+        if (closeClient) {
+            closeQuietly(client);
+        }
+        permits.release();
+    }
+
+    private static void closeQuietly(OnlineManagementClient client) {
+        try {
+            client.close();
+        } catch (Exception e) {
+            log.debug("Closing a pooled client failed", e);
+        }
+    }
+
+    /** Returns a snapshot of this pool's statistics. */
+    public synchronized Statistics statistics() {
+        return new Statistics(this);
+    }
+
+    /**
+     * Closes all clients in the pool. Clients that are currently borrowed are closed when they are returned.
+     * The pool can't be used after it's closed.
+     */
+    public void close() {
+        Deque<OnlineManagementClient> toClose;
+        synchronized (this) {
+            closed = true;
+            toClose = new ArrayDeque<OnlineManagementClient>(idle);
+            idle.clear();
+        }
+        for (OnlineManagementClient client : toClose) {
+            closeQuietly(client);
+        }
+    }
+
+    /** A snapshot of pool statistics. All durations are in nanoseconds. */
+    public static final class Statistics {
+        public final int maxSize;
+        /** Number of clients currently borrowed. */
+        public final int leased;
+        /** Maximum number of clients borrowed at the same time. */
+        public final int peakLeased;
+        /** Number of clients currently in the pool, ready to be borrowed. */
+        public final int idle;
+        public final long borrows;
+        /** Number of borrows that had to wait because all clients were borrowed; a measure of pool saturation. */
+        public final long borrowsThatWaited;
+        /** Total time spent in {@link #borrow()}, including waiting, health checks and creating new clients. */
+        public final long totalBorrowNanos;
+        public final long maxBorrowNanos;
+        public final long clientsCreated;
+        /** Number of clients that failed health check and were replaced. */
+        public final long clientsDiscarded;
+
+        private Statistics(OnlineManagementClientPool pool) {
+            this.maxSize = pool.maxSize;
+            this.leased = pool.leased;
+            this.peakLeased = pool.peakLeased;
+            this.idle = pool.idle.size();
+            this.borrows = pool.borrows;
+            this.borrowsThatWaited = pool.borrowsThatWaited;
+            this.totalBorrowNanos = pool.totalBorrowNanos;
+            this.maxBorrowNanos = pool.maxBorrowNanos;
+            this.clientsCreated = pool.clientsCreated;
+            this.clientsDiscarded = pool.clientsDiscarded;
+        }
+
+        public long averageBorrowNanos() {
+            return borrows == 0 ? 0 : totalBorrowNanos / borrows;
+        }
+
+        @Override
+        public String toString() {
+            return "OnlineManagementClientPool.Statistics{"
+                    + "maxSize=" + maxSize
+                    + ", leased=" + leased
+                    + ", peakLeased=" + peakLeased
+                    + ", idle=" + idle
+                    + ", borrows=" + borrows
+                    + ", borrowsThatWaited=" + borrowsThatWaited
+                    + ", averageBorrowNanos=" + averageBorrowNanos()
+                    + ", maxBorrowNanos=" + maxBorrowNanos
+                    + ", clientsCreated=" + clientsCreated
+                    + ", clientsDiscarded=" + clientsDiscarded
+                    + "}";
+        }
+    }
+
+    /** A borrowed client. Closing it returns the underlying client to the pool. */
+    private final class Lease implements OnlineManagementClient {
+        private final OnlineManagementClient delegate;
+        private ThisIsWhereTheClientWasClosed returnedAt; // != null <=> already returned to the pool
+
+        Lease(OnlineManagementClient delegate) {
+            this.delegate = delegate;
+        }
+
+        private OnlineManagementClient delegate() {
+            if (returnedAt != null) {
+                throw new ClientAlreadyClosedException(returnedAt);
+            }
+            return delegate;
+        }
+
+        @Override
+        public OnlineOptions options() {
+            return delegate().options();
+        }
+
+        @Override
+        public ServerVersion version() throws IOException {
+            return delegate().version();
+        }
+
+        @Override
+        public void apply(OnlineCommand... commands) throws CommandFailedException {
+            delegate().apply(commands);
+        }
+
+        @Override
+        public void apply(Iterable<OnlineCommand> commands) throws CommandFailedException {
+            delegate().apply(commands);
+        }
+
+        @Override
+        public ModelNodeResult execute(ModelNode operation) throws IOException {
+            return delegate().execute(operation);
+        }
+
+        @Override
+        public ModelNodeResult execute(Operation operation) throws IOException {
+            return delegate().execute(operation);
+        }
+
+        @Override
+        public ModelNodeResult execute(String operation) throws CliException, IOException {
+            return delegate().execute(operation);
+        }
+
+        @Override
+        public CompletableFuture<ModelNodeResult> executeAsync(ModelNode operation) {
+            return delegate().executeAsync(operation);
+        }
+
+        @Override
+        public CompletableFuture<ModelNodeResult> executeAsync(Operation operation) {
+            return delegate().executeAsync(operation);
+        }
+
+        @Override
+        public void executeCli(String cliOperation) throws CliException, IOException {
+            delegate().executeCli(cliOperation);
+        }
+
+        @Override
+        public void reconnect(int timeoutInSeconds) throws TimeoutException, InterruptedException {
+            // the underlying client is reconnected and returned to the pool as usual
+            delegate().reconnect(timeoutInSeconds);
+        }
+
+        @Override
+        public FailuresAllowedBlock allowFailures() throws IOException {
+            return delegate().allowFailures();
+        }
+
+        @Override
+        public void close() {
+            if (returnedAt == null) {
+                returnedAt = new ThisIsWhereTheClientWasClosed();
+                giveBack(delegate);
+            }
+        }
+    }
+}
@@ -1,9 +1,10 @@
 package org.wildfly.extras.creaper.core.online;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeoutException;
 import javax.net.ssl.SSLContext;
 import javax.security.auth.callback.Callback;
 import javax.security.auth.callback.CallbackHandler;
@@ -13,7 +14,6 @@ import javax.security.auth.callback.UnsupportedCallbackException;
 import javax.security.sasl.RealmCallback;
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.controller.client.ModelControllerClientConfiguration;
-import org.jboss.dmr.ModelNode;
 import org.wildfly.extras.creaper.core.ManagementClient;
 
 /**
@@ -33,16 +33,28 @@ public final class OnlineOptions {
     final String host;
     final int port;
     private final ManagementProtocol protocol; // this can be "null" for unspecified protocol
-    private final int connectionTimeout;
-    private final int bootTimeout;
+    final int connectionTimeout;
+    final int bootTimeout;
 
     private final String username;
     private final String password;
 
     private final boolean localAuthDisabled;
+    final boolean cliDisabled;
 
     private final SslOptions sslOptions;
 
+    private final boolean httpDmrEncoded;
+    private final int httpAsyncThreads;
+    private final int httpMaxConnectionsPerRoute;
+    private final UploadProgressListener httpUploadProgressListener;
+
+    public final boolean deferredReload;
+    public final boolean autoBatching;
+    public final boolean readCache;
+    final List<OperationListener> operationListeners;
+    final ReadinessProbe readinessProbe;
+
     private final ModelControllerClient wrappedModelControllerClient;
     final boolean isWrappedClient; // see OnlineManagementClientImpl.reconnect
 
@@ -85,7 +97,18 @@ public final class OnlineOptions {
         this.username = data.username;
         this.password = data.password;
         this.localAuthDisabled = data.localAuthDisabled;
+        this.cliDisabled = data.cliDisabled;
         this.sslOptions = data.sslOptions;
+        this.httpDmrEncoded = data.httpDmrEncoded;
+        this.httpAsyncThreads = data.httpAsyncThreads;
+        this.httpMaxConnectionsPerRoute = data.httpMaxConnectionsPerRoute;
+        this.httpUploadProgressListener = data.httpUploadProgressListener;
+        this.deferredReload = data.deferredReload;
+        this.autoBatching = data.autoBatching;
+        this.readCache = data.readCache;
+        this.operationListeners = Collections.unmodifiableList(
+                new ArrayList<OperationListener>(data.operationListeners));
+        this.readinessProbe = data.readinessProbe != null ? data.readinessProbe : TcpReadinessProbe.INSTANCE;
         this.wrappedModelControllerClient = data.wrappedModelControllerClient;
         this.isWrappedClient = data.wrappedModelControllerClient != null;
 
@@ -118,9 +141,21 @@ public final class OnlineOptions {
         private String password;
 
         private boolean localAuthDisabled;
+        private boolean cliDisabled;
 
         private SslOptions sslOptions;
 
+        private boolean httpDmrEncoded;
+        private int httpAsyncThreads = HttpModelControllerClient.DEFAULT_ASYNC_THREADS;
+        private int httpMaxConnectionsPerRoute = HttpModelControllerClient.DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+        private UploadProgressListener httpUploadProgressListener;
+
+        private boolean deferredReload;
+        private boolean autoBatching;
+        private boolean readCache;
+        private final List<OperationListener> operationListeners = new ArrayList<OperationListener>();
+        private ReadinessProbe readinessProbe;
+
         private ModelControllerClient wrappedModelControllerClient;
     }
 
@@ -281,6 +316,17 @@ public final class OnlineOptions {
             return this;
         }
 
+        /**
+         * Never load the JBoss CLI. The CLI is only needed for {@link OnlineManagementClient#execute(String)} and
+         * {@link OnlineManagementClient#executeCli(String)}, which will throw {@link CliException} with this option.
+         * The CLI is only initialized on first use anyway, so this is mostly useful to make sure that it's never
+         * loaded by accident, e.g. by a command that uses a CLI operation. Optional.
+         */
+        public OptionalOnlineOptions disableCli() {
+            data.cliDisabled = true;
+            return this;
+        }
+
         /** SSL/TLS connection settings. Optional. */
         public OptionalOnlineOptions ssl(SslOptions sslOptions) {
             data.sslOptions = sslOptions;
@@ -342,6 +388,154 @@ public final class OnlineOptions {
             return this;
         }
 
+        /**
+         * <p>Use the binary {@code application/dmr-encoded} format instead of JSON for exchanging operations and
+         * results when the {@link ManagementProtocol#HTTP HTTP} or {@link ManagementProtocol#HTTPS HTTPS} protocol
+         * is used. Optional. The binary format is more compact and faster to decode, which matters for large
+         * results such as recursive {@code read-resource} with runtime attributes.</p>
+         *
+         * <p>This has no effect for other protocols, which always use the binary format.</p>
+         */
+        public OptionalOnlineOptions httpDmrEncoded() {
+            data.httpDmrEncoded = true;
+            return this;
+        }
+
+        /**
+         * <p>Maximum number of threads that perform asynchronous operations when the
+         * {@link ManagementProtocol#HTTP HTTP} or {@link ManagementProtocol#HTTPS HTTPS} protocol is used. Optional.
+         * By default, {@code 4} threads are used. Asynchronous operations that are submitted when all threads are busy
+         * wait in a queue.</p>
+         *
+         * <p>This has no effect for other protocols, which are asynchronous by nature.</p>
+         */
+        public OptionalOnlineOptions httpAsyncThreads(int threads) {
+            if (threads <= 0) {
+                throw new IllegalArgumentException("Number of threads must be positive");
+            }
+
+            data.httpAsyncThreads = threads;
+            return this;
+        }
+
+        /**
+         * <p>Maximum number of HTTP connections to the server that are kept open when the
+         * {@link ManagementProtocol#HTTP HTTP} or {@link ManagementProtocol#HTTPS HTTPS} protocol is used. Optional.
+         * By default, at most {@code 4} connections are opened. This limits the number of operations that can be
+         * performed concurrently, so it makes sense to keep it in sync with {@link #httpAsyncThreads(int)}.</p>
+         *
+         * <p>This has no effect for other protocols.</p>
+         */
+        public OptionalOnlineOptions httpMaxConnectionsPerRoute(int maxConnections) {
+            if (maxConnections <= 0) {
+                throw new IllegalArgumentException("Maximum number of connections must be positive");
+            }
+
+            data.httpMaxConnectionsPerRoute = maxConnections;
+            return this;
+        }
+
+        /**
+         * <p>Listener that is notified about the progress of uploading operation attachments (such as deployment
+         * content) when the {@link ManagementProtocol#HTTP HTTP} or {@link ManagementProtocol#HTTPS HTTPS} protocol
+         * is used. Optional.</p>
+         *
+         * <p>This has no effect for other protocols.</p>
+         */
+        public OptionalOnlineOptions httpUploadProgressListener(UploadProgressListener listener) {
+            if (listener == null) {
+                throw new IllegalArgumentException("Upload progress listener must be set");
+            }
+
+            data.httpUploadProgressListener = listener;
+            return this;
+        }
+
+        /**
+         * <p>Commands that require a server reload (typically because they add or remove a resource that requires
+         * reload) don't reload the server immediately. Instead, the reload is performed at most once, at the end of
+         * each {@link OnlineManagementClient#apply(Iterable) apply} call. This saves a lot of time when applying
+         * many such commands, e.g. when configuring Elytron. Optional.</p>
+         *
+         * <p>The server is still reloaded immediately when a command needs the reloaded state to continue, such as
+         * when it removes an existing resource before adding it again. See
+         * {@link OnlineCommandContext#reloadIfRequired()} for details. If a command fails, the deferred reload
+         * is <b>not</b> performed.</p>
+         */
+        public OptionalOnlineOptions deferredReload() {
+            data.deferredReload = true;
+            return this;
+        }
+
+        /**
+         * <p>Write operations (such as {@code add}, {@code remove} or {@code write-attribute}) performed by commands
+         * in an {@link OnlineManagementClient#apply(Iterable) apply} call are not sent to the server immediately.
+         * Instead, they are recorded and sent together as a single {@code composite} operation, which saves a lot
+         * of round trips when applying many simple commands. Optional.</p>
+         *
+         * <p>The recorded operations are sent before any other operation is performed (typically a read, whose
+         * result the command is going to inspect), before entering a
+         * {@link OnlineManagementClient#allowFailures() failures-allowed block} and at the end of the {@code apply}
+         * call. Commands that never read anything are therefore batched with each other; a command that reads
+         * the server state always sees the effects of previous commands.</p>
+         *
+         * <p>Caveats: the result of a recorded operation is always a synthetic success with no value. When
+         * an operation fails, the entire composite is rolled back, including operations of previous commands,
+         * and the failure is reported for the command that recorded the failed operation. Operations with
+         * {@code operation-headers} and operations inside a failures-allowed block are never recorded.</p>
+         */
+        public OptionalOnlineOptions autoBatching() {
+            data.autoBatching = true;
+            return this;
+        }
+
+        /**
+         * <p>Results of {@code read-resource} and {@code read-children-names} operations performed by commands
+         * in an {@link OnlineManagementClient#apply(Iterable) apply} call are remembered until the end of that call,
+         * so that reading the same resource again (typically via
+         * {@link org.wildfly.extras.creaper.core.online.operations.Operations#exists(
+         * org.wildfly.extras.creaper.core.online.operations.Address) Operations.exists}) doesn't need a round trip.
+         * Optional.</p>
+         *
+         * <p>Write operations performed through the client invalidate remembered results for the same resource,
+         * its descendants and ancestors. Reads that include runtime values are never remembered. Caveat: changes
+         * made by anything else than the commands in the {@code apply} call (e.g. another client) aren't noticed.
+         * The number of reads answered from the cache is available in
+         * {@link OnlineCommandContext#readCacheHits()}.</p>
+         */
+        public OptionalOnlineOptions readCache() {
+            data.readCache = true;
+            return this;
+        }
+
+        /**
+         * Registers a listener that gets notified about every management operation executed and every command
+         * applied by the client, e.g. {@link OperationStatistics}. Optional; can be called multiple times to register
+         * multiple listeners. When no listener is registered, no instrumentation overhead is incurred.
+         */
+        public OptionalOnlineOptions operationListener(OperationListener listener) {
+            if (listener == null) {
+                throw new IllegalArgumentException("Operation listener must be set");
+            }
+
+            data.operationListeners.add(listener);
+            return this;
+        }
+
+        /**
+         * A cheap check that is performed before each attempt to connect when the client is
+         * {@link OnlineManagementClient#reconnect(int) reconnecting}. Optional. By default, a plain TCP connection
+         * to the management port is opened and immediately closed.
+         */
+        public OptionalOnlineOptions readinessProbe(ReadinessProbe probe) {
+            if (probe == null) {
+                throw new IllegalArgumentException("Readiness probe must be set");
+            }
+
+            data.readinessProbe = probe;
+            return this;
+        }
+
         /** Build the final {@code OnlineOptions}. */
         public OnlineOptions build() {
             return new OnlineOptions(data);
@@ -389,28 +583,13 @@ public final class OnlineOptions {
             sslContext = sslOptions.createSslContext();
         }
 
-        ModelControllerClient modelControllerClient;
-
         if (protocol == ManagementProtocol.HTTP || protocol == ManagementProtocol.HTTPS) {
-            modelControllerClient = new HttpModelControllerClient(host, port, username, password, connectionTimeout,
-                    sslOptions);
-            try {
-                connectAndWaitUntilServerBoots(modelControllerClient, connectionTimeout, bootTimeout);
-            } catch (Exception e) {
-                modelControllerClient.close();
-
-                if (e instanceof IOException) {
-                    throw (IOException) e;
-                } else if (e instanceof IllegalStateException) {
-                    throw (IllegalStateException) e;
-                } else {
-                    throw new IllegalStateException(e);
-                }
-            }
-            return modelControllerClient;
+            return new HttpModelControllerClient(host, port, username, password, connectionTimeout,
+                    sslOptions, httpDmrEncoded, httpAsyncThreads, httpMaxConnectionsPerRoute,
+                    httpUploadProgressListener);
         }
 
-        modelControllerClient = ModelControllerClient.Factory.create(new ModelControllerClientConfiguration.Builder()
+        return ModelControllerClient.Factory.create(new ModelControllerClientConfiguration.Builder()
                 .setProtocol(protocol != null ? protocol.protocolName() : null)
                 .setHostName(host)
                 .setPort(port)
@@ -418,72 +597,6 @@ public final class OnlineOptions {
                 .setConnectionTimeout(connectionTimeout)
                 .setSaslOptions(saslOptions)
                 .setHandler(callbackHandler).build());
-
-        try {
-            connectAndWaitUntilServerBoots(modelControllerClient, connectionTimeout, bootTimeout);
-        } catch (Exception e) {
-            modelControllerClient.close();
-
-            if (e instanceof IOException) {
-                throw (IOException) e;
-            } else if (e instanceof IllegalStateException) {
-                throw (IllegalStateException) e;
-            } else {
-                throw new IllegalStateException(e);
-            }
-        }
-
-        return modelControllerClient;
-    }
-
-    private static void connectAndWaitUntilServerBoots(ModelControllerClient client, int connectionTimeoutInMillis,
-                                                       int bootTimeoutInMillis)
-            throws IOException, InterruptedException, TimeoutException {
-        ModelNode op = new ModelNode();
-        op.get(Constants.OP).set(Constants.WHOAMI);
-        op.get(Constants.OP_ADDR).setEmptyList();
-
-        long endTime = System.currentTimeMillis() + connectionTimeoutInMillis;
-        while (System.currentTimeMillis() < endTime) {
-            try {
-                client.execute(op);
-                break;
-            } catch (IOException e) {
-                // server is probably not up yet, keep waiting
-                Thread.sleep(100);
-            }
-        }
-
-        endTime = System.currentTimeMillis() + bootTimeoutInMillis;
-        while (System.currentTimeMillis() < endTime) {
-            ModelNodeResult result = new ModelNodeResult(client.execute(op));
-
-            if (result.isSuccess()) {
-                return;
-            }
-
-            boolean stillBooting = false;
-
-            String failureDescription = result.get(Constants.FAILURE_DESCRIPTION).asString();
-            for (String code : Constants.RESULT_CODES_FOR_BOOT_IN_PROGRESS) {
-                if (failureDescription.startsWith(code)) {
-                    stillBooting = true;
-                    break;
-                }
-            }
-
-            if (stillBooting) {
-                Thread.sleep(100);
-            } else {
-                // shouldn't happen
-                throw new IllegalStateException("Unknown server state: " + failureDescription);
-            }
-        }
-
-        ModelNodeResult result = new ModelNodeResult(client.execute(op));
-        if (!result.isSuccess()) {
-            throw new TimeoutException("Waiting for server to boot timed out");
-        }
     }
 
     static {
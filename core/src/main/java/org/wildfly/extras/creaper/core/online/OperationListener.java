@@ -0,0 +1,125 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * <p>Gets notified about every management operation executed by an {@link OnlineManagementClient} and about every
+ * command applied by it. Listeners are registered using
+ * {@link OnlineOptions.OptionalOnlineOptions#operationListener(OperationListener)}; {@link OperationStatistics}
+ * is a built-in listener that collects latency histograms.</p>
+ *
+ * <p>Listeners are called synchronously, on the thread that executed the operation (or on the thread that completed
+ * an asynchronous operation), so they should be fast. Exceptions thrown by listeners are logged and otherwise
+ * ignored. Note that operations executed using {@link OnlineManagementClient#executeCli(String) executeCli} are
+ * handled by the CLI internally and aren't reported.</p>
+ */
+public interface OperationListener {
+    void operationExecuted(OperationEvent event);
+
+    /**
+     * Note that with {@link OnlineOptions.OptionalOnlineOptions#autoBatching() autoBatching}, the time spent
+     * performing write operations is mostly attributed to the command that sends the batch, not to the command
+     * that recorded the operations.
+     */
+    void commandApplied(CommandEvent event);
+
+    final class OperationEvent {
+        // the values of these address keys are types rather than names, so they are kept in the address pattern
+        private static final Set<String> TYPE_ADDRESS_KEYS = new HashSet<String>(Arrays.asList(
+                Constants.SUBSYSTEM, Constants.CORE_SERVICE, Constants.PLATFORM_MBEAN
+        ));
+
+        public final String operationName;
+        /**
+         * Address of the operation with names of resources replaced by {@code *}, for example
+         * {@code /subsystem=logging/logger=*}, so that operations on different resources of the same type
+         * can be grouped together.
+         */
+        public final String addressPattern;
+        /**
+         * {@code success} or {@code failed} (the {@code outcome} of the result), or {@code null} if the operation
+         * didn't return a result because an exception was thrown.
+         */
+        public final String outcome;
+        /** Size of the operation in the DMR binary format, in bytes. */
+        public final long requestSize;
+        /** Size of the result in the DMR binary format, in bytes; 0 if there's no result. */
+        public final long responseSize;
+        public final long durationNanos;
+
+        OperationEvent(ModelNode operation, ModelNode result, long durationNanos) {
+            this.operationName = operation.hasDefined(Constants.OP) ? operation.get(Constants.OP).asString() : "";
+            this.addressPattern = addressPattern(operation);
+            this.outcome = result != null && result.hasDefined(Constants.OUTCOME)
+                    ? result.get(Constants.OUTCOME).asString() : null;
+            this.requestSize = sizeOf(operation);
+            this.responseSize = result != null ? sizeOf(result) : 0;
+            this.durationNanos = durationNanos;
+        }
+
+        private static String addressPattern(ModelNode operation) {
+            StringBuilder result = new StringBuilder();
+            if (operation.hasDefined(Constants.OP_ADDR)) {
+                for (Property property : operation.get(Constants.OP_ADDR).asPropertyList()) {
+                    result.append('/').append(property.getName()).append('=');
+                    result.append(TYPE_ADDRESS_KEYS.contains(property.getName())
+                            ? property.getValue().asString() : "*");
+                }
+            }
+            return result.length() == 0 ? "/" : result.toString();
+        }
+
+        private static long sizeOf(ModelNode node) {
+            final long[] count = new long[1];
+            OutputStream counter = new OutputStream() {
+                @Override
+                public void write(int b) {
+                    count[0]++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    count[0] += len;
+                }
+            };
+            try {
+                node.writeExternal(new DataOutputStream(counter));
+            } catch (IOException e) {
+                // can't happen, nothing is actually written
+            }
+            return count[0];
+        }
+
+        @Override
+        public String toString() {
+            return operationName + " " + addressPattern + ": " + outcome + " in " + durationNanos + " ns, "
+                    + requestSize + " B request, " + responseSize + " B response";
+        }
+    }
+
+    final class CommandEvent {
+        public final OnlineCommand command;
+        public final long durationNanos;
+        /** Why the command failed, or {@code null} if it succeeded. */
+        public final Throwable failure;
+
+        CommandEvent(OnlineCommand command, long durationNanos, Throwable failure) {
+            this.command = command;
+            this.durationNanos = durationNanos;
+            this.failure = failure;
+        }
+
+        @Override
+        public String toString() {
+            return command + ": " + (failure == null ? "success" : "failed") + " in " + durationNanos + " ns";
+        }
+    }
+}
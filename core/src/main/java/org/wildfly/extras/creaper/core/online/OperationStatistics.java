@@ -0,0 +1,249 @@
+package org.wildfly.extras.creaper.core.online;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>An {@link OperationListener} that collects latency histograms of management operations, grouped by operation
+ * name and {@link OperationListener.OperationEvent#addressPattern address pattern}, and of commands, grouped by
+ * the command class. A single instance can be shared by multiple clients, it's thread-safe.</p>
+ *
+ * <pre>
+ * OperationStatistics statistics = new OperationStatistics();
+ * OnlineManagementClient client = ManagementClient.online(OnlineOptions.standalone()
+ *         .localDefault()
+ *         .operationListener(statistics)
+ *         .build());
+ * ...
+ * System.out.println(statistics.report());
+ * </pre>
+ */
+public final class OperationStatistics implements OperationListener {
+    private final Map<String, Histogram> operations = new HashMap<String, Histogram>();
+    private final Map<String, Histogram> commands = new HashMap<String, Histogram>();
+    private long requestBytes;
+    private long responseBytes;
+    private long failedOperations;
+
+    @Override
+    public synchronized void operationExecuted(OperationEvent event) {
+        histogram(operations, event.operationName + " " + event.addressPattern).record(event.durationNanos);
+        requestBytes += event.requestSize;
+        responseBytes += event.responseSize;
+        if (!Constants.SUCCESS.equals(event.outcome)) {
+            failedOperations++;
+        }
+    }
+
+    @Override
+    public synchronized void commandApplied(CommandEvent event) {
+        Class<?> commandClass = event.command.getClass();
+        String name = commandClass.getSimpleName().isEmpty() ? commandClass.getName() : commandClass.getSimpleName();
+        histogram(commands, name).record(event.durationNanos);
+    }
+
+    private static Histogram histogram(Map<String, Histogram> histograms, String key) {
+        Histogram histogram = histograms.get(key);
+        if (histogram == null) {
+            histogram = new Histogram();
+            histograms.put(key, histogram);
+        }
+        return histogram;
+    }
+
+    /** Returns a snapshot of operation latencies, keyed by operation name and address pattern. */
+    public synchronized Map<String, Histogram> operations() {
+        return snapshot(operations);
+    }
+
+    /** Returns a snapshot of command latencies, keyed by command class name. */
+    public synchronized Map<String, Histogram> commands() {
+        return snapshot(commands);
+    }
+
+    /** Returns a snapshot ordered by total time, from the largest. */
+    private static Map<String, Histogram> snapshot(Map<String, Histogram> histograms) {
+        List<Map.Entry<String, Histogram>> entries = new ArrayList<Map.Entry<String, Histogram>>(histograms.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, Histogram>>() {
+            @Override
+            public int compare(Map.Entry<String, Histogram> o1, Map.Entry<String, Histogram> o2) {
+                return Long.compare(o2.getValue().totalNanos(), o1.getValue().totalNanos());
+            }
+        });
+
+        Map<String, Histogram> result = new LinkedHashMap<String, Histogram>();
+        for (Map.Entry<String, Histogram> entry : entries) {
+            result.put(entry.getKey(), entry.getValue().copy());
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /** Removes all collected data. */
+    public synchronized void reset() {
+        operations.clear();
+        commands.clear();
+        requestBytes = 0;
+        responseBytes = 0;
+        failedOperations = 0;
+    }
+
+    /**
+     * Returns a human-readable summary: latencies of commands and operations (ordered by total time spent,
+     * so that the biggest opportunities are first) and total amount of data transferred.
+     */
+    public synchronized String report() {
+        StringBuilder result = new StringBuilder();
+        result.append("Commands:\n");
+        appendTable(result, snapshot(commands));
+        result.append("Operations:\n");
+        appendTable(result, snapshot(operations));
+        result.append(String.format(Locale.ROOT, "%d failed operations, %d bytes sent, %d bytes received%n",
+                failedOperations, requestBytes, responseBytes));
+        return result.toString();
+    }
+
+    private static void appendTable(StringBuilder result, Map<String, Histogram> histograms) {
+        result.append(String.format(Locale.ROOT, "  %8s %10s %9s %9s %9s %9s %9s  %s%n",
+                "count", "total ms", "mean ms", "p50 ms", "p90 ms", "p99 ms", "max ms", "name"));
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            result.append(String.format(Locale.ROOT, "  %8d %10.1f %9.3f %9.3f %9.3f %9.3f %9.3f  %s%n",
+                    histogram.count(),
+                    millis(histogram.totalNanos()),
+                    millis(histogram.meanNanos()),
+                    millis(histogram.percentileNanos(50)),
+                    millis(histogram.percentileNanos(90)),
+                    millis(histogram.percentileNanos(99)),
+                    millis(histogram.maxNanos()),
+                    entry.getKey()));
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return report();
+    }
+
+    /**
+     * <p>A latency histogram with logarithmic buckets, in the style of HdrHistogram. Values below 64 ns are recorded
+     * exactly; larger values are recorded into buckets whose width is 1/32 of the bucket's lower bound, so that
+     * the relative error of percentiles is at most about 3 %, regardless of the magnitude. Memory usage is fixed
+     * (about 15 kB) and recording is constant time.</p>
+     *
+     * <p>This class is not thread-safe; {@link OperationStatistics} only exposes copies.</p>
+     */
+    public static final class Histogram {
+        private static final int EXACT_VALUES = 64;
+        private static final int SUB_BUCKET_BITS = 5;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; // 32
+
+        private final long[] counts;
+        private long count;
+        private long totalNanos;
+        private long minNanos = Long.MAX_VALUE;
+        private long maxNanos;
+
+        Histogram() {
+            this.counts = new long[index(Long.MAX_VALUE) + 1];
+        }
+
+        private Histogram(Histogram original) {
+            this.counts = original.counts.clone();
+            this.count = original.count;
+            this.totalNanos = original.totalNanos;
+            this.minNanos = original.minNanos;
+            this.maxNanos = original.maxNanos;
+        }
+
+        Histogram copy() {
+            return new Histogram(this);
+        }
+
+        private static int index(long value) {
+            if (value < EXACT_VALUES) {
+                return (int) value;
+            }
+            int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS; // >= 1
+            int subBucket = (int) (value >>> shift) - SUB_BUCKETS; // 0 .. SUB_BUCKETS - 1
+            return EXACT_VALUES + (shift - 1) * SUB_BUCKETS + subBucket;
+        }
+
+        /** The middle of the bucket with given index. */
+        private static long valueAt(int index) {
+            if (index < EXACT_VALUES) {
+                return index;
+            }
+            int shift = (index - EXACT_VALUES) / SUB_BUCKETS + 1;
+            long subBucket = (index - EXACT_VALUES) % SUB_BUCKETS + SUB_BUCKETS;
+            return (subBucket << shift) + (1L << (shift - 1));
+        }
+
+        void record(long nanos) {
+            if (nanos < 0) {
+                nanos = 0;
+            }
+            counts[index(nanos)]++;
+            count++;
+            totalNanos += nanos;
+            minNanos = Math.min(minNanos, nanos);
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public long totalNanos() {
+            return totalNanos;
+        }
+
+        public long meanNanos() {
+            return count == 0 ? 0 : totalNanos / count;
+        }
+
+        public long minNanos() {
+            return count == 0 ? 0 : minNanos;
+        }
+
+        public long maxNanos() {
+            return maxNanos;
+        }
+
+        /** @param percentile between 0 and 100 */
+        public long percentileNanos(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+
+            long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            if (target >= count) {
+                return maxNanos;
+            }
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                if (cumulative >= target) {
+                    return Math.max(minNanos, Math.min(maxNanos, valueAt(i)));
+                }
+            }
+            return maxNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "count=%d, mean=%d ns, p50=%d ns, p99=%d ns, max=%d ns",
+                    count, meanNanos(), percentileNanos(50), percentileNanos(99), maxNanos);
+        }
+    }
+}
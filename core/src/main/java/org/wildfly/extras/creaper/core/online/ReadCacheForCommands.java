@@ -0,0 +1,296 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.as.controller.client.Operation;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.ServerVersion;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * <p>Remembers results of {@code read-resource} and {@code read-children-names} operations performed by commands
+ * in a single {@code apply} call, so that repeatedly reading the same resource (typically to find out if it
+ * {@link org.wildfly.extras.creaper.core.online.operations.Operations#exists(
+ * org.wildfly.extras.creaper.core.online.operations.Address) exists}) only costs one round trip. Used when
+ * {@link OnlineOptions.OptionalOnlineOptions#readCache() readCache} is enabled, on top of all other wrappers.</p>
+ *
+ * <p>Write operations invalidate the results they could affect:</p>
+ *
+ * <ul>
+ * <li>{@code add} and {@code remove} invalidate all results for the resource, its descendants and recursive
+ *     results for its ancestors; non-recursive {@code read-resource} results of the parent are updated
+ *     to include or exclude the child, so that knowing that the parent exists survives adding many children</li>
+ * <li>attribute writes ({@code write-attribute}, {@code map-put} etc.) invalidate results for the resource
+ *     and recursive results for its ancestors</li>
+ * <li>any other operation, including all operations that aren't simple DMR operations (CLI, operations
+ *     with attachments, nested {@code apply} calls, reconnect), invalidates everything</li>
+ * </ul>
+ *
+ * <p>Failed results (e.g. "resource not found") are only reused inside a failures-allowed block, so that
+ * automatic error handling works the same for cached results.</p>
+ */
+final class ReadCacheForCommands implements OnlineManagementClient {
+    private static final Set<String> CACHEABLE_OPERATIONS = new HashSet<String>(Arrays.asList(
+            Constants.READ_RESOURCE_OPERATION,
+            Constants.READ_CHILDREN_NAMES_OPERATION
+    ));
+
+    private static final Set<String> ATTRIBUTE_WRITE_OPERATIONS = new HashSet<String>(Arrays.asList(
+            Constants.WRITE_ATTRIBUTE_OPERATION,
+            Constants.UNDEFINE_ATTRIBUTE_OPERATION,
+            "map-put", "map-remove", "map-clear",
+            "list-add", "list-remove", "list-clear"
+    ));
+
+    private final OnlineManagementClient delegate;
+    private final Map<ModelNode, CachedRead> cache = new HashMap<ModelNode, CachedRead>();
+
+    private int failuresAllowedDepth;
+    private long hits;
+    private long misses;
+
+    ReadCacheForCommands(OnlineManagementClient delegate) {
+        this.delegate = delegate;
+    }
+
+    long hits() {
+        return hits;
+    }
+
+    long misses() {
+        return misses;
+    }
+
+    private static boolean isCacheable(ModelNode operation) {
+        return operation.hasDefined(Constants.OP)
+                && CACHEABLE_OPERATIONS.contains(operation.get(Constants.OP).asString())
+                && !isTrue(operation, Constants.INCLUDE_RUNTIME); // runtime values can change at any time
+    }
+
+    private static boolean isReadOnly(ModelNode operation) {
+        if (!operation.hasDefined(Constants.OP)) {
+            return false;
+        }
+        String name = operation.get(Constants.OP).asString();
+        return name.startsWith("read-") || Constants.WHOAMI.equals(name);
+    }
+
+    private static boolean isRecursive(ModelNode operation) {
+        return isTrue(operation, Constants.RECURSIVE)
+                || operation.hasDefined(Constants.RECURSIVE_DEPTH)
+                && operation.get(Constants.RECURSIVE_DEPTH).asInt() > 0;
+    }
+
+    private static boolean isTrue(ModelNode operation, String parameter) {
+        return operation.hasDefined(parameter) && operation.get(parameter).asBoolean();
+    }
+
+    private static List<Property> address(ModelNode operation) {
+        if (!operation.hasDefined(Constants.OP_ADDR)) {
+            return new ArrayList<Property>();
+        }
+        return operation.get(Constants.OP_ADDR).asPropertyList();
+    }
+
+    /** Whether {@code address} is {@code prefix} or a descendant of it. */
+    private static boolean startsWith(List<Property> address, List<Property> prefix) {
+        if (address.size() < prefix.size()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.size(); i++) {
+            Property a = address.get(i);
+            Property b = prefix.get(i);
+            if (!a.getName().equals(b.getName()) || !a.getValue().asString().equals(b.getValue().asString())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void invalidate(ModelNode operation, ModelNodeResult result) {
+        String name = operation.hasDefined(Constants.OP) ? operation.get(Constants.OP).asString() : "";
+        boolean isAddOrRemove = Constants.ADD.equals(name) || Constants.REMOVE_OPERATION.equals(name);
+        if (!isAddOrRemove && !ATTRIBUTE_WRITE_OPERATIONS.contains(name)) {
+            cache.clear();
+            return;
+        }
+
+        List<Property> address = address(operation);
+        boolean succeeded = result != null && result.isSuccess();
+
+        Iterator<CachedRead> iterator = cache.values().iterator();
+        while (iterator.hasNext()) {
+            CachedRead cached = iterator.next();
+
+            if (startsWith(cached.address, address)) {
+                // the resource itself or its descendant
+                if (isAddOrRemove || cached.address.size() == address.size()) {
+                    iterator.remove();
+                }
+            } else if (startsWith(address, cached.address)) {
+                // an ancestor
+                if (cached.recursive || !cached.result.isSuccess()) {
+                    iterator.remove();
+                } else if (isAddOrRemove && cached.address.size() == address.size() - 1) {
+                    // the parent, whose read-resource lists names of children
+                    if (succeeded && cached.isReadResource) {
+                        updateChildren(cached.result.get(Constants.RESULT), address.get(address.size() - 1),
+                                Constants.ADD.equals(name));
+                    } else {
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    /** Adds or removes the {@code child} from the list of children in a non-recursive {@code read-resource} result. */
+    private static void updateChildren(ModelNode resource, Property child, boolean added) {
+        if (!resource.has(child.getName())) {
+            return; // children not listed at all, e.g. attributes-only
+        }
+
+        ModelNode children = resource.get(child.getName());
+        String childName = child.getValue().asString();
+        if (added) {
+            children.get(childName);
+        } else if (children.has(childName)) {
+            children.remove(childName);
+        }
+    }
+
+    @Override
+    public OnlineOptions options() {
+        return delegate.options();
+    }
+
+    @Override
+    public ServerVersion version() throws IOException {
+        return delegate.version();
+    }
+
+    @Override
+    public void apply(OnlineCommand... commands) throws CommandFailedException {
+        apply(Arrays.asList(commands));
+    }
+
+    @Override
+    public void apply(Iterable<OnlineCommand> commands) throws CommandFailedException {
+        try {
+            delegate.apply(commands);
+        } finally {
+            cache.clear();
+        }
+    }
+
+    @Override
+    public ModelNodeResult execute(ModelNode operation) throws IOException {
+        if (isCacheable(operation)) {
+            CachedRead cached = cache.get(operation);
+            if (cached != null && (cached.result.isSuccess() || failuresAllowedDepth > 0)) {
+                hits++;
+                return new ModelNodeResult(cached.result);
+            }
+
+            misses++;
+            ModelNodeResult result = delegate.execute(operation);
+            cache.put(operation.clone(), new CachedRead(operation, new ModelNodeResult(result)));
+            return result;
+        }
+
+        if (isReadOnly(operation)) {
+            return delegate.execute(operation);
+        }
+
+        ModelNodeResult result = null;
+        try {
+            result = delegate.execute(operation);
+            return result;
+        } finally {
+            invalidate(operation, result);
+        }
+    }
+
+    @Override
+    public ModelNodeResult execute(Operation operation) throws IOException {
+        cache.clear();
+        return delegate.execute(operation);
+    }
+
+    @Override
+    public ModelNodeResult execute(String operation) throws CliException, IOException {
+        cache.clear();
+        return delegate.execute(operation);
+    }
+
+    @Override
+    public CompletableFuture<ModelNodeResult> executeAsync(ModelNode operation) {
+        if (!isReadOnly(operation)) {
+            cache.clear();
+        }
+        return delegate.executeAsync(operation);
+    }
+
+    @Override
+    public CompletableFuture<ModelNodeResult> executeAsync(Operation operation) {
+        cache.clear();
+        return delegate.executeAsync(operation);
+    }
+
+    @Override
+    public void executeCli(String cliOperation) throws CliException, IOException {
+        cache.clear();
+        delegate.executeCli(cliOperation);
+    }
+
+    @Override
+    public void reconnect(int timeoutInSeconds) throws TimeoutException, InterruptedException {
+        cache.clear();
+        delegate.reconnect(timeoutInSeconds);
+    }
+
+    @Override
+    public FailuresAllowedBlock allowFailures() throws IOException {
+        final FailuresAllowedBlock delegateBlock = delegate.allowFailures();
+        failuresAllowedDepth++;
+
+        return new FailuresAllowedBlock() {
+            @Override
+            public void close() throws IOException {
+                failuresAllowedDepth--;
+                delegateBlock.close();
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        cache.clear();
+        delegate.close();
+    }
+
+    private static final class CachedRead {
+        final List<Property> address;
+        final boolean isReadResource;
+        final boolean recursive;
+        final ModelNodeResult result;
+
+        CachedRead(ModelNode operation, ModelNodeResult result) {
+            this.address = address(operation);
+            this.isReadResource = Constants.READ_RESOURCE_OPERATION.equals(operation.get(Constants.OP).asString());
+            this.recursive = isRecursive(operation);
+            this.result = result;
+        }
+    }
+}
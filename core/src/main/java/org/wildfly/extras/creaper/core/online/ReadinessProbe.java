@@ -0,0 +1,19 @@
+package org.wildfly.extras.creaper.core.online;
+
+/**
+ * <p>A cheap check whether the server is able to accept management connections. When the
+ * {@link OnlineManagementClient} is {@link OnlineManagementClient#reconnect(int) reconnecting} (typically while
+ * waiting for the server to come back after reload or restart), the probe is used before each attempt to connect.
+ * Connecting is relatively expensive, so it's only attempted when the probe succeeds.</p>
+ *
+ * <p>The default probe opens a plain TCP connection to the management port and closes it immediately. A custom
+ * probe can be set using {@link OnlineOptions.OptionalOnlineOptions#readinessProbe(ReadinessProbe)}.</p>
+ */
+public interface ReadinessProbe {
+    /**
+     * Returns whether the server's management interface at given {@code host} and {@code port} is likely to accept
+     * connections. This is called repeatedly, so it should return quickly (in the order of milliseconds)
+     * and it must not throw exceptions.
+     */
+    boolean isReady(String host, int port);
+}
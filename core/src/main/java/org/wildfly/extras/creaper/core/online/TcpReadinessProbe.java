@@ -0,0 +1,31 @@
+package org.wildfly.extras.creaper.core.online;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/** The default {@link ReadinessProbe} that checks whether the management port accepts TCP connections. */
+final class TcpReadinessProbe implements ReadinessProbe {
+    static final TcpReadinessProbe INSTANCE = new TcpReadinessProbe();
+
+    private static final int CONNECT_TIMEOUT_IN_MILLIS = 1000;
+
+    private TcpReadinessProbe() {
+    }
+
+    @Override
+    public boolean isReady(String host, int port) {
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_IN_MILLIS);
+            return true;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
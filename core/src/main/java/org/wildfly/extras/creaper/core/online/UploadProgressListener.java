@@ -0,0 +1,20 @@
+package org.wildfly.extras.creaper.core.online;
+
+/**
+ * <p>Gets notified about the progress of uploading operation attachments (such as deployment content) when
+ * the {@link ManagementProtocol#HTTP HTTP} or {@link ManagementProtocol#HTTPS HTTPS} protocol is used. Registered
+ * using {@link OnlineOptions.OptionalOnlineOptions#httpUploadProgressListener(UploadProgressListener)}.</p>
+ *
+ * <p>The listener is called on the thread that performs the upload, roughly after each megabyte sent and after
+ * each attachment is sent completely. The total size of attachments is generally not known in advance, because
+ * they are provided as {@code InputStream}s.</p>
+ */
+public interface UploadProgressListener {
+    /**
+     * @param attachmentIndex index of the attachment that is being sent (same as the {@code input-stream-index}
+     * used in the operation)
+     * @param attachmentBytesSent number of bytes of this attachment sent so far
+     * @param attachmentFinished whether the attachment has been sent completely
+     */
+    void uploadProgress(int attachmentIndex, long attachmentBytesSent, boolean attachmentFinished);
+}
@@ -3,10 +3,6 @@ package org.wildfly.extras.creaper.core.online.operations;
 import org.jboss.dmr.ModelNode;
 import org.wildfly.extras.creaper.core.online.Constants;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 /**
  * <p>An address in the management tree. It is a sequence of string pairs ({@code key=value}), possibly empty. This
  * class is immutable and its only public API consists of various ways of <i>creating</i> an address and method for
@@ -34,10 +30,20 @@ import java.util.List;
  * {@code Address.of("foo", "bar").and("baz", "quux")}</p>
  */
 public final class Address {
-    private final List<StringPair> address;
+    private static final Address ROOT = new Address(null, null, null);
+
+    // a persistent linked list (the last pair points to the previous one), so that and() doesn't need to copy
+    // the whole address; the root address is the empty list
+    private final Address parent;
+    private final String key;
+    private final String value;
+    private final int size;
+
+    // lazily computed, protected against modifications
+    private volatile ModelNode modelNode;
 
     public static Address root() {
-        return new Address(Collections.<StringPair>emptyList());
+        return ROOT;
     }
 
     public static Address extension(String extension) {
@@ -65,24 +71,34 @@ public final class Address {
     }
 
     public static Address of(String key, String value) {
-        return new Address(Collections.singletonList(new StringPair(key, value)));
+        return ROOT.and(key, value);
     }
 
-    private Address(List<StringPair> address) {
-        this.address = Collections.unmodifiableList(address);
+    private Address(Address parent, String key, String value) {
+        this.parent = parent;
+        this.key = key;
+        this.value = value;
+        this.size = parent == null ? 0 : parent.size + 1;
     }
 
     public Address and(String key, String value) {
-        List<StringPair> newAddress = new ArrayList<StringPair>(this.address);
-        newAddress.add(new StringPair(key, value));
-        return new Address(newAddress);
+        return new Address(this, key, value);
     }
 
+    /**
+     * The returned {@code ModelNode} is shared by all callers and is protected against modifications; use
+     * {@link ModelNode#set(ModelNode)} (which makes a copy) to put it into an operation.
+     */
     ModelNode toModelNode() {
-        ModelNode result = new ModelNode();
-        result.setEmptyList();
-        for (StringPair pair : address) {
-            result.add(pair.key, pair.value);
+        ModelNode result = modelNode;
+        if (result == null) {
+            result = new ModelNode();
+            result.setEmptyList();
+            for (Address pair : pairs()) {
+                result.add(pair.key, pair.value);
+            }
+            result.protect();
+            modelNode = result;
         }
         return result;
     }
@@ -91,34 +107,30 @@ public final class Address {
      * @return value of the last pair in the string sequence or null in case it is only root address.
      */
     public String getLastPairValue() {
-        if (address.isEmpty()) {
-            return null;
-        } else {
-            StringPair last = address.get(address.size() - 1);
-            return last.value;
-        }
+        return value;
     }
 
     @Override
     public String toString() {
-        if (address.isEmpty()) {
+        if (size == 0) {
             return "/";
         }
 
         StringBuilder result = new StringBuilder();
-        for (StringPair addressElement : address) {
-            result.append("/").append(addressElement.key).append("=").append(addressElement.value);
+        for (Address pair : pairs()) {
+            result.append("/").append(pair.key).append("=").append(pair.value);
         }
         return result.toString();
     }
 
-    private static final class StringPair {
-        private final String key;
-        private final String value;
-
-        private StringPair(String key, String value) {
-            this.key = key;
-            this.value = value;
+    /** All pairs of this address from the first one to the last one, excluding the root. */
+    private Address[] pairs() {
+        Address[] result = new Address[size];
+        Address current = this;
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = current;
+            current = current.parent;
         }
+        return result;
     }
 }
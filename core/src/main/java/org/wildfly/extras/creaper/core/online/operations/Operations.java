@@ -1,6 +1,7 @@
 package org.wildfly.extras.creaper.core.online.operations;
 
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 import org.jboss.dmr.Property;
 import org.wildfly.extras.creaper.core.online.Constants;
 import org.wildfly.extras.creaper.core.online.FailuresAllowedBlock;
@@ -212,6 +213,137 @@ public final class Operations implements SharedCommonOperations<ModelNodeResult>
         }
     }
 
+    /**
+     * <p>Makes sure that the resource specified by {@code address} exists and its attributes have given values,
+     * performing as few changes as possible. If the resource doesn't exist, it's {@link #add(Address, Values) added}.
+     * If it exists, it's read (including defaults) and only the attributes whose values differ are written, or
+     * undefined if the desired value is undefined. All the changes are performed in a single composite operation.
+     * If nothing differs, nothing is written, so the server never ends up in the reload-required state needlessly.</p>
+     *
+     * <p>Only the attributes present in {@code attributes} are compared; other attributes are left intact. The same
+     * applies to object values, only the fields present in the desired object are compared. If some of them differ,
+     * the desired fields are written over the current object, so that the other fields are preserved. Values are
+     * compared by their string representation, so e.g. {@code 10} is the same as {@code 10L} or {@code "10"}. Values
+     * that aren't attributes of the resource (e.g. parameters of the {@code add} operation that aren't stored) are
+     * ignored.</p>
+     *
+     * @return {@code true} if the resource was added or changed, {@code false} if it already was in desired state
+     * @throws OperationException if reading, adding or changing the resource fails
+     */
+    public boolean reconcile(Address address, Values attributes) throws IOException, OperationException {
+        ModelNodeResult current;
+        FailuresAllowedBlock expectedFailures = client.allowFailures();
+        try {
+            current = readResource(address, ReadResourceOption.INCLUDE_DEFAULTS);
+            if (!current.isSuccess()) {
+                if (!isResultUnknownOrNotFound(current)) {
+                    throw new OperationException("reconcile failed: " + current.asString());
+                }
+                current = null;
+            }
+        } finally {
+            expectedFailures.close();
+        }
+
+        if (current == null) {
+            ModelNodeResult result = add(address, attributes);
+            if (!result.isSuccess()) {
+                throw new OperationException("reconcile failed: " + result.asString());
+            }
+            return true;
+        }
+
+        ModelNode desired = new ModelNode().setEmptyObject();
+        attributes.addToModelNode(desired);
+        ModelNode currentAttributes = current.value();
+
+        Batch changes = new Batch();
+        boolean changed = false;
+        for (String name : desired.keys()) {
+            if (!currentAttributes.has(name)) {
+                continue; // not an attribute
+            }
+            ModelNode desiredValue = desired.get(name);
+            if (isSameValue(currentAttributes.get(name), desiredValue)) {
+                continue;
+            }
+
+            if (desiredValue.isDefined()) {
+                changes.writeAttribute(address, name, overlay(currentAttributes.get(name), desiredValue));
+            } else {
+                changes.undefineAttribute(address, name);
+            }
+            changed = true;
+        }
+
+        if (!changed) {
+            return false;
+        }
+
+        ModelNodeResult result = batch(changes);
+        if (!result.isSuccess()) {
+            throw new OperationException("reconcile failed: " + result.asString());
+        }
+        return true;
+    }
+
+    // package-private for testing
+    static boolean isSameValue(ModelNode current, ModelNode desired) {
+        if (!desired.isDefined() || !current.isDefined()) {
+            return desired.isDefined() == current.isDefined();
+        }
+
+        if (desired.getType() == ModelType.LIST) {
+            if (current.getType() != ModelType.LIST) {
+                return false;
+            }
+            List<ModelNode> currentList = current.asList();
+            List<ModelNode> desiredList = desired.asList();
+            if (currentList.size() != desiredList.size()) {
+                return false;
+            }
+            for (int i = 0; i < desiredList.size(); i++) {
+                if (!isSameValue(currentList.get(i), desiredList.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        if (desired.getType() == ModelType.OBJECT) {
+            if (current.getType() != ModelType.OBJECT) {
+                return false;
+            }
+            for (String key : desired.keys()) {
+                if (!isSameValue(current.has(key) ? current.get(key) : new ModelNode(), desired.get(key))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        return current.getType() != ModelType.LIST && current.getType() != ModelType.OBJECT
+                && current.asString().equals(desired.asString());
+    }
+
+    /**
+     * Returns {@code desired} written over {@code current}. If both are objects, fields that are only present
+     * in {@code current} are preserved (recursively); otherwise, the result is simply {@code desired}.
+     */
+    // package-private for testing
+    static ModelNode overlay(ModelNode current, ModelNode desired) {
+        if (current.getType() != ModelType.OBJECT || desired.getType() != ModelType.OBJECT) {
+            return desired;
+        }
+
+        ModelNode result = current.clone();
+        for (String key : desired.keys()) {
+            ModelNode currentField = current.has(key) ? current.get(key) : new ModelNode();
+            result.get(key).set(overlay(currentField, desired.get(key)));
+        }
+        return result;
+    }
+
     // package-private for testing
     static boolean isResultUnknownOrNotFound(ModelNodeResult result) {
         result.assertFailed();
@@ -7,8 +7,6 @@ import com.google.common.primitives.Longs;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.Property;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -61,9 +59,16 @@ import java.util.Map;
  * </pre>
  */
 public final class Values {
-    private static final Values EMPTY = new Values();
+    private static final Values EMPTY = new Values(null, null);
 
-    private final List<Property> namedValues;
+    // a persistent linked list (the last value points to the previous one), so that adding a value doesn't need
+    // to copy all the values; the empty list has no value
+    private final Values previous;
+    private final Property namedValue;
+    private final int size;
+
+    // lazily computed, all named values from the first one to the last one
+    private volatile Property[] namedValues;
 
     public static Values empty() {
         return EMPTY;
@@ -127,55 +132,59 @@ public final class Values {
             return null;
         }
 
-        List<Property> properties = new ArrayList<Property>(map.size());
+        Values result = EMPTY;
         for (Map.Entry<String, String> entry : map.entrySet()) {
-            properties.add(new Property(entry.getKey(), new ModelNode(entry.getValue())));
+            result = result.and(entry.getKey(), entry.getValue());
         }
-        return new Values(properties);
+        return result;
+    }
+
+    private Values(Values previous, Property namedValue) {
+        this.previous = previous;
+        this.namedValue = namedValue;
+        this.size = previous == null ? 0 : previous.size + 1;
     }
 
-    private Values() {
-        this.namedValues = Collections.emptyList();
+    private Values append(Property namedValue) {
+        return new Values(this, namedValue);
     }
 
-    private Values(List<Property> namedValues) {
-        this.namedValues = Collections.unmodifiableList(namedValues);
+    private Property[] namedValues() {
+        Property[] result = namedValues;
+        if (result == null) {
+            result = new Property[size];
+            Values current = this;
+            for (int i = size - 1; i >= 0; i--) {
+                result[i] = current.namedValue;
+                current = current.previous;
+            }
+            namedValues = result;
+        }
+        return result;
     }
 
     public Values and(String name, boolean value) {
-        List<Property> newList = new ArrayList<Property>(namedValues);
-        newList.add(new Property(name, new ModelNode(value)));
-        return new Values(newList);
+        return append(new Property(name, new ModelNode(value)));
     }
 
     public Values and(String name, int value) {
-        List<Property> newList = new ArrayList<Property>(namedValues);
-        newList.add(new Property(name, new ModelNode(value)));
-        return new Values(newList);
+        return append(new Property(name, new ModelNode(value)));
     }
 
     public Values and(String name, long value) {
-        List<Property> newList = new ArrayList<Property>(namedValues);
-        newList.add(new Property(name, new ModelNode(value)));
-        return new Values(newList);
+        return append(new Property(name, new ModelNode(value)));
     }
 
     public Values and(String name, double value) {
-        List<Property> newList = new ArrayList<Property>(namedValues);
-        newList.add(new Property(name, new ModelNode(value)));
-        return new Values(newList);
+        return append(new Property(name, new ModelNode(value)));
     }
 
     public Values and(String name, String value) {
-        List<Property> newList = new ArrayList<Property>(namedValues);
-        newList.add(new Property(name, new ModelNode(value)));
-        return new Values(newList);
+        return append(new Property(name, new ModelNode(value)));
     }
 
     public Values and(String name, ModelNode value) {
-        List<Property> newList = new ArrayList<Property>(namedValues);
-        newList.add(new Property(name, value));
-        return new Values(newList);
+        return append(new Property(name, value));
     }
 
     public Values andOptional(String name, Boolean value) {
@@ -214,9 +223,7 @@ public final class Values {
             listValue.add(singleValue);
         }
 
-        List<Property> newList = new ArrayList<Property>(namedValues);
-        newList.add(new Property(name, listValue));
-        return new Values(newList);
+        return append(new Property(name, listValue));
     }
 
     public Values andList(String name, int... value) {
@@ -225,9 +232,7 @@ public final class Values {
             listValue.add(singleValue);
         }
 
-        List<Property> newList = new ArrayList<Property>(namedValues);
-        newList.add(new Property(name, listValue));
-        return new Values(newList);
+        return append(new Property(name, listValue));
     }
 
     public Values andList(String name, long... value) {
@@ -236,9 +241,7 @@ public final class Values {
             listValue.add(singleValue);
         }
 
-        List<Property> newList = new ArrayList<Property>(namedValues);
-        newList.add(new Property(name, listValue));
-        return new Values(newList);
+        return append(new Property(name, listValue));
     }
 
     public Values andList(String name, double... value) {
@@ -247,9 +250,7 @@ public final class Values {
             listValue.add(singleValue);
         }
 
-        List<Property> newList = new ArrayList<Property>(namedValues);
-        newList.add(new Property(name, listValue));
-        return new Values(newList);
+        return append(new Property(name, listValue));
     }
 
     public Values andList(String name, String... value) {
@@ -258,9 +259,7 @@ public final class Values {
             listValue.add(singleValue);
         }
 
-        List<Property> newList = new ArrayList<Property>(namedValues);
-        newList.add(new Property(name, listValue));
-        return new Values(newList);
+        return append(new Property(name, listValue));
     }
 
     public Values andList(String name, ModelNode... value) {
@@ -269,9 +268,7 @@ public final class Values {
             listValue.add(singleValue);
         }
 
-        List<Property> newList = new ArrayList<Property>(namedValues);
-        newList.add(new Property(name, listValue));
-        return new Values(newList);
+        return append(new Property(name, listValue));
     }
 
     /**
@@ -314,13 +311,11 @@ public final class Values {
 
     public Values andObject(String name, Values value) {
         ModelNode objectValue = new ModelNode().setEmptyObject();
-        for (Property property : value.namedValues) {
+        for (Property property : value.namedValues()) {
             objectValue.get(property.getName()).set(property.getValue());
         }
 
-        List<Property> newList = new ArrayList<Property>(namedValues);
-        newList.add(new Property(name, objectValue));
-        return new Values(newList);
+        return append(new Property(name, objectValue));
     }
 
     public Values andObjectOptional(String name, Values value) {
@@ -332,7 +327,7 @@ public final class Values {
     public String toString() {
         StringBuilder result = new StringBuilder("(");
         boolean first = true;
-        for (Property namedValue : namedValues) {
+        for (Property namedValue : namedValues()) {
             if (!first) {
                 result.append(", ");
             }
@@ -344,13 +339,13 @@ public final class Values {
     }
 
     void addToModelNode(ModelNode modelNode) {
-        for (Property namedValue : namedValues) {
+        for (Property namedValue : namedValues()) {
             modelNode.get(namedValue.getName()).set(namedValue.getValue());
         }
     }
 
     // only for tests
     int size() {
-        return namedValues.size();
+        return size;
     }
 }
@@ -0,0 +1,91 @@
+package org.wildfly.extras.creaper.core.online.operations.admin;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * <p>Waits until the server (or servers) is running after an administration operation. The state is polled
+ * with exponential backoff, starting at a few milliseconds, so that a quick reload is detected quickly, while
+ * a slow restart doesn't flood the server with requests.</p>
+ *
+ * <p>Right after reload or restart was requested, the server might still appear to be running, because it didn't
+ * start going down yet. Therefore, if {@code expectDowntime} is set, the server is only considered running after
+ * it was observed <i>not</i> running at least once, or after a grace period of 500 ms (this value is taken from
+ * implementation of CLI "reload"), whichever comes first.</p>
+ *
+ * <p>The same applies to reconnecting: a new connection to the old, not yet stopped server would succeed and
+ * then break. Therefore, {@link #waitForDowntime(RunningCheck)} should be called before reconnecting.</p>
+ */
+final class AdaptiveWaiter {
+    private static final long MIN_DELAY = 5;
+    private static final long MAX_DELAY = 1000;
+    private static final long GRACE_PERIOD = 500;
+
+    interface RunningCheck {
+        /** An exception means "not running" (the server is probably down). */
+        boolean isRunning() throws Exception;
+    }
+
+    private final long startTime;
+    private final long endTime;
+    private boolean downtimeObserved;
+
+    AdaptiveWaiter(int timeoutInSeconds, boolean expectDowntime) {
+        this.startTime = System.currentTimeMillis();
+        this.endTime = startTime + TimeUnit.SECONDS.toMillis(timeoutInSeconds);
+        this.downtimeObserved = !expectDowntime;
+    }
+
+    /**
+     * Returns as soon as the server is observed not running, or after the grace period passed, whichever comes
+     * first. The grace period is always waited for, even if it's longer than the timeout.
+     */
+    void waitForDowntime(RunningCheck check) throws InterruptedException {
+        long delay = MIN_DELAY;
+        long graceEndTime = startTime + GRACE_PERIOD;
+        while (!downtimeObserved) {
+            if (!isRunning(check)) {
+                downtimeObserved = true;
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            if (now >= graceEndTime) {
+                return;
+            }
+
+            Thread.sleep(Math.max(1, Math.min(delay, graceEndTime - now)));
+            delay = Math.min(delay * 2, MAX_DELAY);
+        }
+    }
+
+    void waitUntilRunning(RunningCheck check, String timeoutMessage) throws InterruptedException, TimeoutException {
+        long delay = MIN_DELAY;
+        while (true) {
+            boolean running = isRunning(check);
+
+            long now = System.currentTimeMillis();
+            if (!running) {
+                downtimeObserved = true;
+            } else if (downtimeObserved || now - startTime >= GRACE_PERIOD) {
+                return;
+            }
+
+            if (now >= endTime) {
+                throw new TimeoutException(timeoutMessage);
+            }
+
+            Thread.sleep(Math.max(1, Math.min(delay, endTime - now)));
+            delay = Math.min(delay * 2, MAX_DELAY);
+        }
+    }
+
+    private static boolean isRunning(RunningCheck check) {
+        try {
+            return check.isRunning();
+        } catch (Throwable ignored) {
+            // server is probably down, will retry
+            return false;
+        }
+    }
+}
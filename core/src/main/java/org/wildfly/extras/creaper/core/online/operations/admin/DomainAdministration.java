@@ -13,6 +13,7 @@ import org.wildfly.extras.creaper.core.online.operations.Values;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -69,6 +70,16 @@ public final class DomainAdministration extends Administration {
         return domainOps.allRunningServers(host);
     }
 
+    /**
+     * Retrieves the status of all configured servers on all hosts in domain, using a single management operation.
+     * The result maps host names to maps from server names to server status (such as {@code STARTED},
+     * {@code STOPPED}, {@code STARTING} or {@code FAILED}); the iteration order is the order reported by the server.
+     * This is much cheaper than calling {@link #allServers(String)} and reading status of each server separately.
+     */
+    public Map<String, Map<String, String>> serverStates() throws IOException {
+        return domainOps.serverStates();
+    }
+
     /** @see #allServers(String) */
     public List<String> allServers() throws IOException {
         return allServers(client.options().defaultHost);
@@ -1,5 +1,7 @@
 package org.wildfly.extras.creaper.core.online.operations.admin;
 
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
 import org.wildfly.extras.creaper.core.online.Constants;
 import org.wildfly.extras.creaper.core.online.ModelNodeResult;
 import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
@@ -10,8 +12,9 @@ import org.wildfly.extras.creaper.core.online.operations.Values;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
 import java.util.concurrent.TimeoutException;
 
 final class DomainAdministrationOperations implements AdministrationOperations {
@@ -114,94 +117,120 @@ final class DomainAdministrationOperations implements AdministrationOperations {
     }
 
     boolean isRestartOperationRequired(String host, CommonRestartOperation restartOperation) throws IOException {
-        List<String> allServers = allRunningServers(host);
-
         Batch batch = new Batch();
         batch.readAttribute(Address.host(host), Constants.HOST_STATE);
-        for (String server : allServers) {
-            batch.readAttribute(Address.host(host).and(Constants.SERVER, server), Constants.SERVER_STATE);
-        }
+        batch.readAttribute(Address.host(host).and(Constants.SERVER_CONFIG, "*"), Constants.STATUS);
+        batch.readAttribute(Address.host(host).and(Constants.SERVER, "*"), Constants.SERVER_STATE);
 
         ModelNodeResult result = ops.batch(batch);
         result.assertDefinedValue();
-        int counter = 0; // 0 == host, > 0 == server
-        for (ModelNodeResult stepResult : result.forAllBatchSteps()) {
-            if (restartOperation.isRequired(stepResult, counter > 0)) {
+
+        if (restartOperation.isRequired(result.forBatchStep(1), false)) {
+            return true;
+        }
+
+        List<String> runningServers = startedServers(result.forBatchStep(2));
+        for (Map.Entry<String, ModelNodeResult> serverState : serverResults(result.forBatchStep(3)).entrySet()) {
+            if (runningServers.contains(serverState.getKey())
+                    && restartOperation.isRequired(serverState.getValue(), true)) {
                 return true;
             }
-            counter++;
         }
 
         return false;
     }
 
     List<String> allRunningServers(String host) throws IOException {
-        ModelNodeResult result = ops.readChildrenNames(Address.host(host), Constants.SERVER);
+        ModelNodeResult result = ops.readAttribute(Address.host(host).and(Constants.SERVER_CONFIG, "*"),
+                Constants.STATUS);
+        return startedServers(result);
+    }
+
+    /** Host name -> server name -> server status, for all servers on all hosts. Uses a single wildcard operation. */
+    Map<String, Map<String, String>> serverStates() throws IOException {
+        ModelNodeResult result = ops.readAttribute(Address.host("*").and(Constants.SERVER_CONFIG, "*"),
+                Constants.STATUS);
         result.assertDefinedValue();
-        List<String> servers = result.stringListValue();
-
-        List<String> startedServers = new ArrayList<String>();
-        for (String server : servers) {
-            ModelNodeResult serverStatus = ops.readAttribute(Address.host(host).and(Constants.SERVER_CONFIG, server),
-                    Constants.STATUS);
-            serverStatus.assertDefinedValue();
-            if ("STARTED".equals(serverStatus.stringValue())) {
-                startedServers.add(server);
+
+        Map<String, Map<String, String>> states = new LinkedHashMap<String, Map<String, String>>();
+        for (ModelNode item : result.listValue()) {
+            List<Property> address = item.get(Constants.OP_ADDR).asPropertyList();
+            String host = address.get(0).getValue().asString();
+            Map<String, String> hostStates = states.get(host);
+            if (hostStates == null) {
+                hostStates = new LinkedHashMap<String, String>();
+                states.put(host, hostStates);
+            }
+            ModelNodeResult status = new ModelNodeResult(item);
+            if (status.hasDefinedValue()) {
+                hostStates.put(address.get(address.size() - 1).getValue().asString(), status.stringValue());
             }
         }
-
-        return startedServers;
+        return states;
     }
 
     /**
-     * If {@code servers} is {@code null} or empty, only waits for the host controller to be running.
-     * Otherwise, waits for all servers on given {@code host} to be running.
+     * Splits the {@code result} of a wildcard operation on {@code server-config=*} or {@code server=*} to results
+     * for individual servers, keyed by server name.
      */
-    void waitUntilServersAreRunning(String host, List<String> servers, boolean reconnect) throws IOException,
-            InterruptedException, TimeoutException {
+    private static Map<String, ModelNodeResult> serverResults(ModelNodeResult result) {
+        result.assertDefinedValue();
 
-        Thread.sleep(500); // this value is taken from implementation of CLI "reload"
+        Map<String, ModelNodeResult> results = new LinkedHashMap<String, ModelNodeResult>();
+        for (ModelNode item : result.listValue()) {
+            List<Property> address = item.get(Constants.OP_ADDR).asPropertyList();
+            results.put(address.get(address.size() - 1).getValue().asString(), new ModelNodeResult(item));
+        }
+        return results;
+    }
 
-        if (reconnect) {
-            client.reconnect(timeoutInSeconds);
+    private static List<String> startedServers(ModelNodeResult statusResult) {
+        List<String> result = new ArrayList<String>();
+        for (Map.Entry<String, ModelNodeResult> serverStatus : serverResults(statusResult).entrySet()) {
+            serverStatus.getValue().assertDefinedValue();
+            if ("STARTED".equals(serverStatus.getValue().stringValue())) {
+                result.add(serverStatus.getKey());
+            }
         }
+        return result;
+    }
 
-        long endTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeoutInSeconds);
-        while (System.currentTimeMillis() < endTime) {
-            try {
-                if (areServersRunning(host, servers)) {
-                    break;
-                }
-            } catch (Throwable ignored) {
-                // server is probably down, will retry
+    /**
+     * If {@code servers} is {@code null} or empty, only waits for the host controller to be running.
+     * Otherwise, waits for all servers on given {@code host} to be running.
+     */
+    void waitUntilServersAreRunning(final String host, final List<String> servers, boolean reconnect)
+            throws IOException, InterruptedException, TimeoutException {
+        AdaptiveWaiter waiter = new AdaptiveWaiter(timeoutInSeconds, true);
+        AdaptiveWaiter.RunningCheck check = new AdaptiveWaiter.RunningCheck() {
+            @Override
+            public boolean isRunning() throws Exception {
+                return areServersRunning(host, servers);
             }
+        };
 
-            Thread.sleep(200); // this value is completely arbitrary
+        if (reconnect) {
+            // don't reconnect to the old host controller that didn't start going down yet
+            waiter.waitForDowntime(check);
+            client.reconnect(timeoutInSeconds);
         }
 
-        boolean running = false;
-        try {
-            running = areServersRunning(host, servers);
-        } catch (Throwable ignored) {
-            // server probably down
-        }
-        if (!running) {
-            throw new TimeoutException("Waiting for host '" + host + "' / servers " + servers + " timed out");
-        }
+        waiter.waitUntilRunning(check, "Waiting for host '" + host + "' / servers " + servers + " timed out");
     }
 
     private boolean areServersRunning(String host, List<String> servers) throws IOException {
-        Address hostAddress = Address.host(host);
-
         if (servers == null || servers.isEmpty()) {
             ModelNodeResult result = ops.readAttribute(Address.host(host), Constants.HOST_STATE);
             result.assertDefinedValue();
             return ServerState.isRunning(result.stringValue());
         } else {
+            ModelNodeResult result = ops.readAttribute(Address.host(host).and(Constants.SERVER, "*"),
+                    Constants.SERVER_STATE);
+            Map<String, ModelNodeResult> serverStates = serverResults(result);
             for (String server : servers) {
-                Address serverAddress = hostAddress.and(Constants.SERVER, server);
-                ModelNodeResult result = ops.readAttribute(serverAddress, Constants.SERVER_STATE);
-                if (!result.hasDefinedValue() || !ServerState.isRunning(result.stringValue())) {
+                ModelNodeResult serverState = serverStates.get(server);
+                if (serverState == null || !serverState.hasDefinedValue()
+                        || !ServerState.isRunning(serverState.stringValue())) {
                     return false;
                 }
             }
@@ -8,7 +8,6 @@ import org.wildfly.extras.creaper.core.online.operations.Operations;
 import org.wildfly.extras.creaper.core.online.operations.Values;
 
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 final class StandaloneAdministrationOperations implements AdministrationOperations {
@@ -99,35 +98,21 @@ final class StandaloneAdministrationOperations implements AdministrationOperatio
 
     private void waitUntilServerIsRunning(boolean reconnect) throws IOException, InterruptedException,
             TimeoutException {
-
-        Thread.sleep(500); // this value is taken from implementation of CLI "reload"
+        AdaptiveWaiter waiter = new AdaptiveWaiter(timeoutInSeconds, true);
+        AdaptiveWaiter.RunningCheck check = new AdaptiveWaiter.RunningCheck() {
+            @Override
+            public boolean isRunning() throws Exception {
+                return isServerRunning();
+            }
+        };
 
         if (reconnect) {
+            // don't reconnect to the old server that didn't start going down yet
+            waiter.waitForDowntime(check);
             client.reconnect(timeoutInSeconds);
         }
 
-        long endTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeoutInSeconds);
-        while (System.currentTimeMillis() < endTime) {
-            try {
-                if (isServerRunning()) {
-                    break;
-                }
-            } catch (Throwable ignored) {
-                // server is probably down, will retry
-            }
-
-            Thread.sleep(200); // this value is completely arbitrary
-        }
-
-        boolean running = false;
-        try {
-            running = isServerRunning();
-        } catch (Throwable ignored) {
-            // server probably down
-        }
-        if (!running) {
-            throw new TimeoutException("Waiting for server timed out");
-        }
+        waiter.waitUntilRunning(check, "Waiting for server timed out");
     }
 
     private boolean isServerRunning() throws IOException {
@@ -0,0 +1,66 @@
+package org.wildfly.extras.creaper.core.offline;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ConfigurationFilesTest {
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private static InMemoryConfiguration content(final String content) {
+        return new InMemoryConfiguration() {
+            @Override
+            public void writeTo(OutputStream output) throws IOException {
+                output.write(content.getBytes(Charsets.UTF_8));
+                output.close(); // must be harmless
+            }
+        };
+    }
+
+    @Test
+    public void replace() throws IOException {
+        File file = tmp.newFile("standalone.xml");
+        Files.write("<server/>", file, Charsets.UTF_8);
+
+        ConfigurationFiles.replace(file.toPath(), content("<server><foo/></server>"), false);
+        assertEquals("<server><foo/></server>", Files.toString(file, Charsets.UTF_8));
+
+        ConfigurationFiles.replace(file.toPath(), content("<server><bar/></server>"), true);
+        assertEquals("<server><bar/></server>", Files.toString(file, Charsets.UTF_8));
+
+        assertArrayEquals(new String[] {"standalone.xml"}, tmp.getRoot().list());
+    }
+
+    @Test
+    public void failedWriteKeepsOriginalFile() throws IOException {
+        File file = tmp.newFile("standalone.xml");
+        Files.write("<server/>", file, Charsets.UTF_8);
+
+        try {
+            ConfigurationFiles.replace(file.toPath(), new InMemoryConfiguration() {
+                @Override
+                public void writeTo(OutputStream output) throws IOException {
+                    output.write("<server><fo".getBytes(Charsets.UTF_8));
+                    throw new IOException("expected");
+                }
+            }, false);
+            fail("IOException expected");
+        } catch (IOException expected) {
+            assertEquals("expected", expected.getMessage());
+        }
+
+        assertEquals("<server/>", Files.toString(file, Charsets.UTF_8));
+        assertArrayEquals(new String[] {"standalone.xml"}, tmp.getRoot().list());
+    }
+}
@@ -0,0 +1,142 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AutoBatchingForCommandsTest {
+    private static final ModelNode SUCCESS = ModelNode.fromString("{\"outcome\" => \"success\", \"result\" => 42}");
+    private static final ModelNode COMPOSITE_FAILURE = ModelNode.fromString("{\"outcome\" => \"failed\","
+            + " \"failure-description\" => \"WFLYCTL0062: Composite operation failed and was rolled back.\","
+            + " \"rolled-back\" => true,"
+            + " \"result\" => {"
+            + "   \"step-1\" => {\"outcome\" => \"failed\", \"rolled-back\" => true},"
+            + "   \"step-2\" => {\"outcome\" => \"failed\","
+            + "                  \"failure-description\" => \"WFLYCTL0212: Duplicate resource\", \"rolled-back\" => true}"
+            + "}}");
+
+    private static final OnlineCommand FIRST = new NamedCommand("first");
+    private static final OnlineCommand SECOND = new NamedCommand("second");
+
+    private OnlineManagementClient delegate;
+    private AutoBatchingForCommands client;
+
+    @Before
+    public void setUp() throws IOException {
+        delegate = mock(OnlineManagementClient.class);
+        when(delegate.allowFailures()).thenReturn(NoopCloseFailuresAllowedBlock.INSTANCE);
+        client = new AutoBatchingForCommands(delegate);
+    }
+
+    private static ModelNode operation(String name, String loggerName) {
+        ModelNode op = new ModelNode();
+        op.get(Constants.OP).set(name);
+        op.get(Constants.OP_ADDR).add("subsystem", "logging").add("logger", loggerName);
+        return op;
+    }
+
+    private List<ModelNode> sentOperations(int count) throws IOException {
+        ArgumentCaptor<ModelNode> captor = ArgumentCaptor.forClass(ModelNode.class);
+        verify(delegate, times(count)).execute(captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    public void writesAreSentAsCompositeBeforeRead() throws IOException {
+        when(delegate.execute(any(ModelNode.class))).thenReturn(new ModelNodeResult(SUCCESS));
+
+        client.currentCommand(FIRST);
+        client.execute(operation(Constants.ADD, "a")).assertSuccess();
+        client.currentCommand(SECOND);
+        client.execute(operation(Constants.ADD, "b")).assertSuccess();
+        verify(delegate, never()).execute(any(ModelNode.class));
+
+        assertEquals(42, client.execute(operation(Constants.READ_RESOURCE_OPERATION, "b")).intValue());
+
+        List<ModelNode> sent = sentOperations(2);
+        assertEquals(Constants.COMPOSITE, sent.get(0).get(Constants.OP).asString());
+        assertEquals(2, sent.get(0).get(Constants.STEPS).asList().size());
+        assertEquals(Constants.READ_RESOURCE_OPERATION, sent.get(1).get(Constants.OP).asString());
+    }
+
+    @Test
+    public void singleWriteIsSentAsIs() throws IOException {
+        when(delegate.execute(any(ModelNode.class))).thenReturn(new ModelNodeResult(SUCCESS));
+
+        client.currentCommand(FIRST);
+        client.execute(operation(Constants.REMOVE_OPERATION, "a"));
+        client.flush();
+        client.flush();
+
+        List<ModelNode> sent = sentOperations(1);
+        assertEquals(Constants.REMOVE_OPERATION, sent.get(0).get(Constants.OP).asString());
+    }
+
+    @Test
+    public void failureIsReportedForOriginatingCommand() throws IOException {
+        when(delegate.execute(any(ModelNode.class))).thenReturn(new ModelNodeResult(COMPOSITE_FAILURE));
+
+        client.currentCommand(FIRST);
+        client.execute(operation(Constants.ADD, "a"));
+        client.currentCommand(SECOND);
+        client.execute(operation(Constants.ADD, "b"));
+
+        try {
+            client.flush();
+            fail();
+        } catch (RuntimeCommandFailedException e) {
+            String message = e.original.getMessage();
+            assertTrue(message, message.contains("of command second failed"));
+            assertTrue(message, message.contains("Duplicate resource"));
+        }
+    }
+
+    @Test
+    public void writesInFailuresAllowedBlockAreNotRecorded() throws IOException {
+        when(delegate.execute(any(ModelNode.class))).thenReturn(new ModelNodeResult(SUCCESS));
+
+        client.currentCommand(FIRST);
+        client.execute(operation(Constants.ADD, "a"));
+        FailuresAllowedBlock allowFailures = client.allowFailures();
+        try {
+            client.execute(operation(Constants.REMOVE_OPERATION, "b"));
+        } finally {
+            allowFailures.close();
+        }
+
+        List<ModelNode> sent = sentOperations(2);
+        assertEquals(Constants.ADD, sent.get(0).get(Constants.OP).asString());
+        assertEquals(Constants.REMOVE_OPERATION, sent.get(1).get(Constants.OP).asString());
+    }
+
+    private static final class NamedCommand implements OnlineCommand {
+        private final String name;
+
+        NamedCommand(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void apply(OnlineCommandContext ctx) {
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AutomaticErrorHandlingForCommandsTest {
+    private static final ModelNode SUCCESS = ModelNode.fromString("{\"outcome\" => \"success\", \"result\" => 42}");
+    private static final ModelNode FAILURE = ModelNode.fromString("{\"outcome\" => \"failed\","
+            + " \"failure-description\" => \"WFLYCTL0216: Management resource not found\"}");
+
+    private OnlineManagementClient delegate;
+    private OnlineManagementClient client;
+
+    @Before
+    public void setUp() {
+        delegate = mock(OnlineManagementClient.class);
+        client = AutomaticErrorHandlingForCommands.wrap(delegate);
+    }
+
+    private static ModelNode whoami() {
+        ModelNode op = new ModelNode();
+        op.get(Constants.OP).set(Constants.WHOAMI);
+        op.get(Constants.OP_ADDR).setEmptyList();
+        return op;
+    }
+
+    private void delegateReturns(ModelNode result) {
+        when(delegate.executeAsync(any(ModelNode.class)))
+                .thenReturn(CompletableFuture.completedFuture(new ModelNodeResult(result)));
+    }
+
+    @Test
+    public void executeAsync_operationSucceeds() {
+        delegateReturns(SUCCESS);
+
+        ModelNodeResult result = client.executeAsync(whoami()).join();
+        result.assertSuccess();
+        assertEquals(42, result.intValue());
+    }
+
+    @Test
+    public void executeAsync_operationFails() {
+        delegateReturns(FAILURE);
+
+        try {
+            client.executeAsync(whoami()).join();
+            fail();
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof RuntimeCommandFailedException);
+            assertTrue(((RuntimeCommandFailedException) e.getCause()).original.getMessage().contains("failed"));
+        }
+    }
+
+    @Test
+    public void executeAsync_operationFailsInFailuresAllowedBlock() throws IOException {
+        delegateReturns(FAILURE);
+
+        CompletableFuture<ModelNodeResult> future;
+        FailuresAllowedBlock allowFailures = client.allowFailures();
+        try {
+            future = client.executeAsync(whoami());
+        } finally {
+            allowFailures.close();
+        }
+
+        // the block is already closed, but the operation was submitted inside of it
+        future.join().assertFailed();
+    }
+
+    @Test
+    public void executeAsync_ioFailure() {
+        CompletableFuture<ModelNodeResult> ioFailure = new CompletableFuture<ModelNodeResult>();
+        ioFailure.completeExceptionally(new IOException("connection refused"));
+        when(delegate.executeAsync(any(ModelNode.class))).thenReturn(ioFailure);
+
+        try {
+            client.executeAsync(whoami()).join();
+            fail();
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof RuntimeCommandFailedException);
+            assertTrue(((RuntimeCommandFailedException) e.getCause()).original.getCause() instanceof IOException);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+import org.wildfly.extras.creaper.core.ServerVersion;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ConnectHandshakeTest {
+    private static final ModelNode HANDSHAKE = ModelNode.fromString("{\"outcome\" => \"success\", \"result\" => {"
+            + "\"step-1\" => {\"outcome\" => \"success\", \"result\" => 4},"
+            + "\"step-2\" => {\"outcome\" => \"success\", \"result\" => 1},"
+            + "\"step-3\" => {\"outcome\" => \"success\", \"result\" => 0},"
+            + "\"step-4\" => {\"outcome\" => \"success\", \"result\" => [\"extension\", \"subsystem\"]}"
+            + "}}");
+    private static final ModelNode BOOTING = ModelNode.fromString("{\"outcome\" => \"failed\","
+            + " \"failure-description\" => \"WFLYCTL0379: System boot is in process\"}");
+    private static final ModelNode UNKNOWN_ATTRIBUTE = ModelNode.fromString("{\"outcome\" => \"failed\","
+            + " \"failure-description\" => \"JBAS014792: Unknown attribute management-micro-version\"}");
+    private static final ModelNode ROOT_RESOURCE = ModelNode.fromString("{\"outcome\" => \"success\", \"result\" => {"
+            + "\"management-major-version\" => 1, \"management-minor-version\" => 2}}");
+    private static final ModelNode CHILDREN_TYPES = ModelNode.fromString("{\"outcome\" => \"success\","
+            + " \"result\" => [\"profile\", \"host\"]}");
+
+    @Test
+    public void singleRoundTrip() throws IOException {
+        ModelControllerClient client = mock(ModelControllerClient.class);
+        when(client.execute(any(ModelNode.class))).thenReturn(HANDSHAKE);
+
+        ConnectHandshake handshake = ConnectHandshake.perform(client);
+        assertEquals(ServerVersion.VERSION_4_1_0, handshake.version);
+        assertEquals(Arrays.asList("extension", "subsystem"), handshake.rootChildrenTypes);
+        verify(client, times(1)).execute(any(ModelNode.class));
+    }
+
+    @Test
+    public void waitsUntilServerBoots() throws IOException, InterruptedException, TimeoutException {
+        ModelControllerClient client = mock(ModelControllerClient.class);
+        when(client.execute(any(ModelNode.class)))
+                .thenThrow(new IOException("connection refused"))
+                .thenReturn(BOOTING)
+                .thenReturn(HANDSHAKE);
+
+        ConnectHandshake handshake = ConnectHandshake.performAndWaitUntilServerBoots(client, 10000, 10000);
+        assertEquals(ServerVersion.VERSION_4_1_0, handshake.version);
+        verify(client, times(3)).execute(any(ModelNode.class));
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void bootTimeout() throws IOException, InterruptedException, TimeoutException {
+        ModelControllerClient client = mock(ModelControllerClient.class);
+        when(client.execute(any(ModelNode.class))).thenReturn(BOOTING);
+
+        ConnectHandshake.performAndWaitUntilServerBoots(client, 1000, 300);
+    }
+
+    @Test
+    public void oldServer() throws IOException, InterruptedException, TimeoutException {
+        ModelControllerClient client = mock(ModelControllerClient.class);
+        when(client.execute(any(ModelNode.class)))
+                .thenReturn(UNKNOWN_ATTRIBUTE)
+                .thenReturn(ROOT_RESOURCE)
+                .thenReturn(CHILDREN_TYPES);
+
+        ConnectHandshake handshake = ConnectHandshake.performAndWaitUntilServerBoots(client, 1000, 1000);
+        assertEquals(ServerVersion.VERSION_1_2_0, handshake.version);
+        assertEquals(Arrays.asList("profile", "host"), handshake.rootChildrenTypes);
+    }
+}
@@ -0,0 +1,139 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class FleetExecutorTest {
+    private static final ModelNode HANDSHAKE = ModelNode.fromString("{\"outcome\" => \"success\", \"result\" => {"
+            + "\"step-1\" => {\"outcome\" => \"success\", \"result\" => 4},"
+            + "\"step-2\" => {\"outcome\" => \"success\", \"result\" => 1},"
+            + "\"step-3\" => {\"outcome\" => \"success\", \"result\" => 0},"
+            + "\"step-4\" => {\"outcome\" => \"success\", \"result\" => [\"extension\", \"subsystem\"]}"
+            + "}}");
+
+    private static List<OnlineOptions> servers(int count) throws IOException {
+        List<OnlineOptions> result = new ArrayList<OnlineOptions>();
+        for (int i = 0; i < count; i++) {
+            ModelControllerClient client = mock(ModelControllerClient.class);
+            when(client.execute(any(ModelNode.class))).thenReturn(HANDSHAKE);
+            result.add(OnlineOptions.standalone().wrap(client));
+        }
+        return result;
+    }
+
+    /**
+     * Tracks how many instances run concurrently; fails on given server. The first {@code meetCount} instances wait
+     * for each other, so that they are guaranteed to run at the same time.
+     */
+    private static final class TrackingCommand implements OnlineCommand {
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+        private final AtomicInteger applied = new AtomicInteger();
+        private final OnlineOptions failOn;
+        private final CountDownLatch meet;
+
+        TrackingCommand(OnlineOptions failOn) {
+            this(failOn, 0);
+        }
+
+        TrackingCommand(OnlineOptions failOn, int meetCount) {
+            this.failOn = failOn;
+            this.meet = new CountDownLatch(meetCount);
+        }
+
+        @Override
+        public void apply(OnlineCommandContext ctx) throws Exception {
+            int current = running.incrementAndGet();
+            synchronized (maxRunning) {
+                maxRunning.set(Math.max(maxRunning.get(), current));
+            }
+            try {
+                meet.countDown();
+                if (!meet.await(10, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Commands didn't run in parallel");
+                }
+                applied.incrementAndGet();
+                if (ctx.client.options() == failOn) {
+                    throw new IllegalStateException("expected failure");
+                }
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "tracking";
+        }
+    }
+
+    @Test
+    public void appliesInParallelWithLimit() throws Exception {
+        List<OnlineOptions> servers = servers(8);
+        TrackingCommand command = new TrackingCommand(null, 3);
+
+        FleetExecutor.Report report = new FleetExecutor(3, FleetExecutor.FailurePolicy.FAIL_FAST)
+                .apply(servers, command);
+
+        report.assertSuccess();
+        assertEquals(8, command.applied.get());
+        assertEquals(3, command.maxRunning.get());
+        assertEquals(8, report.results().size());
+        for (int i = 0; i < servers.size(); i++) {
+            assertTrue(servers.get(i) == report.results().get(i).options);
+            assertTrue(report.results().get(i).durationNanos > 0);
+        }
+    }
+
+    @Test
+    public void bestEffortAppliesToAllServers() throws Exception {
+        List<OnlineOptions> servers = servers(6);
+        TrackingCommand command = new TrackingCommand(servers.get(0));
+
+        FleetExecutor.Report report = new FleetExecutor(2, FleetExecutor.FailurePolicy.BEST_EFFORT)
+                .apply(servers, command);
+
+        assertFalse(report.isSuccess());
+        assertEquals(6, command.applied.get());
+        assertEquals(1, report.failures().size());
+        assertEquals(0, report.skipped().size());
+        assertTrue(report.failures().get(0).failure instanceof CommandFailedException);
+    }
+
+    @Test
+    public void failFastSkipsRemainingServers() throws Exception {
+        List<OnlineOptions> servers = servers(6);
+        TrackingCommand command = new TrackingCommand(servers.get(0));
+
+        FleetExecutor.Report report = new FleetExecutor(1, FleetExecutor.FailurePolicy.FAIL_FAST)
+                .apply(servers, command);
+
+        assertEquals(1, command.applied.get());
+        assertEquals(1, report.failures().size());
+        assertEquals(5, report.skipped().size());
+
+        try {
+            report.assertSuccess();
+            fail("CommandFailedException expected");
+        } catch (CommandFailedException expected) {
+            assertTrue(expected.getCause() instanceof CommandFailedException);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.wildfly.extras.creaper.core.online;
+
+import com.google.common.base.Strings;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationBuilder;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HttpModelControllerClientTest {
+    private static final String RESPONSE = "{\"outcome\" : \"success\", \"result\" : \"anonymous\"}";
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch received = new CountDownLatch(3);
+    private HttpServer server;
+    private volatile String uploadContentType;
+    private volatile String uploadTransferEncoding;
+    private volatile String uploadBody;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/management", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                received.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = RESPONSE.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                OutputStream out = exchange.getResponseBody();
+                out.write(body);
+                out.close();
+            }
+        });
+        server.createContext("/management-upload", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                uploadContentType = exchange.getRequestHeaders().getFirst("Content-Type");
+                uploadTransferEncoding = exchange.getRequestHeaders().getFirst("Transfer-Encoding");
+                ByteArrayOutputStream body = new ByteArrayOutputStream();
+                InputStream in = exchange.getRequestBody();
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    body.write(buffer, 0, read);
+                }
+                uploadBody = new String(body.toByteArray(), StandardCharsets.ISO_8859_1);
+
+                byte[] response = RESPONSE.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, response.length);
+                OutputStream out = exchange.getResponseBody();
+                out.write(response);
+                out.close();
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    private static ModelNode whoami() {
+        ModelNode op = new ModelNode();
+        op.get(Constants.OP).set(Constants.WHOAMI);
+        op.get(Constants.OP_ADDR).setEmptyList();
+        return op;
+    }
+
+    @Test(timeout = 10000)
+    public void executeAsync_doesNotBlockAndKeepsOperationsInFlight() throws Exception {
+        HttpModelControllerClient client = new HttpModelControllerClient("127.0.0.1",
+                server.getAddress().getPort(), null, null, 0, null, false, 3, 3, null);
+        try {
+            List<AsyncFuture<ModelNode>> futures = new ArrayList<AsyncFuture<ModelNode>>();
+            for (int i = 0; i < 3; i++) {
+                futures.add(client.executeAsync(whoami(), null));
+            }
+
+            // all requests reach the server while none of them is answered yet
+            assertTrue(received.await(5, TimeUnit.SECONDS));
+            for (AsyncFuture<ModelNode> future : futures) {
+                assertEquals(AsyncFuture.Status.WAITING, future.getStatus());
+            }
+
+            release.countDown();
+            for (AsyncFuture<ModelNode> future : futures) {
+                assertEquals("anonymous", new ModelNodeResult(future.get()).stringValue());
+            }
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void execute_streamsAttachmentsAsMultipart() throws Exception {
+        final List<String> progress = new ArrayList<String>();
+        HttpModelControllerClient client = new HttpModelControllerClient("127.0.0.1",
+                server.getAddress().getPort(), null, null, 0, null, false, 1, 1, new UploadProgressListener() {
+                    @Override
+                    public void uploadProgress(int attachmentIndex, long attachmentBytesSent,
+                                               boolean attachmentFinished) {
+                        progress.add(attachmentIndex + ":" + attachmentBytesSent + ":" + attachmentFinished);
+                    }
+                });
+        try {
+            byte[] big = new byte[3 * 1024 * 1024 + 5];
+            Operation operation = new OperationBuilder(whoami(), true)
+                    .addInputStream(new ByteArrayInputStream("first attachment".getBytes(StandardCharsets.UTF_8)))
+                    .addInputStream(new ByteArrayInputStream(big))
+                    .build();
+
+            assertEquals("anonymous", new ModelNodeResult(client.execute(operation)).stringValue());
+        } finally {
+            client.close();
+        }
+
+        assertEquals("chunked", uploadTransferEncoding);
+        assertTrue(uploadContentType, uploadContentType.startsWith("multipart/form-data; boundary="));
+        String boundary = uploadContentType.substring(uploadContentType.indexOf('=') + 1);
+
+        String[] parts = uploadBody.split("--" + boundary);
+        assertEquals(5, parts.length); // preamble, operation, 2 attachments, epilogue
+        assertTrue(parts[1], parts[1].contains("name=\"operation\""));
+        assertTrue(parts[1], parts[1].contains("\"whoami\""));
+        assertTrue(parts[2], parts[2].endsWith("\r\n\r\nfirst attachment\r\n"));
+        assertEquals("--\r\n", parts[4]);
+
+        assertEquals("0:16:true", progress.get(0));
+        assertEquals("1:" + (3 * 1024 * 1024 + 5) + ":true", progress.get(progress.size() - 1));
+        assertEquals(5, progress.size()); // 1st attachment finished, 3 intermediate reports, 2nd attachment finished
+    }
+
+    @Test
+    public void decode_json() throws IOException {
+        StringEntity entity = new StringEntity(RESPONSE, ContentType.APPLICATION_JSON);
+        assertEquals("anonymous", new ModelNodeResult(HttpModelControllerClient.decode(entity)).stringValue());
+    }
+
+    @Test
+    public void decode_dmrEncoded() throws IOException {
+        ModelNode response = ModelNode.fromJSONString(RESPONSE);
+        // long enough for the Base64 encoding to span multiple lines
+        response.get(Constants.RESPONSE_HEADERS, "padding").set(Strings.repeat("x", 1000));
+        ByteArrayOutputStream base64 = new ByteArrayOutputStream();
+        response.writeBase64(base64);
+
+        ByteArrayEntity entity = new ByteArrayEntity(base64.toByteArray(),
+                HttpModelControllerClient.APPLICATION_DMR_ENCODED);
+        ModelNode decoded = HttpModelControllerClient.decode(entity);
+        assertEquals(response, decoded);
+        assertTrue(decoded instanceof ModelNodeResult);
+    }
+}
@@ -1,6 +1,7 @@
 package org.wildfly.extras.creaper.core.online;
 
 import com.google.common.primitives.Doubles;
+import org.jboss.dmr.ModelNode;
 import org.junit.Test;
 
 import java.io.IOException;
@@ -10,6 +11,7 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.wildfly.extras.creaper.core.online.ModelNodeConstants.BATCH_RESULT;
@@ -347,5 +349,38 @@ public class ModelNodeResultTest {
             fail();
         } catch (IllegalArgumentException ignored) {
         }
+
+        // looking up nonexistent servers didn't modify the result
+        assertEquals(RESTART_REQUIRED_IN_DOMAIN, result);
+    }
+
+    @Test
+    public void copyIsIndependent() {
+        ModelNode original = SUCCESS.clone();
+        ModelNodeResult result = new ModelNodeResult(original);
+        original.get(Constants.RESULT).set("changed");
+
+        assertFalse(result.hasDefinedValue());
+    }
+
+    @Test
+    public void resultOfResponse() {
+        ModelNodeResult decoded = new ModelNodeResult(SUCCESS);
+        assertSame(decoded, OnlineManagementClientImpl.resultOf(decoded));
+
+        ModelNode response = SUCCESS.clone();
+        ModelNodeResult result = OnlineManagementClientImpl.resultOf(response);
+        assertEquals(SUCCESS, result);
+        response.get(Constants.RESULT).set("changed");
+        assertFalse(result.hasDefinedValue());
+    }
+
+    @Test
+    public void batchStepIsCopy() {
+        ModelNodeResult result = new ModelNodeResult(BATCH_RESULT);
+        result.forBatchStep(1).get(Constants.RESULT).set("changed");
+        result.forAllBatchSteps().iterator().next().get(Constants.RESULT).set("changed");
+
+        assertEquals(BATCH_RESULT, result);
     }
 }
@@ -0,0 +1,69 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OperationStatisticsTest {
+    @Test
+    public void histogramPercentiles() {
+        OperationStatistics.Histogram histogram = new OperationStatistics.Histogram();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        assertEquals(1000, histogram.count());
+        assertEquals(1000, histogram.minNanos());
+        assertEquals(1000000, histogram.maxNanos());
+        assertEquals(500500, histogram.meanNanos());
+        assertEquals(500000, histogram.percentileNanos(50), 500000 * 0.035);
+        assertEquals(990000, histogram.percentileNanos(99), 990000 * 0.035);
+        assertEquals(1000000, histogram.percentileNanos(100));
+    }
+
+    @Test
+    public void histogramSmallValuesAreExact() {
+        OperationStatistics.Histogram histogram = new OperationStatistics.Histogram();
+        histogram.record(7);
+        histogram.record(42);
+        histogram.record(123456789012L);
+
+        assertEquals(7, histogram.percentileNanos(10));
+        assertEquals(42, histogram.percentileNanos(60));
+        assertEquals(123456789012L, histogram.percentileNanos(100));
+    }
+
+    @Test
+    public void operationsAndCommandsAreRecorded() {
+        ModelNode operation = new ModelNode();
+        operation.get(Constants.OP).set(Constants.READ_ATTRIBUTE_OPERATION);
+        operation.get(Constants.OP_ADDR).add(Constants.SUBSYSTEM, "logging").add("logger", "a");
+        operation.get(Constants.NAME).set("level");
+        ModelNode result = ModelNode.fromString("{\"outcome\" => \"success\", \"result\" => \"INFO\"}");
+
+        OperationListener.OperationEvent event = new OperationListener.OperationEvent(operation, result, 1000);
+        assertEquals("read-attribute", event.operationName);
+        assertEquals("/subsystem=logging/logger=*", event.addressPattern);
+        assertEquals("success", event.outcome);
+        assertTrue(event.requestSize > 0);
+        assertTrue(event.responseSize > 0);
+
+        OperationStatistics statistics = new OperationStatistics();
+        statistics.operationExecuted(event);
+        statistics.operationExecuted(new OperationListener.OperationEvent(operation, null, 3000));
+        statistics.commandApplied(new OperationListener.CommandEvent(OnlineCommand.NOOP, 5000, null));
+
+        Map<String, OperationStatistics.Histogram> operations = statistics.operations();
+        assertEquals(2, operations.get("read-attribute /subsystem=logging/logger=*").count());
+        assertEquals(4000, operations.get("read-attribute /subsystem=logging/logger=*").totalNanos());
+        assertEquals(1, statistics.commands().size());
+
+        String report = statistics.report();
+        assertTrue(report, report.contains("read-attribute /subsystem=logging/logger=*"));
+        assertTrue(report, report.contains("1 failed operations"));
+    }
+}
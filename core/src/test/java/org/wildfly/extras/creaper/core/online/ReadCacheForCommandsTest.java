@@ -0,0 +1,127 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatcher;
+import org.wildfly.extras.creaper.core.online.operations.Address;
+import org.wildfly.extras.creaper.core.online.operations.Operations;
+import org.wildfly.extras.creaper.core.online.operations.Values;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ReadCacheForCommandsTest {
+    private static final ModelNodeResult SERVER = new ModelNodeResult(ModelNode.fromString(
+            "{\"outcome\" => \"success\", \"result\" => {\"jms-queue\" => {\"q1\" => undefined}}}"));
+    private static final ModelNodeResult NOT_FOUND = new ModelNodeResult(ModelNode.fromString(
+            "{\"outcome\" => \"failed\", \"failure-description\" => \"WFLYCTL0216: Management resource not found\"}"));
+    private static final ModelNodeResult SUCCESS = new ModelNodeResult(ModelNode.fromString(
+            "{\"outcome\" => \"success\"}"));
+
+    private static final Address SERVER_ADDRESS = Address.subsystem("messaging-activemq").and("server", "default");
+    private static final Address QUEUE_ADDRESS = SERVER_ADDRESS.and("jms-queue", "q2");
+
+    private OnlineManagementClient delegate;
+    private ReadCacheForCommands client;
+    private Operations ops;
+
+    @Before
+    public void setUp() throws IOException {
+        delegate = mock(OnlineManagementClient.class);
+        when(delegate.allowFailures()).thenReturn(mock(FailuresAllowedBlock.class));
+        when(delegate.execute(any(ModelNode.class))).thenReturn(SUCCESS);
+        when(delegate.execute(argThat(new OperationMatcher(Constants.READ_RESOURCE_OPERATION, SERVER_ADDRESS))))
+                .thenReturn(SERVER);
+        when(delegate.execute(argThat(new OperationMatcher(Constants.READ_RESOURCE_OPERATION, QUEUE_ADDRESS))))
+                .thenReturn(NOT_FOUND);
+
+        client = new ReadCacheForCommands(delegate);
+        ops = new Operations(client);
+    }
+
+    private void verifyReads(Address address, int count) throws IOException {
+        verify(delegate, times(count))
+                .execute(argThat(new OperationMatcher(Constants.READ_RESOURCE_OPERATION, address)));
+    }
+
+    @Test
+    public void repeatedExistsIsReadOnce() throws Exception {
+        assertTrue(ops.exists(SERVER_ADDRESS));
+        assertTrue(ops.exists(SERVER_ADDRESS));
+        assertTrue(ops.exists(SERVER_ADDRESS));
+
+        verifyReads(SERVER_ADDRESS, 1);
+        assertEquals(2, client.hits());
+        assertEquals(1, client.misses());
+    }
+
+    @Test
+    public void addingChildKeepsParentUpToDate() throws Exception {
+        assertTrue(ops.exists(SERVER_ADDRESS));
+        assertFalse(ops.exists(QUEUE_ADDRESS));
+
+        ops.add(QUEUE_ADDRESS, Values.of("entries", "java:/q2"));
+
+        ModelNodeResult server = ops.readResource(SERVER_ADDRESS);
+        assertTrue(server.get(Constants.RESULT, "jms-queue").has("q2"));
+        verifyReads(SERVER_ADDRESS, 1);
+
+        // the queue itself must be read again
+        ops.exists(QUEUE_ADDRESS);
+        verifyReads(QUEUE_ADDRESS, 2);
+    }
+
+    @Test
+    public void failuresOnlyReusedWhenAllowed() throws Exception {
+        assertFalse(ops.exists(QUEUE_ADDRESS));
+        assertFalse(ops.exists(QUEUE_ADDRESS));
+        verifyReads(QUEUE_ADDRESS, 1);
+
+        // outside of a failures-allowed block, so that automatic error handling can kick in
+        ops.readResource(QUEUE_ADDRESS);
+        verifyReads(QUEUE_ADDRESS, 2);
+    }
+
+    @Test
+    public void writesInvalidate() throws Exception {
+        ops.readResource(SERVER_ADDRESS);
+        ops.writeAttribute(SERVER_ADDRESS, "statistics-enabled", true);
+        ops.readResource(SERVER_ADDRESS);
+        verifyReads(SERVER_ADDRESS, 2);
+
+        ops.invoke("reload", Address.root());
+        ops.readResource(SERVER_ADDRESS);
+        verifyReads(SERVER_ADDRESS, 3);
+    }
+
+    private static final class OperationMatcher implements ArgumentMatcher<ModelNode> {
+        private final String name;
+        private final String lastAddressValue;
+
+        OperationMatcher(String name, Address address) {
+            this.name = name;
+            this.lastAddressValue = address.getLastPairValue();
+        }
+
+        @Override
+        public boolean matches(ModelNode operation) {
+            if (operation == null || !name.equals(operation.get(Constants.OP).asString())) {
+                return false;
+            }
+            List<Property> address = operation.get(Constants.OP_ADDR).asPropertyList();
+            return lastAddressValue.equals(address.get(address.size() - 1).getValue().asString());
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.wildfly.extras.creaper.core.online.Constants;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class AddressTest {
@@ -190,4 +191,29 @@ public class AddressTest {
         assertEquals("/deployment=simple.war", singleElementAddress.toString());
         assertEquals("simple.war", singleElementAddress.getLastPairValue());
     }
+
+    @Test
+    public void sharedPrefix() {
+        Address prefix = Address.subsystem("foo");
+        Address first = prefix.and("bar", "1");
+        Address second = prefix.and("bar", "2").and("baz", "3");
+
+        assertEquals("/subsystem=foo", prefix.toString());
+        assertEquals("/subsystem=foo/bar=1", first.toString());
+        assertEquals("/subsystem=foo/bar=2/baz=3", second.toString());
+        assertEquals(3, second.toModelNode().asList().size());
+    }
+
+    @Test
+    public void modelNodeIsCached() {
+        Address address = Address.subsystem("foo").and("bar", "baz");
+        assertSame(address.toModelNode(), address.toModelNode());
+
+        // copies made when putting the address into an operation must be modifiable
+        ModelNode op = new ModelNode();
+        op.get(Constants.OP_ADDR).set(address.toModelNode());
+        op.get(Constants.OP_ADDR).add("qux", "quux");
+        assertEquals("/subsystem=foo/bar=baz", address.toString());
+        assertEquals(2, address.toModelNode().asList().size());
+    }
 }
@@ -0,0 +1,149 @@
+package org.wildfly.extras.creaper.core.online.operations;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.wildfly.extras.creaper.core.online.Constants;
+import org.wildfly.extras.creaper.core.online.FailuresAllowedBlock;
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ReconcileTest {
+    private static final ModelNodeResult CURRENT = new ModelNodeResult(ModelNode.fromString(
+            "{\"outcome\" => \"success\", \"result\" => {"
+                    + "\"category\" => \"org.foo\","
+                    + "\"level\" => \"INFO\","
+                    + "\"use-parent-handlers\" => true,"
+                    + "\"filter-spec\" => \"match(\\\"x\\\")\","
+                    + "\"handlers\" => [\"CONSOLE\"],"
+                    + "\"props\" => {\"a\" => 1, \"b\" => 2}"
+                    + "}}"));
+    private static final ModelNodeResult NOT_FOUND = new ModelNodeResult(ModelNode.fromString(
+            "{\"outcome\" => \"failed\", \"failure-description\" => \"WFLYCTL0216: Management resource not found\"}"));
+    private static final ModelNodeResult SUCCESS = new ModelNodeResult(ModelNode.fromString(
+            "{\"outcome\" => \"success\"}"));
+
+    private static final Address ADDRESS = Address.subsystem("logging").and("logger", "org.foo");
+
+    private OnlineManagementClient client;
+    private Operations ops;
+
+    @Before
+    public void setUp() throws IOException {
+        client = mock(OnlineManagementClient.class);
+        when(client.allowFailures()).thenReturn(mock(FailuresAllowedBlock.class));
+        ops = new Operations(client);
+    }
+
+    private List<ModelNode> executedOperations(int count) throws IOException {
+        ArgumentCaptor<ModelNode> captor = ArgumentCaptor.forClass(ModelNode.class);
+        verify(client, times(count)).execute(captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    public void nothingChanged() throws IOException, OperationException {
+        when(client.execute(any(ModelNode.class))).thenReturn(CURRENT);
+
+        assertFalse(ops.reconcile(ADDRESS, Values.empty()
+                .and("category", "org.foo")
+                .and("use-parent-handlers", "true")
+                .andList("handlers", "CONSOLE")
+                .andObject("props", Values.of("a", 1L))
+                .and("not-an-attribute", "x")));
+
+        List<ModelNode> executed = executedOperations(1);
+        assertEquals(Constants.READ_RESOURCE_OPERATION, executed.get(0).get(Constants.OP).asString());
+        assertTrue(executed.get(0).get(Constants.INCLUDE_DEFAULTS).asBoolean());
+    }
+
+    @Test
+    public void onlyDifferencesWritten() throws IOException, OperationException {
+        when(client.execute(any(ModelNode.class))).thenReturn(CURRENT).thenReturn(SUCCESS);
+
+        assertTrue(ops.reconcile(ADDRESS, Values.empty()
+                .and("category", "org.foo")
+                .and("level", "DEBUG")
+                .and("filter-spec", new ModelNode())
+                .andList("handlers", "CONSOLE", "FILE")));
+
+        ModelNode composite = executedOperations(2).get(1);
+        assertEquals(Constants.COMPOSITE, composite.get(Constants.OP).asString());
+        List<ModelNode> steps = composite.get(Constants.STEPS).asList();
+        assertEquals(3, steps.size());
+        assertEquals(Constants.WRITE_ATTRIBUTE_OPERATION, steps.get(0).get(Constants.OP).asString());
+        assertEquals("level", steps.get(0).get(Constants.NAME).asString());
+        assertEquals(Constants.UNDEFINE_ATTRIBUTE_OPERATION, steps.get(1).get(Constants.OP).asString());
+        assertEquals("filter-spec", steps.get(1).get(Constants.NAME).asString());
+        assertEquals(Constants.WRITE_ATTRIBUTE_OPERATION, steps.get(2).get(Constants.OP).asString());
+        assertEquals("handlers", steps.get(2).get(Constants.NAME).asString());
+    }
+
+    @Test
+    public void objectFieldsNotGivenArePreserved() throws IOException, OperationException {
+        when(client.execute(any(ModelNode.class))).thenReturn(CURRENT).thenReturn(SUCCESS);
+
+        assertTrue(ops.reconcile(ADDRESS, Values.empty().andObject("props", Values.of("b", 3))));
+
+        ModelNode composite = executedOperations(2).get(1);
+        List<ModelNode> steps = composite.get(Constants.STEPS).asList();
+        assertEquals(1, steps.size());
+        assertEquals(Constants.WRITE_ATTRIBUTE_OPERATION, steps.get(0).get(Constants.OP).asString());
+        assertEquals("props", steps.get(0).get(Constants.NAME).asString());
+        ModelNode written = steps.get(0).get(Constants.VALUE);
+        assertEquals(1, written.get("a").asInt());
+        assertEquals(3, written.get("b").asInt());
+        assertEquals(2, written.keys().size());
+    }
+
+    @Test
+    public void missingResourceAdded() throws IOException, OperationException {
+        when(client.execute(any(ModelNode.class))).thenReturn(NOT_FOUND).thenReturn(SUCCESS);
+
+        assertTrue(ops.reconcile(ADDRESS, Values.of("category", "org.foo")));
+
+        ModelNode add = executedOperations(2).get(1);
+        assertEquals(Constants.ADD, add.get(Constants.OP).asString());
+        assertEquals("org.foo", add.get("category").asString());
+    }
+
+    @Test
+    public void sameValue() {
+        assertTrue(Operations.isSameValue(new ModelNode(10), new ModelNode(10L)));
+        assertTrue(Operations.isSameValue(new ModelNode(), new ModelNode()));
+        assertFalse(Operations.isSameValue(new ModelNode(), new ModelNode("x")));
+        assertFalse(Operations.isSameValue(new ModelNode("x"), new ModelNode()));
+        assertFalse(Operations.isSameValue(new ModelNode().add("x"), new ModelNode("x")));
+        assertFalse(Operations.isSameValue(new ModelNode().add("x").add("y"), new ModelNode().add("y").add("x")));
+    }
+
+    @Test
+    public void overlay() {
+        ModelNode current = ModelNode.fromString("{\"path\" => \"a\", \"plain-text\" => true, "
+                + "\"nested\" => {\"x\" => 1, \"y\" => 2}}");
+        ModelNode desired = ModelNode.fromString("{\"path\" => \"b\", \"nested\" => {\"y\" => 3}}");
+
+        ModelNode result = Operations.overlay(current, desired);
+        assertEquals("b", result.get("path").asString());
+        assertTrue(result.get("plain-text").asBoolean());
+        assertEquals(1, result.get("nested", "x").asInt());
+        assertEquals(3, result.get("nested", "y").asInt());
+        assertEquals("a", current.get("path").asString());
+
+        assertEquals(new ModelNode("x"), Operations.overlay(current, new ModelNode("x")));
+        assertEquals(desired, Operations.overlay(new ModelNode("x"), desired));
+    }
+}
@@ -1,8 +1,12 @@
 package org.wildfly.extras.creaper.core.online.operations;
 
 import com.google.common.collect.ImmutableMap;
+import org.jboss.dmr.ModelNode;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -42,4 +46,18 @@ public class ValuesTest {
         assertNotNull(Values.fromMap(ImmutableMap.of("foo", "bar", "baz", "quux")));
         assertEquals(2, Values.fromMap(ImmutableMap.of("foo", "bar", "baz", "quux")).size());
     }
+
+    @Test
+    public void order() {
+        Values prefix = Values.of("a", 1).and("b", 2);
+        Values values = prefix.andList("c", "x", "y").andObject("d", Values.of("e", "f"));
+        prefix.and("z", 0); // must not affect the values created before
+
+        assertEquals(4, values.size());
+        assertEquals("(a=1, b=2, c=[\"x\",\"y\"], d={\"e\" => \"f\"})", values.toString());
+
+        ModelNode modelNode = new ModelNode();
+        values.addToModelNode(modelNode);
+        assertEquals(Arrays.asList("a", "b", "c", "d"), new ArrayList<String>(modelNode.keys()));
+    }
 }
@@ -0,0 +1,93 @@
+package org.wildfly.extras.creaper.core.online.operations.admin;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveWaiterTest {
+    /** Not running for the first {@code downChecks} checks, then running. Exceptions also mean "not running". */
+    private static final class ServerComingBack implements AdaptiveWaiter.RunningCheck {
+        private final int downChecks;
+        int checks;
+
+        ServerComingBack(int downChecks) {
+            this.downChecks = downChecks;
+        }
+
+        @Override
+        public boolean isRunning() throws IOException {
+            checks++;
+            if (checks == 1 && downChecks > 0) {
+                throw new IOException("connection refused");
+            }
+            return checks > downChecks;
+        }
+    }
+
+    @Test
+    public void returnsQuicklyAfterDowntimeWasObserved() throws Exception {
+        ServerComingBack server = new ServerComingBack(3);
+
+        long start = System.currentTimeMillis();
+        new AdaptiveWaiter(10, true).waitUntilRunning(server, "timeout");
+        long duration = System.currentTimeMillis() - start;
+
+        assertEquals(4, server.checks);
+        assertTrue("Waited " + duration + " ms", duration < 400);
+    }
+
+    @Test
+    public void waitsForGracePeriodWhenDowntimeWasNotObserved() throws Exception {
+        ServerComingBack server = new ServerComingBack(0);
+
+        long start = System.currentTimeMillis();
+        new AdaptiveWaiter(10, true).waitUntilRunning(server, "timeout");
+        long duration = System.currentTimeMillis() - start;
+
+        assertTrue("Waited " + duration + " ms", duration >= 500);
+        assertTrue(server.checks > 1);
+    }
+
+    @Test
+    public void returnsImmediatelyWhenDowntimeIsNotExpected() throws Exception {
+        ServerComingBack server = new ServerComingBack(0);
+        new AdaptiveWaiter(10, false).waitUntilRunning(server, "timeout");
+        assertEquals(1, server.checks);
+    }
+
+    @Test
+    public void waitForDowntimeWaitsForGracePeriodWhenServerKeepsRunning() throws Exception {
+        ServerComingBack server = new ServerComingBack(0);
+
+        long start = System.currentTimeMillis();
+        AdaptiveWaiter waiter = new AdaptiveWaiter(10, true);
+        waiter.waitForDowntime(server);
+        long duration = System.currentTimeMillis() - start;
+
+        assertTrue("Waited " + duration + " ms", duration >= 500);
+        assertTrue(server.checks > 1);
+    }
+
+    @Test
+    public void waitForDowntimeReturnsWhenDowntimeWasObserved() throws Exception {
+        ServerComingBack server = new ServerComingBack(3);
+
+        long start = System.currentTimeMillis();
+        AdaptiveWaiter waiter = new AdaptiveWaiter(10, true);
+        waiter.waitForDowntime(server);
+        waiter.waitUntilRunning(server, "timeout");
+        long duration = System.currentTimeMillis() - start;
+
+        assertEquals(4, server.checks);
+        assertTrue("Waited " + duration + " ms", duration < 400);
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void timeout() throws Exception {
+        new AdaptiveWaiter(1, true).waitUntilRunning(new ServerComingBack(Integer.MAX_VALUE), "timeout");
+    }
+}
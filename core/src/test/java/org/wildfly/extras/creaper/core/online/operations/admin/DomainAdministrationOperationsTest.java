@@ -0,0 +1,115 @@
+package org.wildfly.extras.creaper.core.online.operations.admin;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DomainAdministrationOperationsTest {
+    private static final String STATUSES = "{\"outcome\" => \"success\", \"result\" => ["
+            + "{\"address\" => [(\"host\" => \"master\"), (\"server-config\" => \"server-one\")],"
+            + " \"outcome\" => \"success\", \"result\" => \"STARTED\"},"
+            + "{\"address\" => [(\"host\" => \"master\"), (\"server-config\" => \"server-two\")],"
+            + " \"outcome\" => \"success\", \"result\" => \"STARTED\"},"
+            + "{\"address\" => [(\"host\" => \"master\"), (\"server-config\" => \"server-three\")],"
+            + " \"outcome\" => \"success\", \"result\" => \"STOPPED\"},"
+            + "{\"address\" => [(\"host\" => \"slave\"), (\"server-config\" => \"server-four\")],"
+            + " \"outcome\" => \"success\", \"result\" => \"STARTED\"}"
+            + "]}";
+
+    private static final String RESTART_CHECK = "{\"outcome\" => \"success\", \"result\" => {"
+            + "\"step-1\" => {\"outcome\" => \"success\", \"result\" => \"running\"},"
+            + "\"step-2\" => " + STATUSES + ","
+            + "\"step-3\" => {\"outcome\" => \"success\", \"result\" => ["
+            + "  {\"address\" => [(\"host\" => \"master\"), (\"server\" => \"server-one\")],"
+            + "   \"outcome\" => \"success\", \"result\" => \"running\"},"
+            + "  {\"address\" => [(\"host\" => \"master\"), (\"server\" => \"server-two\")],"
+            + "   \"outcome\" => \"success\", \"result\" => \"%s\"}"
+            + "]}}}";
+
+    private OnlineManagementClient client;
+    private DomainAdministrationOperations domainOps;
+
+    @Before
+    public void setUp() {
+        client = mock(OnlineManagementClient.class);
+        domainOps = new DomainAdministrationOperations(client, 10);
+    }
+
+    private void clientReturns(String result) throws IOException {
+        when(client.execute(any(ModelNode.class))).thenReturn(new ModelNodeResult(ModelNode.fromString(result)));
+    }
+
+    @Test
+    public void allRunningServers() throws IOException {
+        clientReturns(STATUSES);
+
+        // the wildcard result is the same for each host, it's only about parsing here
+        assertEquals(Arrays.asList("server-one", "server-two", "server-four"), domainOps.allRunningServers("master"));
+        verify(client, times(1)).execute(any(ModelNode.class));
+    }
+
+    @Test
+    public void serverStates() throws IOException {
+        clientReturns(STATUSES);
+
+        Map<String, Map<String, String>> states = domainOps.serverStates();
+        assertEquals(Arrays.asList("master", "slave"), Arrays.asList(states.keySet().toArray()));
+        assertEquals("STOPPED", states.get("master").get("server-three"));
+        assertEquals(Collections.singletonMap("server-four", "STARTED"), states.get("slave"));
+        verify(client, times(1)).execute(any(ModelNode.class));
+    }
+
+    @Test
+    public void isRestartOperationRequired() throws IOException {
+        clientReturns(String.format(RESTART_CHECK, "running"));
+        assertFalse(domainOps.isRestartOperationRequired("master", CommonRestartOperation.RELOAD));
+
+        clientReturns(String.format(RESTART_CHECK, "reload-required"));
+        assertTrue(domainOps.isRestartOperationRequired("master", CommonRestartOperation.RELOAD));
+        assertFalse(domainOps.isRestartOperationRequired("master", CommonRestartOperation.RESTART));
+
+        clientReturns(String.format(RESTART_CHECK, "restart-required"));
+        assertTrue(domainOps.isRestartOperationRequired("master", CommonRestartOperation.RELOAD));
+        assertTrue(domainOps.isRestartOperationRequired("master", CommonRestartOperation.RESTART));
+    }
+
+    @Test
+    public void doesNotReconnectWhileOldHostControllerIsStillRunning() throws Exception {
+        clientReturns("{\"outcome\" => \"success\", \"result\" => \"running\"}");
+        final long[] reconnectTime = new long[1];
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                reconnectTime[0] = System.currentTimeMillis();
+                return null;
+            }
+        }).when(client).reconnect(anyInt());
+
+        long start = System.currentTimeMillis();
+        domainOps.waitUntilServersAreRunning("master", null, true);
+
+        verify(client, times(1)).reconnect(10);
+        long delay = reconnectTime[0] - start;
+        assertTrue("Reconnected after " + delay + " ms", delay >= 500);
+    }
+}
@@ -0,0 +1,41 @@
+package org.wildfly.extras.creaper.core.online.operations.admin;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StandaloneAdministrationOperationsTest {
+    @Test
+    public void doesNotReconnectWhileOldServerIsStillRunning() throws Exception {
+        OnlineManagementClient client = mock(OnlineManagementClient.class);
+        when(client.execute(any(ModelNode.class))).thenReturn(new ModelNodeResult(
+                ModelNode.fromString("{\"outcome\" => \"success\", \"result\" => \"running\"}")));
+        final long[] reconnectTime = new long[1];
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                reconnectTime[0] = System.currentTimeMillis();
+                return null;
+            }
+        }).when(client).reconnect(anyInt());
+
+        long start = System.currentTimeMillis();
+        new StandaloneAdministrationOperations(client, 10).waitUntilRunning();
+
+        verify(client, times(1)).reconnect(10);
+        long delay = reconnectTime[0] - start;
+        assertTrue("Reconnected after " + delay + " ms", delay >= 500);
+    }
+}
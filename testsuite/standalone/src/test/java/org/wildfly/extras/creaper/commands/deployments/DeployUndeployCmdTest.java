@@ -1,6 +1,7 @@
 package org.wildfly.extras.creaper.commands.deployments;
 
 import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.dmr.ModelNode;
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.jboss.shrinkwrap.api.asset.StringAsset;
@@ -94,6 +95,34 @@ public class DeployUndeployCmdTest {
         ops.removeIfExists(TEST_DEPLOYMENT_ADDRESS);
     }
 
+    @Test
+    public void replaceExistingUploadsOnlyChangedContent() throws Exception {
+        File testDeploymentFile = new File(tmp.getRoot(), DEPLOYMENT_NAME);
+        TEST_DEPLOYMENT.as(ZipExporter.class).exportTo(testDeploymentFile, true);
+        client.apply(new Deploy.Builder(testDeploymentFile).replaceExisting().build());
+        ModelNode originalHash = contentHash();
+
+        // same content, nothing is uploaded, but the deployment is enabled again
+        client.apply(new Undeploy.Builder(DEPLOYMENT_NAME).keepContent().build());
+        client.apply(new Deploy.Builder(testDeploymentFile).replaceExisting().build());
+        Assert.assertEquals(originalHash, contentHash());
+        Assert.assertTrue(ops.readAttribute(TEST_DEPLOYMENT_ADDRESS, "enabled").booleanValue());
+
+        // different content, provided as a stream
+        InputStream changed = ShrinkWrap.create(WebArchive.class, DEPLOYMENT_NAME)
+                .add(new StringAsset("Hello again"), "index.html")
+                .as(ZipExporter.class).exportAsInputStream();
+        client.apply(new Deploy.Builder(changed, DEPLOYMENT_NAME, true).replaceExisting().build());
+        Assert.assertNotEquals(originalHash, contentHash());
+        Assert.assertTrue(ops.readAttribute(TEST_DEPLOYMENT_ADDRESS, "enabled").booleanValue());
+
+        undeploy(DEPLOYMENT_NAME);
+    }
+
+    private ModelNode contentHash() throws IOException {
+        return ops.readAttribute(TEST_DEPLOYMENT_ADDRESS, "content").listValue().get(0).get("hash");
+    }
+
     private void assertDeploymentExists(String deploymentName, boolean shouldExist)
             throws IOException, OperationException {
         boolean exists = ops.exists(Address.deployment(deploymentName));
@@ -1,11 +1,13 @@
 package org.wildfly.extras.creaper.commands.foundation.offline.xml;
 
+import groovy.xml.XmlSlurper;
+import groovy.xml.XmlUtil;
+import groovy.xml.slurpersupport.GPathResult;
+import groovy.xml.slurpersupport.Node;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.wildfly.extras.creaper.XmlAssert;
-import org.xml.sax.SAXException;
 
-import java.io.IOException;
 
 import static org.wildfly.extras.creaper.XmlAssert.assertXmlIdentical;
 
@@ -47,28 +49,53 @@ public class FirstLevelXmlElementOrderTest {
 
     private static final String UNKNOWN_XML = "<foobar/>";
 
+    private static String insert(String xml, String... elementNames) throws Exception {
+        GPathResult root = new XmlSlurper(false, false).parseText(xml);
+        for (String elementName : elementNames) {
+            FirstLevelXmlElementOrder.insert((Node) root.getAt(0), elementName);
+        }
+        return XmlUtil.serialize(root);
+    }
+
+    private static String remove(String xml, String... elementNames) {
+        for (String elementName : elementNames) {
+            xml = xml.replace("    <" + elementName + "/>\n", "");
+        }
+        return xml;
+    }
+
     @BeforeClass
     public static void setUpXmlUnit() {
         XmlAssert.setIgnoreWhitespace(true);
     }
 
     @Test
-    public void domain() throws IOException, SAXException {
-        assertXmlIdentical(DOMAIN_XML, FirstLevelXmlElementOrder.fix(DOMAIN_XML));
+    public void domain() throws Exception {
+        String xml = remove(DOMAIN_XML, "extensions", "profiles", "host-excludes");
+        assertXmlIdentical(DOMAIN_XML, insert(xml, "profiles", "host-excludes", "extensions"));
+    }
+
+    @Test
+    public void host() throws Exception {
+        String xml = remove(HOST_XML, "management", "jvms", "profile");
+        assertXmlIdentical(HOST_XML, insert(xml, "jvms", "profile", "management"));
     }
 
     @Test
-    public void host() throws IOException, SAXException {
-        assertXmlIdentical(HOST_XML, FirstLevelXmlElementOrder.fix(HOST_XML));
+    public void server() throws Exception {
+        String xml = remove(SERVER_XML, "extensions", "interfaces", "socket-binding-group");
+        assertXmlIdentical(SERVER_XML, insert(xml, "socket-binding-group", "interfaces", "extensions"));
     }
 
     @Test
-    public void server() throws IOException, SAXException {
-        assertXmlIdentical(SERVER_XML, FirstLevelXmlElementOrder.fix(SERVER_XML));
+    public void unknownElementsAreSkipped() throws Exception {
+        String xml = "<server xmlns=\"urn:jboss:domain:4.1\"><foobar/><profile/></server>";
+        String expected = "<server xmlns=\"urn:jboss:domain:4.1\"><foobar/><management/><profile/></server>";
+        assertXmlIdentical(expected, insert(xml, "management"));
     }
 
     @Test(expected = IllegalArgumentException.class)
-    public void unknown() {
-        FirstLevelXmlElementOrder.fix(UNKNOWN_XML);
+    public void unknown() throws Exception {
+        insert(UNKNOWN_XML, "extensions");
     }
 }
@@ -0,0 +1,123 @@
+package org.wildfly.extras.creaper.commands.foundation.offline.xml;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wildfly.extras.creaper.XmlAssert;
+import org.wildfly.extras.creaper.commands.foundation.offline.ConfigurationFileBackup;
+import org.wildfly.extras.creaper.commands.logging.LogLevel;
+import org.wildfly.extras.creaper.commands.logging.Logging;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.ManagementClient;
+import org.wildfly.extras.creaper.core.offline.OfflineCommand;
+import org.wildfly.extras.creaper.core.offline.OfflineCommandContext;
+import org.wildfly.extras.creaper.core.offline.OfflineManagementClient;
+import org.wildfly.extras.creaper.core.offline.OfflineOptions;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.fail;
+import static org.wildfly.extras.creaper.XmlAssert.assertXmlIdentical;
+
+public class GroovyXmlTransformInMemorySessionTest {
+    private static final String ORIGINAL = ""
+            + "<server xmlns=\"urn:jboss:domain:4.0\">\n"
+            + "    <profile>\n"
+            + "        <subsystem xmlns=\"urn:jboss:domain:logging:3.0\"/>\n"
+            + "    </profile>\n"
+            + "</server>";
+
+    private static final String EXPECTED = ""
+            + "<server xmlns=\"urn:jboss:domain:4.0\">\n"
+            + "    <profile>\n"
+            + "        <subsystem xmlns=\"urn:jboss:domain:logging:3.0\">\n"
+            + "            <logger category=\"creaper.category\" use-parent-handlers=\"false\">\n"
+            + "                <level name=\"TRACE\"/>\n"
+            + "                <filter-spec value=\"match(&quot;filter&quot;)\"/>\n"
+            + "                <handlers>\n"
+            + "                    <handler name=\"HANDLER-1\"/>\n"
+            + "                </handlers>\n"
+            + "            </logger>\n"
+            + "        </subsystem>\n"
+            + "    </profile>\n"
+            + "</server>";
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private File cfg;
+    private OfflineManagementClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        XmlAssert.setNormalizeWhitespace(true);
+
+        cfg = tmp.newFile("xmlTransform.xml");
+        Files.write(ORIGINAL, cfg, Charsets.UTF_8);
+
+        client = ManagementClient.offline(
+                OfflineOptions.standalone().configurationFile(cfg).inMemorySession().build());
+    }
+
+    private static OfflineCommand addLogger() {
+        return Logging.logger().add("creaper.category")
+                .level(LogLevel.OFF)
+                .filter("match(\"filter\")")
+                .handlers("HANDLER-1", "HANDLER-2")
+                .useParentHandler(true)
+                .build();
+    }
+
+    private static OfflineCommand changeLogger() {
+        return Logging.logger().change("creaper.category")
+                .level(LogLevel.TRACE)
+                .handlers("HANDLER-1")
+                .useParentHandler(false)
+                .build();
+    }
+
+    private OfflineCommand assertFileUnchanged() {
+        return new OfflineCommand() {
+            @Override
+            public void apply(OfflineCommandContext ctx) throws Exception {
+                assertXmlIdentical(ORIGINAL, Files.toString(cfg, Charsets.UTF_8));
+            }
+        };
+    }
+
+    @Test
+    public void changesAreVisibleToSubsequentCommands() throws Exception {
+        client.apply(addLogger(), assertFileUnchanged(), changeLogger());
+
+        assertXmlIdentical(EXPECTED, Files.toString(cfg, Charsets.UTF_8));
+    }
+
+    @Test
+    public void fileIsUntouchedWhenCommandFails() throws Exception {
+        try {
+            client.apply(addLogger(), addLogger()); // the second one fails, logger already exists
+            fail("Adding an existing logger should fail");
+        } catch (CommandFailedException expected) {
+            // expected
+        }
+
+        assertXmlIdentical(ORIGINAL, Files.toString(cfg, Charsets.UTF_8));
+    }
+
+    @Test
+    public void restoreDiscardsChangesKeptInMemory() throws Exception {
+        ConfigurationFileBackup backup = new ConfigurationFileBackup();
+        client.apply(backup.backup(), addLogger(), changeLogger(), backup.restore());
+
+        assertXmlIdentical(ORIGINAL, Files.toString(cfg, Charsets.UTF_8));
+
+        client.apply(addLogger(), changeLogger());
+        client.apply(backup.destroy());
+
+        assertXmlIdentical(EXPECTED, Files.toString(cfg, Charsets.UTF_8));
+    }
+}
@@ -17,6 +17,8 @@ import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 import java.io.IOException;
 import java.util.concurrent.TimeoutException;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(Arquillian.class)
@@ -59,4 +61,22 @@ public class AddLoggerOnlineTest {
 
         assertTrue("logger should be created", ops.exists(TEST_LOGGER_ADDRESS));
     }
+
+    @Test
+    public void reconcileLogger() throws Exception {
+        client.apply(Logging.logger().add(TEST_LOGGER_NAME)
+                .level(LogLevel.OFF)
+                .handlers(TEST_HANDLER_NAME_1)
+                .reconcile()
+                .build());
+        assertTrue("logger should be created", ops.exists(TEST_LOGGER_ADDRESS));
+
+        client.apply(Logging.logger().add(TEST_LOGGER_NAME)
+                .level(LogLevel.DEBUG)
+                .handlers(TEST_HANDLER_NAME_1)
+                .reconcile()
+                .build());
+        assertEquals("DEBUG", ops.readAttribute(TEST_LOGGER_ADDRESS, "level").stringValue());
+        assertFalse("reload shouldn't be required", administration.isReloadRequired());
+    }
 }
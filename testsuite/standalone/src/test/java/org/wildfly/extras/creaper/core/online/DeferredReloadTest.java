@@ -0,0 +1,106 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.arquillian.junit.Arquillian;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.wildfly.extras.creaper.commands.foundation.online.ReloadIfRequired;
+import org.wildfly.extras.creaper.core.CommandFailedException;
+import org.wildfly.extras.creaper.core.ManagementClient;
+import org.wildfly.extras.creaper.core.online.operations.Address;
+import org.wildfly.extras.creaper.core.online.operations.Operations;
+import org.wildfly.extras.creaper.core.online.operations.ReadAttributeOption;
+import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Arquillian.class)
+public class DeferredReloadTest {
+    private static final Address JSP_ADDRESS = Address.subsystem("undertow")
+            .and("servlet-container", "default")
+            .and("setting", "jsp");
+
+    private OnlineManagementClient client;
+    private Operations ops;
+    private Administration admin;
+    private ModelNodeResult originalValue;
+
+    private int reloadRequiredChecks;
+
+    @Before
+    public void connect() throws IOException, InterruptedException, TimeoutException {
+        client = ManagementClient.online(OnlineOptions.standalone().localDefault().deferredReload().build());
+        ops = new Operations(client);
+        admin = new Administration(client);
+        admin.reloadIfRequired();
+        originalValue = ops.readAttribute(JSP_ADDRESS, "development", ReadAttributeOption.NOT_INCLUDE_DEFAULTS);
+    }
+
+    @After
+    public void close() throws IOException, InterruptedException, TimeoutException {
+        try {
+            ops.writeAttribute(JSP_ADDRESS, "development", originalValue.value());
+            admin.reloadIfRequired();
+        } finally {
+            client.close();
+        }
+    }
+
+    private OnlineCommand toggleDevelopment() {
+        return new OnlineCommand() {
+            @Override
+            public void apply(OnlineCommandContext ctx) throws Exception {
+                Operations ops = new Operations(ctx.client);
+                boolean development = ops.readAttribute(JSP_ADDRESS, "development").booleanValue();
+                ops.writeAttribute(JSP_ADDRESS, "development", !development);
+                ctx.reloadIfRequired();
+            }
+        };
+    }
+
+    private OnlineCommand checkReloadRequired(final boolean expected) {
+        return new OnlineCommand() {
+            @Override
+            public void apply(OnlineCommandContext ctx) {
+                assertEquals(expected, new Administration(ctx.client).isReloadRequired());
+                reloadRequiredChecks++;
+            }
+        };
+    }
+
+    @Test
+    public void reloadIsPerformedAtTheEnd() throws Exception {
+        client.apply(toggleDevelopment(), checkReloadRequired(true), toggleDevelopment(), checkReloadRequired(true));
+
+        assertEquals(2, reloadRequiredChecks);
+        assertFalse(admin.isReloadRequired());
+    }
+
+    @Test
+    public void reloadIsPerformedAtBarrier() throws Exception {
+        client.apply(toggleDevelopment(), new ReloadIfRequired(), checkReloadRequired(false), toggleDevelopment());
+
+        assertEquals(1, reloadRequiredChecks);
+        assertFalse(admin.isReloadRequired());
+    }
+
+    @Test(expected = CommandFailedException.class)
+    public void reloadIsNotPerformedWhenCommandFails() throws Exception {
+        try {
+            client.apply(toggleDevelopment(), new OnlineCommand() {
+                @Override
+                public void apply(OnlineCommandContext ctx) throws CommandFailedException {
+                    throw new CommandFailedException("expected");
+                }
+            });
+        } finally {
+            assertTrue(admin.isReloadRequired());
+        }
+    }
+}
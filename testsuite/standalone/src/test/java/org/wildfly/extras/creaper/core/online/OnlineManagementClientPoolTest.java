@@ -0,0 +1,116 @@
+package org.wildfly.extras.creaper.core.online;
+
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(Arquillian.class)
+public class OnlineManagementClientPoolTest {
+    private OnlineManagementClientPool pool;
+
+    @Before
+    public void createPool() {
+        pool = new OnlineManagementClientPool(OnlineOptions.standalone().localDefault().build(), 2, 1000);
+    }
+
+    @After
+    public void closePool() {
+        pool.close();
+    }
+
+    private static void whoami(OnlineManagementClient client) throws IOException {
+        ModelNode op = new ModelNode();
+        op.get(Constants.OP).set(Constants.WHOAMI);
+        op.get(Constants.OP_ADDR).setEmptyList();
+        client.execute(op).assertSuccess();
+    }
+
+    @Test
+    public void clientsAreReused() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            OnlineManagementClient client = pool.borrow();
+            try {
+                whoami(client);
+            } finally {
+                client.close();
+            }
+        }
+
+        OnlineManagementClientPool.Statistics statistics = pool.statistics();
+        assertEquals(5, statistics.borrows);
+        assertEquals(1, statistics.clientsCreated);
+        assertEquals(0, statistics.leased);
+        assertEquals(1, statistics.idle);
+    }
+
+    @Test(expected = ClientAlreadyClosedException.class)
+    public void returnedClientCantBeUsed() throws Exception {
+        OnlineManagementClient client = pool.borrow();
+        client.close();
+        whoami(client);
+    }
+
+    @Test
+    public void borrowWaitsUntilClientIsReturned() throws Exception {
+        OnlineManagementClient first = pool.borrow();
+        OnlineManagementClient second = pool.borrow();
+        try {
+            pool.borrow();
+            fail("TimeoutException expected");
+        } catch (TimeoutException expected) {
+        }
+        first.close();
+        second.close();
+
+        assertEquals(1, pool.statistics().borrowsThatWaited);
+        assertEquals(2, pool.statistics().peakLeased);
+    }
+
+    @Test
+    public void sharedByMultipleThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int i = 0; i < 40; i++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        OnlineManagementClient client = pool.borrow();
+                        try {
+                            whoami(client);
+                        } finally {
+                            client.close();
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        OnlineManagementClientPool.Statistics statistics = pool.statistics();
+        assertEquals(40, statistics.borrows);
+        assertTrue(statistics.clientsCreated <= 2);
+        assertTrue(statistics.peakLeased <= 2);
+    }
+}
@@ -12,6 +12,9 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -83,6 +86,33 @@ public class OnlineManagementClientTest {
         assertStillValid();
     }
 
+    @Test
+    public void executeAsync_operationsSucceed() {
+        List<CompletableFuture<ModelNodeResult>> futures = new ArrayList<CompletableFuture<ModelNodeResult>>();
+        for (int i = 0; i < 10; i++) {
+            ModelNode op = new ModelNode();
+            op.get(Constants.OP).set(Constants.WHOAMI);
+            op.get(Constants.OP_ADDR).setEmptyList();
+            futures.add(client.executeAsync(op));
+        }
+
+        for (CompletableFuture<ModelNodeResult> future : futures) {
+            future.join().assertSuccess();
+        }
+    }
+
+    @Test
+    public void executeAsync_operationFails() throws IOException {
+        ModelNode op = new ModelNode();
+        op.get(Constants.OP).set(Constants.WRITE_ATTRIBUTE_OPERATION);
+        op.get(Constants.OP_ADDR).setEmptyList();
+        op.get(Constants.NAME).set(ManagementVersionPart.MAJOR.attributeName());
+        op.get(Constants.VALUE).set(42);
+        client.executeAsync(op).join().assertFailed();
+
+        assertStillValid();
+    }
+
     @Test
     public void executeFromString_operationSucceeds() throws IOException, CliException {
         client.execute(":whoami").assertSuccess();
@@ -180,6 +210,29 @@ public class OnlineManagementClientTest {
         assertStillValid();
     }
 
+    @Test
+    public void applyCommand_asyncOperationFails() throws IOException {
+        try {
+            client.apply(new OnlineCommand() {
+                @Override
+                public void apply(OnlineCommandContext ctx) {
+                    ModelNode op = new ModelNode();
+                    op.get(Constants.OP).set(Constants.WRITE_ATTRIBUTE_OPERATION);
+                    op.get(Constants.OP_ADDR).setEmptyList();
+                    op.get(Constants.NAME).set(ManagementVersionPart.MAJOR.attributeName());
+                    op.get(Constants.VALUE).set(42);
+                    ctx.client.executeAsync(op).join();
+                }
+            });
+            fail();
+        } catch (CommandFailedException e) {
+            // expected
+            assertTrue(e.getMessage().contains("failed"));
+        }
+
+        assertStillValid();
+    }
+
     @Test
     public void applyCommand_syntaxError() throws IOException {
         try {
@@ -260,4 +313,30 @@ public class OnlineManagementClientTest {
 
         assertStillValid();
     }
+
+    @Test
+    public void disabledCli() throws IOException {
+        OnlineManagementClient dmrOnlyClient = ManagementClient.online(OnlineOptions.standalone().localDefault()
+                .disableCli().build());
+        try {
+            ModelNode op = new ModelNode();
+            op.get(Constants.OP).set(Constants.WHOAMI);
+            op.get(Constants.OP_ADDR).setEmptyList();
+            dmrOnlyClient.execute(op).assertSuccess();
+
+            try {
+                dmrOnlyClient.execute(":whoami");
+                fail();
+            } catch (CliException expected) {
+            }
+
+            try {
+                dmrOnlyClient.executeCli(":whoami");
+                fail();
+            } catch (CliException expected) {
+            }
+        } finally {
+            dmrOnlyClient.close();
+        }
+    }
 }